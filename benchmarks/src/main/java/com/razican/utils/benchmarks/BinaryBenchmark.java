@@ -0,0 +1,128 @@
+package com.razican.utils.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.razican.utils.BinarySerializer;
+import com.razican.utils.BinaryUtils;
+import com.razican.utils.DigestUtils;
+import com.razican.utils.JavaSerializer;
+import com.razican.utils.Serializer;
+
+/**
+ * Benchmarks of the binary codecs, serializers and digests, for different
+ * input sizes
+ *
+ * @author Razican (Iban Eguia)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryBenchmark {
+
+	@Param({"16", "1024", "65536"})
+	private int size;
+
+	private long[] longs;
+	private ByteBuffer varLongs;
+	private ByteBuffer fixedLongs;
+	private byte[] bytes;
+	private List<Object> object;
+	private byte[] binarySerialized;
+	private byte[] javaSerialized;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		final Random random = new Random(42);
+		longs = new long[size];
+		for (int i = 0; i < size; i++) {
+			longs[i] = random.nextLong() >> random.nextInt(64);
+		}
+		varLongs = ByteBuffer.allocate(size * 10);
+		fixedLongs = ByteBuffer.allocate(size * 8);
+		bytes = new byte[size];
+		random.nextBytes(bytes);
+
+		object = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			object.add(i % 2 == 0 ? Long.valueOf(longs[i]) : "value " + i);
+		}
+		binarySerialized = serialize(new BinarySerializer());
+		javaSerialized = serialize(new JavaSerializer());
+	}
+
+	private byte[] serialize(final Serializer serializer) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.serialize(object, Channels.newChannel(out));
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public long[] varLongs() {
+		varLongs.clear();
+		BinaryUtils.putVarLongs(longs, 0, varLongs, size, true);
+		varLongs.flip();
+		final long[] result = new long[size];
+		BinaryUtils.getVarLongs(varLongs, result, 0, size, true);
+		return result;
+	}
+
+	@Benchmark
+	public long[] fixedLongs() {
+		fixedLongs.clear();
+		BinaryUtils.putLongs(longs, 0, fixedLongs, size, fixedLongs.order());
+		fixedLongs.flip();
+		final long[] result = new long[size];
+		BinaryUtils.getLongs(fixedLongs, result, 0, size, fixedLongs.order());
+		return result;
+	}
+
+	@Benchmark
+	public byte[] binarySerialize() throws IOException {
+		return serialize(new BinarySerializer());
+	}
+
+	@Benchmark
+	public Object binaryDeserialize() throws IOException {
+		return new BinarySerializer().deserialize(Channels.newChannel(new ByteArrayInputStream(binarySerialized)));
+	}
+
+	@Benchmark
+	public byte[] javaSerialize() throws IOException {
+		return serialize(new JavaSerializer());
+	}
+
+	@Benchmark
+	public Object javaDeserialize() throws IOException {
+		return new JavaSerializer().deserialize(Channels.newChannel(new ByteArrayInputStream(javaSerialized)));
+	}
+
+	@Benchmark
+	public byte[] sha256() throws NoSuchAlgorithmException {
+		return DigestUtils.digest(DigestUtils.SHA256, bytes);
+	}
+}
@@ -0,0 +1,109 @@
+package com.razican.utils.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.razican.utils.FileCache;
+import com.razican.utils.FileUtils;
+import com.razican.utils.LineIterator;
+
+/**
+ * Benchmarks of the file reading methods, on local temporary files of
+ * different sizes and charsets
+ *
+ * @author Razican (Iban Eguia)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileUtilsBenchmark {
+
+	@Param({"4096", "1048576", "67108864"})
+	private long fileSize;
+
+	@Param({"UTF-8", "ISO-8859-1", "UTF-16LE"})
+	private String charsetName;
+
+	@Param({"true", "false"})
+	private boolean ascii;
+
+	private Charset charset;
+	private File file;
+	private FileCache cache;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		charset = Charset.forName(charsetName);
+		file = TextFiles.createTextFile(fileSize, charset, ascii);
+		cache = new FileCache(16, Long.MAX_VALUE);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Benchmark
+	public String toStringUncached() throws IOException {
+		return FileUtils.toString(file, charset);
+	}
+
+	@Benchmark
+	public String toStringCached() throws IOException {
+		return cache.get(file, charset);
+	}
+
+	@Benchmark
+	public long getLines() {
+		return FileUtils.getLines(file, charset, false);
+	}
+
+	@Benchmark
+	public long getLinesParallel() {
+		return FileUtils.getLines(file, charset, true);
+	}
+
+	@Benchmark
+	public void lineIterator(final Blackhole bh) throws IOException {
+		try (LineIterator it = FileUtils.getLineIterator(file, charset)) {
+			while (it.hasNext()) {
+				bh.consume(it.next());
+			}
+		}
+	}
+
+	@Benchmark
+	public void lineIteratorBatches(final Blackhole bh) throws IOException {
+		try (LineIterator it = FileUtils.getLineIterator(file, charset)) {
+			it.forEachBatch(1024, bh::consume);
+		}
+	}
+
+	@Benchmark
+	public long linesParallel() throws IOException {
+		try (Stream<String> lines = FileUtils.lines(file, charset, true)) {
+			return lines.mapToInt(String::length).sum();
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package com.razican.utils.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.razican.utils.MathUtils;
+
+/**
+ * Benchmarks of the byte helpers, each operation applied to a whole array of
+ * a given size
+ *
+ * @author Razican (Iban Eguia)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathUtilsBenchmark {
+
+	@Param({"16", "1024", "65536"})
+	private int size;
+
+	private byte[] bytes;
+	private int[] ints;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		final Random random = new Random(42);
+		bytes = new byte[size];
+		random.nextBytes(bytes);
+		ints = new int[size];
+		for (int i = 0; i < size; i++) {
+			ints[i] = random.nextInt();
+		}
+	}
+
+	@Benchmark
+	public long uByteToInt() {
+		long sum = 0;
+		for (final byte b : bytes) {
+			sum += MathUtils.uByteToInt(b);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long twoByteToShort() {
+		long sum = 0;
+		for (int i = 1; i < bytes.length; i += 2) {
+			sum += MathUtils.twoByteToShort(bytes[i - 1], bytes[i]);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public long getByte() {
+		long sum = 0;
+		for (final int n : ints) {
+			sum += MathUtils.getByte(n, n & 3);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public void toHex(final Blackhole bh) {
+		for (final byte b : bytes) {
+			bh.consume(MathUtils.toHex(b));
+		}
+	}
+
+	@Benchmark
+	public long zigZag() {
+		long sum = 0;
+		for (final int n : ints) {
+			sum += MathUtils.zigZagDecode(MathUtils.zigZagEncode(n));
+		}
+		return sum;
+	}
+}
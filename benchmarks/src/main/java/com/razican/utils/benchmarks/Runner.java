@@ -0,0 +1,50 @@
+package com.razican.utils.benchmarks;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, to report allocation rates, and
+ * saves the results as JSON, to compare them between releases. The usual JMH
+ * command line options are accepted, for example a regular expression to
+ * select the benchmarks, or <code>-rff</code> to choose the results file,
+ * which by default is <code>jmh-result-&lt;date&gt;.json</code>.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public final class Runner {
+
+	private Runner() {
+	}
+
+	/**
+	 * @param args
+	 *            - JMH command line options
+	 * @throws CommandLineOptionException
+	 *             If the options are not valid
+	 * @throws RunnerException
+	 *             If a benchmark fails
+	 */
+	public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+		final CommandLineOptions cmd = new CommandLineOptions(args);
+		final OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(cmd).addProfiler(GCProfiler.class).resultFormat(ResultFormatType.JSON);
+		if (!cmd.getResult().hasValue()) {
+			builder.result("jmh-result-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json");
+		}
+		if (cmd.getIncludes().isEmpty()) {
+			builder.include(Runner.class.getPackage().getName() + ".*");
+		}
+
+		final Options options = builder.build();
+		new org.openjdk.jmh.runner.Runner(options).run();
+	}
+}
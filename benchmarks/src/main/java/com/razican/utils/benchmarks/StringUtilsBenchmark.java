@@ -0,0 +1,119 @@
+package com.razican.utils.benchmarks;
+
+import java.nio.charset.CharacterCodingException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.razican.utils.HexUtils;
+import com.razican.utils.StringUtils;
+
+/**
+ * Benchmarks of the string conversion and hashing methods, for different
+ * input sizes. The charset conversions are also measured for different
+ * charsets.
+ *
+ * @author Razican (Iban Eguia)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringUtilsBenchmark {
+
+	@Param({"16", "1024", "65536"})
+	private int size;
+
+	@Param({"true", "false"})
+	private boolean ascii;
+
+	private String string;
+	private char[] chars;
+	private byte[] hexBytes;
+	private String hex;
+
+	/**
+	 * Fills the inputs. When not ASCII, a quarter of the characters are in
+	 * the Latin-1 supplement, so that every charset can encode them.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		final Random random = new Random(42);
+		chars = new char[size];
+		for (int i = 0; i < size; i++) {
+			chars[i] = ascii || random.nextInt(4) > 0 ? (char) (' ' + random.nextInt(95)) : (char) (0xA0 + random.nextInt(0x60));
+		}
+		string = new String(chars);
+		hexBytes = new byte[size];
+		random.nextBytes(hexBytes);
+		hex = HexUtils.encode(hexBytes, false);
+	}
+
+	/**
+	 * Inputs of the benchmarks that depend on the charset
+	 */
+	@State(Scope.Thread)
+	public static class Encoded {
+
+		@Param({"UTF-8", "ISO-8859-1", "UTF-16"})
+		private String charsetName;
+
+		private char[] chars;
+		private byte[] bytes;
+
+		@Setup(Level.Trial)
+		public void setUp(final StringUtilsBenchmark benchmark) throws CharacterCodingException {
+			chars = benchmark.chars;
+			bytes = StringUtils.toByte(chars, charsetName);
+		}
+	}
+
+	@Benchmark
+	public String sha1String() {
+		return StringUtils.sha1(string);
+	}
+
+	@Benchmark
+	public String sha1Chars() {
+		return StringUtils.sha1(chars);
+	}
+
+	@Benchmark
+	public byte[] toByte() {
+		return StringUtils.toByte(chars);
+	}
+
+	@Benchmark
+	public byte[] toByteCharset(final Encoded encoded) throws CharacterCodingException {
+		return StringUtils.toByte(encoded.chars, encoded.charsetName);
+	}
+
+	@Benchmark
+	public char[] toChar(final Encoded encoded) throws Exception {
+		return StringUtils.toChar(encoded.bytes, encoded.charsetName);
+	}
+
+	@Benchmark
+	public String toHex() {
+		return HexUtils.encode(hexBytes, false);
+	}
+
+	@Benchmark
+	public byte[] fromHex() {
+		return HexUtils.decode(hex);
+	}
+}
@@ -0,0 +1,62 @@
+package com.razican.utils.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+/**
+ * Generation of the temporary files used by the benchmarks
+ *
+ * @author Razican (Iban Eguia)
+ */
+final class TextFiles {
+
+	private static final String WORDS = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod "
+			+ "tempor incididunt ut labore et dolore magna aliqua \u00f1and\u00fa caf\u00e9 \u00fcber \u00e6on";
+
+	private TextFiles() {
+	}
+
+	/**
+	 * Creates a temporary text file, deleted on exit, with lines of random
+	 * words
+	 *
+	 * @param size
+	 *            - Approximate size of the file, in bytes
+	 * @param charset
+	 *            - Charset of the file
+	 * @param ascii
+	 *            - Whether to only use ASCII words
+	 * @return The file
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	static File createTextFile(final long size, final Charset charset, final boolean ascii) throws IOException {
+		final File file = File.createTempFile("java-utils-bench", ".txt");
+		file.deleteOnExit();
+
+		final String[] words = WORDS.split(" ");
+		final int wordCount = ascii ? words.length - 4 : words.length;
+		final Random random = new Random(42);
+		final int bytesPerChar = "a".getBytes(charset).length;
+		try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), charset))) {
+			long written = 0;
+			while (written < size) {
+				final int lineWords = 1 + random.nextInt(15);
+				final StringBuilder line = new StringBuilder();
+				for (int i = 0; i < lineWords; i++) {
+					line.append(words[random.nextInt(wordCount)]).append(' ');
+				}
+				writer.write(line.toString());
+				writer.newLine();
+				written += (line.length() + 1) * bytesPerChar;
+			}
+		}
+
+		return file;
+	}
+}
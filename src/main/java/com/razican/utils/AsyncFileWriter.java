@@ -0,0 +1,280 @@
+package com.razican.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * File writer that performs the writes in a dedicated thread, so that callers
+ * do not wait for the disk. Each write returns a future that completes once
+ * the data is written. Pending writes are taken in batches, and consecutive
+ * buffers are written with a single gathering write.
+ * <p>
+ * The file can be forced to the storage device after every batch, on a fixed
+ * interval, or only on request with {@link #force()}.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public class AsyncFileWriter implements Closeable {
+
+	/**
+	 * Force interval to force the file after every batch
+	 */
+	public static final long FORCE_ALWAYS = 0;
+
+	/**
+	 * Force interval to only force the file on request
+	 */
+	public static final long FORCE_NEVER = -1;
+
+	private static final int MAX_BATCH = 256;
+
+	private final FileChannel channel;
+	private final OutputStream stream;
+	private final long forceInterval;
+	private final IoMetrics metrics = FileUtils.getMetrics();
+	private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+	private final Thread thread;
+	private boolean closed;
+
+	/**
+	 * Creates a writer that truncates the file, creating it if needed
+	 *
+	 * @param path
+	 *            - The path of the file
+	 * @param forceInterval
+	 *            - Milliseconds between forces of the file,
+	 *            {@link #FORCE_ALWAYS} or {@link #FORCE_NEVER}
+	 * @throws IOException
+	 *             If the file cannot be opened
+	 */
+	public AsyncFileWriter(final Path path, final long forceInterval) throws IOException {
+		this(path, forceInterval, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/**
+	 * Creates a writer
+	 *
+	 * @param path
+	 *            - The path of the file
+	 * @param forceInterval
+	 *            - Milliseconds between forces of the file,
+	 *            {@link #FORCE_ALWAYS} or {@link #FORCE_NEVER}
+	 * @param options
+	 *            - Options to open the file, in addition to
+	 *            {@link StandardOpenOption#WRITE}
+	 * @throws IOException
+	 *             If the file cannot be opened
+	 */
+	public AsyncFileWriter(final Path path, final long forceInterval, final OpenOption... options) throws IOException {
+		final OpenOption[] all = new OpenOption[options.length + 1];
+		System.arraycopy(options, 0, all, 0, options.length);
+		all[options.length] = StandardOpenOption.WRITE;
+
+		this.channel = FileChannel.open(path, all);
+		this.stream = Channels.newOutputStream(channel);
+		this.forceInterval = forceInterval;
+		this.thread = new Thread(this::run, "AsyncFileWriter " + path.getFileName());
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Writes the remaining bytes of a buffer. The buffer must not be modified
+	 * until the write completes.
+	 *
+	 * @param content
+	 *            - The content to write
+	 * @return A future that completes when the content is written
+	 */
+	public CompletableFuture<Void> write(final ByteBuffer content) {
+		return submit(new Request(content, null, false, false));
+	}
+
+	/**
+	 * Writes the contents of a byte array stream, without copying them. The
+	 * stream must not be modified until the write completes.
+	 *
+	 * @param content
+	 *            - The content to write
+	 * @return A future that completes when the content is written
+	 */
+	public CompletableFuture<Void> write(final ByteArrayOutputStream content) {
+		return submit(new Request(null, content, false, false));
+	}
+
+	/**
+	 * Forces the file to the storage device after the pending writes
+	 *
+	 * @return A future that completes when the file is forced
+	 */
+	public CompletableFuture<Void> force() {
+		return submit(new Request(null, null, true, false));
+	}
+
+	/**
+	 * Closes the writer after the pending writes, forcing the file unless the
+	 * force interval is {@link #FORCE_NEVER}
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (queue) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			queue.add(new Request(null, null, forceInterval != FORCE_NEVER, true));
+		}
+
+		try {
+			thread.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			channel.close();
+		}
+	}
+
+	private CompletableFuture<Void> submit(final Request request) {
+		synchronized (queue) {
+			if (!closed) {
+				queue.add(request);
+				return request.future;
+			}
+		}
+
+		final CompletableFuture<Void> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new IOException("The writer is closed"));
+		return failed;
+	}
+
+	private void run() {
+		final List<Request> batch = new ArrayList<>(MAX_BATCH);
+		final List<ByteBuffer> gathered = new ArrayList<>(MAX_BATCH);
+		long lastForce = System.currentTimeMillis();
+		boolean dirty = false;
+		boolean done = false;
+
+		while (!done) {
+			try {
+				final Request first;
+				if (dirty && forceInterval > 0) {
+					first = queue.poll(Math.max(0, lastForce + forceInterval - System.currentTimeMillis()),
+							TimeUnit.MILLISECONDS);
+				} else {
+					first = queue.take();
+				}
+
+				if (first != null) {
+					batch.add(first);
+					queue.drainTo(batch, MAX_BATCH - 1);
+				}
+				for (final Request request : batch) {
+					done |= request.last;
+				}
+
+				try {
+					boolean force = forceInterval == FORCE_ALWAYS
+							|| (dirty && forceInterval > 0 && System.currentTimeMillis() - lastForce >= forceInterval);
+					long written = 0;
+					for (final Request request : batch) {
+						if (request.buffer != null) {
+							gathered.add(request.buffer);
+						} else {
+							written += writeGathered(gathered);
+							if (request.stream != null) {
+								request.stream.writeTo(stream);
+								written += request.stream.size();
+							}
+						}
+						force |= request.force;
+					}
+					written += writeGathered(gathered);
+					metrics.bytesWritten(written);
+					dirty |= !batch.isEmpty();
+
+					if (force && dirty) {
+						channel.force(false);
+						lastForce = System.currentTimeMillis();
+						dirty = false;
+					}
+					for (final Request request : batch) {
+						request.future.complete(null);
+					}
+				} catch (final IOException | RuntimeException e) {
+					metrics.error("write", e);
+					gathered.clear();
+					for (final Request request : batch) {
+						request.future.completeExceptionally(e);
+					}
+				}
+				batch.clear();
+			} catch (final InterruptedException e) {
+				done = true;
+			}
+		}
+
+		final IOException closedException = new IOException("The writer is closed");
+		for (final Request request : queue) {
+			request.future.completeExceptionally(closedException);
+		}
+	}
+
+	/**
+	 * Writes the gathered buffers, and clears the list
+	 *
+	 * @param gathered
+	 *            - The buffers to write
+	 * @return The number of bytes written
+	 */
+	private long writeGathered(final List<ByteBuffer> gathered) throws IOException {
+		if (gathered.isEmpty()) {
+			return 0;
+		}
+
+		final ByteBuffer[] buffers = gathered.toArray(new ByteBuffer[gathered.size()]);
+		gathered.clear();
+		long written = 0;
+		int first = 0;
+		while (first < buffers.length) {
+			written += channel.write(buffers, first, buffers.length - first);
+			while (first < buffers.length && !buffers[first].hasRemaining()) {
+				first++;
+			}
+		}
+
+		return written;
+	}
+
+	/**
+	 * A pending write or force
+	 */
+	private static final class Request {
+		private final ByteBuffer buffer;
+		private final ByteArrayOutputStream stream;
+		private final boolean force;
+		private final boolean last;
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+		private Request(final ByteBuffer buffer, final ByteArrayOutputStream stream, final boolean force,
+				final boolean last) {
+			this.buffer = buffer;
+			this.stream = stream;
+			this.force = force;
+			this.last = last;
+		}
+	}
+}
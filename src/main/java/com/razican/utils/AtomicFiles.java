@@ -0,0 +1,182 @@
+package com.razican.utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Crash-safe file replacement. The new contents are written to a temporary
+ * file in the same directory, forced to the storage device, and atomically
+ * moved over the target, so that the target always has either the old or the
+ * new contents.
+ * <p>
+ * The temporary file gets the POSIX permissions of the target, or, if the
+ * target does not exist yet, the default permissions of a new file, as
+ * limited by the umask, so that saving atomically does not change them.
+ *
+ * @author Razican (Iban Eguia)
+ */
+final class AtomicFiles {
+
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private AtomicFiles() {
+	}
+
+	/**
+	 * Writer of the contents of a file
+	 */
+	interface ContentWriter {
+
+		/**
+		 * Writes the contents
+		 *
+		 * @param channel
+		 *            - The channel to write to
+		 * @throws IOException
+		 *             If an IO error occurs
+		 */
+		void write(FileChannel channel) throws IOException;
+	}
+
+	/**
+	 * Replaces a file, and forces its directory
+	 *
+	 * @param target
+	 *            - The file to replace
+	 * @param writer
+	 *            - The writer of the new contents
+	 * @throws IOException
+	 *             If an IO error occurs. The target is not modified then.
+	 */
+	static void replace(final Path target, final ContentWriter writer) throws IOException {
+		move(write(target, writer), target);
+		syncDirectory(directory(target));
+	}
+
+	/**
+	 * Writes the new contents of a file to a forced temporary file
+	 *
+	 * @param target
+	 *            - The file to replace
+	 * @param writer
+	 *            - The writer of the new contents
+	 * @return The temporary file
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	static Path write(final Path target, final ContentWriter writer) throws IOException {
+		final Path temp = createTemp(target);
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+			copyPermissions(target, temp);
+			writer.write(channel);
+			channel.force(true);
+		} catch (final IOException | RuntimeException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+
+		return temp;
+	}
+
+	/**
+	 * Creates an empty temporary file next to a target. It is created without
+	 * explicit attributes, unlike with
+	 * {@link Files#createTempFile(Path, String, String, java.nio.file.attribute.FileAttribute...)},
+	 * so that it gets the default permissions.
+	 *
+	 * @param target
+	 *            - The file to replace
+	 * @return The temporary file
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	private static Path createTemp(final Path target) throws IOException {
+		final Path directory = directory(target);
+		while (true) {
+			final Path temp = directory.resolve("." + target.getFileName() + "."
+					+ Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + TEMP_SUFFIX);
+			try {
+				return Files.createFile(temp);
+			} catch (final FileAlreadyExistsException e) {
+				// Try another name
+			}
+		}
+	}
+
+	/**
+	 * Copies the POSIX permissions of a target to its temporary file, if the
+	 * target exists and the file system supports them
+	 *
+	 * @param target
+	 *            - The file to replace
+	 * @param temp
+	 *            - The temporary file
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	private static void copyPermissions(final Path target, final Path temp) throws IOException {
+		final PosixFileAttributeView targetView = Files.getFileAttributeView(target, PosixFileAttributeView.class);
+		if (targetView == null) {
+			return;
+		}
+
+		try {
+			Files.getFileAttributeView(temp, PosixFileAttributeView.class).setPermissions(
+					targetView.readAttributes().permissions());
+		} catch (final NoSuchFileException e) {
+			// The target does not exist yet, so the default permissions are kept
+		}
+	}
+
+	/**
+	 * Atomically moves a temporary file over its target
+	 *
+	 * @param temp
+	 *            - The temporary file
+	 * @param target
+	 *            - The file to replace
+	 * @throws IOException
+	 *             If an IO error occurs. The temporary file is deleted then.
+	 */
+	static void move(final Path temp, final Path target) throws IOException {
+		try {
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (final IOException e) {
+			Files.deleteIfExists(temp);
+			throw e;
+		}
+	}
+
+	/**
+	 * Forces a directory, so that the renames in it are durable. Platforms
+	 * that cannot open directories, such as Windows, are ignored.
+	 *
+	 * @param directory
+	 *            - The directory
+	 */
+	static void syncDirectory(final Path directory) {
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (final IOException e) {
+			// Directories cannot be forced in this platform
+		}
+	}
+
+	/**
+	 * @param target
+	 *            - A file
+	 * @return The directory of the file
+	 */
+	static Path directory(final Path target) {
+		final Path parent = target.toAbsolutePath().getParent();
+		return parent == null ? target.toAbsolutePath().getRoot() : parent;
+	}
+}
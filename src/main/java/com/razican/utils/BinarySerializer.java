@@ -0,0 +1,253 @@
+package com.razican.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary serializer for the common value types: <code>null</code>,
+ * boxed primitives, primitive arrays, strings, and lists and maps of these,
+ * nested to any depth. Other types cannot be serialized, use a
+ * {@link JavaSerializer} for them.
+ * <p>
+ * Each value is written as a one byte tag followed by its data. Ints and longs
+ * are written as ZigZag encoded variable length numbers, and lengths as
+ * variable length ints. The rest of the primitives and the contents of
+ * primitive arrays are written in fixed size little endian order, so that
+ * arrays are copied in bulk. Strings are written as UTF-8. Lists are loaded
+ * as {@link ArrayList}s, and maps as {@link LinkedHashMap}s, that keep the
+ * order in which the entries were saved.
+ * <p>
+ * The input is buffered, so more bytes than the object needs may be read from
+ * the channel.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public class BinarySerializer implements Serializer {
+
+	private static final int MAGIC = 0x525A4201;
+	private static final int MAX_INITIAL_CAPACITY = 1024;
+
+	private static final byte NULL = 0;
+	private static final byte BOOLEAN = 1;
+	private static final byte BYTE = 2;
+	private static final byte SHORT = 3;
+	private static final byte CHAR = 4;
+	private static final byte INT = 5;
+	private static final byte LONG = 6;
+	private static final byte FLOAT = 7;
+	private static final byte DOUBLE = 8;
+	private static final byte STRING = 9;
+	private static final byte BOOLEAN_ARRAY = 10;
+	private static final byte BYTE_ARRAY = 11;
+	private static final byte SHORT_ARRAY = 12;
+	private static final byte CHAR_ARRAY = 13;
+	private static final byte INT_ARRAY = 14;
+	private static final byte LONG_ARRAY = 15;
+	private static final byte FLOAT_ARRAY = 16;
+	private static final byte DOUBLE_ARRAY = 17;
+	private static final byte LIST = 18;
+	private static final byte MAP = 19;
+
+	@Override
+	public void serialize(final Object value, final WritableByteChannel channel) throws IOException {
+		final ChannelOutput out = new ChannelOutput(channel);
+		out.ensure(4).putInt(MAGIC);
+		write(value, out);
+		out.flush();
+	}
+
+	@Override
+	public Object deserialize(final ReadableByteChannel channel) throws IOException {
+		final ChannelInput in = new ChannelInput(channel);
+		if (in.require(4).getInt() != MAGIC) {
+			throw new StreamCorruptedException("Not a binary serialized object");
+		}
+
+		return read(in);
+	}
+
+	private static void write(final Object value, final ChannelOutput out) throws IOException {
+		if (value == null) {
+			out.ensure(1).put(NULL);
+		} else if (value instanceof String) {
+			final byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+			out.ensure(1).put(STRING);
+			out.putVarInt(bytes.length);
+			out.put(bytes, 0, bytes.length);
+		} else if (value instanceof Integer) {
+			out.ensure(1).put(INT);
+			out.putVarInt(MathUtils.zigZagEncode(((Integer) value).intValue()));
+		} else if (value instanceof Long) {
+			out.ensure(1).put(LONG);
+			out.putVarLong(MathUtils.zigZagEncode(((Long) value).longValue()));
+		} else if (value instanceof Double) {
+			out.ensure(9).put(DOUBLE).putDouble(((Double) value).doubleValue());
+		} else if (value instanceof Boolean) {
+			out.ensure(2).put(BOOLEAN).put(((Boolean) value).booleanValue() ? (byte) 1 : (byte) 0);
+		} else if (value instanceof List) {
+			final List<?> list = (List<?>) value;
+			out.ensure(1).put(LIST);
+			out.putVarInt(list.size());
+			for (final Object element : list) {
+				write(element, out);
+			}
+		} else if (value instanceof Map) {
+			final Map<?, ?> map = (Map<?, ?>) value;
+			out.ensure(1).put(MAP);
+			out.putVarInt(map.size());
+			for (final Map.Entry<?, ?> entry : map.entrySet()) {
+				write(entry.getKey(), out);
+				write(entry.getValue(), out);
+			}
+		} else if (value instanceof Float) {
+			out.ensure(5).put(FLOAT).putFloat(((Float) value).floatValue());
+		} else if (value instanceof Byte) {
+			out.ensure(2).put(BYTE).put(((Byte) value).byteValue());
+		} else if (value instanceof Short) {
+			out.ensure(3).put(SHORT).putShort(((Short) value).shortValue());
+		} else if (value instanceof Character) {
+			out.ensure(3).put(CHAR).putChar(((Character) value).charValue());
+		} else {
+			writeArray(value, out);
+		}
+	}
+
+	private static void writeArray(final Object value, final ChannelOutput out) throws IOException {
+		if (value instanceof byte[]) {
+			final byte[] array = (byte[]) value;
+			writeHeader(BYTE_ARRAY, array.length, out);
+			out.put(array, 0, array.length);
+		} else if (value instanceof int[]) {
+			final int[] array = (int[]) value;
+			writeHeader(INT_ARRAY, array.length, out);
+			out.put(array);
+		} else if (value instanceof long[]) {
+			final long[] array = (long[]) value;
+			writeHeader(LONG_ARRAY, array.length, out);
+			out.put(array);
+		} else if (value instanceof double[]) {
+			final double[] array = (double[]) value;
+			writeHeader(DOUBLE_ARRAY, array.length, out);
+			out.put(array);
+		} else if (value instanceof float[]) {
+			final float[] array = (float[]) value;
+			writeHeader(FLOAT_ARRAY, array.length, out);
+			out.put(array);
+		} else if (value instanceof char[]) {
+			final char[] array = (char[]) value;
+			writeHeader(CHAR_ARRAY, array.length, out);
+			out.put(array);
+		} else if (value instanceof short[]) {
+			final short[] array = (short[]) value;
+			writeHeader(SHORT_ARRAY, array.length, out);
+			out.put(array);
+		} else if (value instanceof boolean[]) {
+			final boolean[] array = (boolean[]) value;
+			writeHeader(BOOLEAN_ARRAY, array.length, out);
+			out.put(array);
+		} else {
+			throw new NotSerializableException(value.getClass().getName());
+		}
+	}
+
+	private static void writeHeader(final byte tag, final int length, final ChannelOutput out) throws IOException {
+		out.ensure(1).put(tag);
+		out.putVarInt(length);
+	}
+
+	private static Object read(final ChannelInput in) throws IOException {
+		final byte tag = in.require(1).get();
+		switch (tag) {
+		case NULL:
+			return null;
+		case BOOLEAN:
+			return Boolean.valueOf(in.require(1).get() != 0);
+		case BYTE:
+			return Byte.valueOf(in.require(1).get());
+		case SHORT:
+			return Short.valueOf(in.require(2).getShort());
+		case CHAR:
+			return Character.valueOf(in.require(2).getChar());
+		case INT:
+			return Integer.valueOf(MathUtils.zigZagDecode(in.getVarInt()));
+		case LONG:
+			return Long.valueOf(MathUtils.zigZagDecode(in.getVarLong()));
+		case FLOAT:
+			return Float.valueOf(in.require(4).getFloat());
+		case DOUBLE:
+			return Double.valueOf(in.require(8).getDouble());
+		case STRING:
+			return readString(in);
+		case LIST:
+			final int size = in.getLength();
+			final List<Object> list = new ArrayList<>(Math.min(size, MAX_INITIAL_CAPACITY));
+			try {
+				for (int i = 0; i < size; i++) {
+					list.add(read(in));
+				}
+			} catch (final EOFException e) {
+				throw new StreamCorruptedException("Length " + size + " exceeds the input");
+			}
+			return list;
+		case MAP:
+			final int entries = in.getLength();
+			final Map<Object, Object> map = new LinkedHashMap<>(Math.min(entries, MAX_INITIAL_CAPACITY) * 4 / 3 + 1);
+			try {
+				for (int i = 0; i < entries; i++) {
+					map.put(read(in), read(in));
+				}
+			} catch (final EOFException e) {
+				throw new StreamCorruptedException("Length " + entries + " exceeds the input");
+			}
+			return map;
+		default:
+			return readArray(tag, in);
+		}
+	}
+
+	private static String readString(final ChannelInput in) throws IOException {
+		final int length = in.getLength();
+		if (length <= ChannelOutput.BUFFER_SIZE) {
+			final ByteBuffer buf = in.require(length);
+			final String value = new String(buf.array(), buf.arrayOffset() + buf.position(), length,
+					StandardCharsets.UTF_8);
+			buf.position(buf.position() + length);
+			return value;
+		}
+
+		return new String(in.getBytes(length), StandardCharsets.UTF_8);
+	}
+
+	private static Object readArray(final byte tag, final ChannelInput in) throws IOException {
+		switch (tag) {
+		case BOOLEAN_ARRAY:
+			return in.getBooleans(in.getLength());
+		case BYTE_ARRAY:
+			return in.getBytes(in.getLength());
+		case SHORT_ARRAY:
+			return in.getShorts(in.getLength());
+		case CHAR_ARRAY:
+			return in.getChars(in.getLength());
+		case INT_ARRAY:
+			return in.getInts(in.getLength());
+		case LONG_ARRAY:
+			return in.getLongs(in.getLength());
+		case FLOAT_ARRAY:
+			return in.getFloats(in.getLength());
+		case DOUBLE_ARRAY:
+			return in.getDoubles(in.getLength());
+		default:
+			throw new StreamCorruptedException("Invalid type tag: " + tag);
+		}
+	}
+}
@@ -0,0 +1,832 @@
+package com.razican.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Binary codec utilities, to read and write primitive values at any offset of
+ * byte arrays and buffers, in big or little endian order. The byte order of a
+ * buffer is not used nor changed, the order given to each method is.
+ * <p>
+ * Buffer methods use the unaligned accessors of the buffer, and the bulk
+ * methods use view buffers, that copy whole arrays at once.
+ * <p>
+ * Variable length integers are encoded in LEB128: seven bits per byte, least
+ * significant group first, with the high bit of each byte set if more bytes
+ * follow. Ints are encoded as unsigned 32 bit numbers, so negative values
+ * take 5 bytes unless they are ZigZag encoded first.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public final class BinaryUtils {
+
+	private static final long CONTINUATION_BITS = 0x8080808080808080L;
+	private static final int MAX_VAR_LONG_SIZE = 10;
+
+	private BinaryUtils() {
+	}
+
+	/**
+	 * Reads a short from a byte array
+	 *
+	 * @param b
+	 *            - The byte array
+	 * @param off
+	 *            - Offset of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value
+	 */
+	public static short getShort(final byte[] b, final int off, final ByteOrder order) {
+		if (order == ByteOrder.BIG_ENDIAN) {
+			return (short) ((b[off] << 8) | (b[off + 1] & 0xFF));
+		}
+
+		return (short) ((b[off + 1] << 8) | (b[off] & 0xFF));
+	}
+
+	/**
+	 * Reads an unsigned short from a byte array
+	 *
+	 * @param b
+	 *            - The byte array
+	 * @param off
+	 *            - Offset of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value, from 0 to 65535
+	 */
+	public static int getUnsignedShort(final byte[] b, final int off, final ByteOrder order) {
+		return getShort(b, off, order) & 0xFFFF;
+	}
+
+	/**
+	 * Reads an int from a byte array
+	 *
+	 * @param b
+	 *            - The byte array
+	 * @param off
+	 *            - Offset of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value
+	 */
+	public static int getInt(final byte[] b, final int off, final ByteOrder order) {
+		if (order == ByteOrder.BIG_ENDIAN) {
+			return (b[off] << 24) | ((b[off + 1] & 0xFF) << 16) | ((b[off + 2] & 0xFF) << 8) | (b[off + 3] & 0xFF);
+		}
+
+		return (b[off + 3] << 24) | ((b[off + 2] & 0xFF) << 16) | ((b[off + 1] & 0xFF) << 8) | (b[off] & 0xFF);
+	}
+
+	/**
+	 * Reads an unsigned int from a byte array
+	 *
+	 * @param b
+	 *            - The byte array
+	 * @param off
+	 *            - Offset of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value, from 0 to 2<sup>32</sup> - 1
+	 */
+	public static long getUnsignedInt(final byte[] b, final int off, final ByteOrder order) {
+		return getInt(b, off, order) & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Reads a long from a byte array
+	 *
+	 * @param b
+	 *            - The byte array
+	 * @param off
+	 *            - Offset of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value
+	 */
+	public static long getLong(final byte[] b, final int off, final ByteOrder order) {
+		final long first = getInt(b, off, order) & 0xFFFFFFFFL;
+		final long second = getInt(b, off + 4, order) & 0xFFFFFFFFL;
+		if (order == ByteOrder.BIG_ENDIAN) {
+			return (first << 32) | second;
+		}
+
+		return (second << 32) | first;
+	}
+
+	/**
+	 * Reads a float from a byte array
+	 *
+	 * @param b
+	 *            - The byte array
+	 * @param off
+	 *            - Offset of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value
+	 */
+	public static float getFloat(final byte[] b, final int off, final ByteOrder order) {
+		return Float.intBitsToFloat(getInt(b, off, order));
+	}
+
+	/**
+	 * Reads a double from a byte array
+	 *
+	 * @param b
+	 *            - The byte array
+	 * @param off
+	 *            - Offset of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value
+	 */
+	public static double getDouble(final byte[] b, final int off, final ByteOrder order) {
+		return Double.longBitsToDouble(getLong(b, off, order));
+	}
+
+	/**
+	 * Writes a short to a byte array
+	 *
+	 * @param b
+	 *            - The byte array
+	 * @param off
+	 *            - Offset of the value
+	 * @param value
+	 *            - The value, signed or unsigned
+	 * @param order
+	 *            - Byte order of the value
+	 */
+	public static void putShort(final byte[] b, final int off, final int value, final ByteOrder order) {
+		if (order == ByteOrder.BIG_ENDIAN) {
+			b[off] = (byte) (value >> 8);
+			b[off + 1] = (byte) value;
+		} else {
+			b[off] = (byte) value;
+			b[off + 1] = (byte) (value >> 8);
+		}
+	}
+
+	/**
+	 * Writes an int to a byte array
+	 *
+	 * @param b
+	 *            - The byte array
+	 * @param off
+	 *            - Offset of the value
+	 * @param value
+	 *            - The value, signed or unsigned
+	 * @param order
+	 *            - Byte order of the value
+	 */
+	public static void putInt(final byte[] b, final int off, final int value, final ByteOrder order) {
+		if (order == ByteOrder.BIG_ENDIAN) {
+			b[off] = (byte) (value >> 24);
+			b[off + 1] = (byte) (value >> 16);
+			b[off + 2] = (byte) (value >> 8);
+			b[off + 3] = (byte) value;
+		} else {
+			b[off] = (byte) value;
+			b[off + 1] = (byte) (value >> 8);
+			b[off + 2] = (byte) (value >> 16);
+			b[off + 3] = (byte) (value >> 24);
+		}
+	}
+
+	/**
+	 * Writes a long to a byte array
+	 *
+	 * @param b
+	 *            - The byte array
+	 * @param off
+	 *            - Offset of the value
+	 * @param value
+	 *            - The value
+	 * @param order
+	 *            - Byte order of the value
+	 */
+	public static void putLong(final byte[] b, final int off, final long value, final ByteOrder order) {
+		if (order == ByteOrder.BIG_ENDIAN) {
+			putInt(b, off, (int) (value >> 32), order);
+			putInt(b, off + 4, (int) value, order);
+		} else {
+			putInt(b, off, (int) value, order);
+			putInt(b, off + 4, (int) (value >> 32), order);
+		}
+	}
+
+	/**
+	 * Writes a float to a byte array
+	 *
+	 * @param b
+	 *            - The byte array
+	 * @param off
+	 *            - Offset of the value
+	 * @param value
+	 *            - The value
+	 * @param order
+	 *            - Byte order of the value
+	 */
+	public static void putFloat(final byte[] b, final int off, final float value, final ByteOrder order) {
+		putInt(b, off, Float.floatToRawIntBits(value), order);
+	}
+
+	/**
+	 * Writes a double to a byte array
+	 *
+	 * @param b
+	 *            - The byte array
+	 * @param off
+	 *            - Offset of the value
+	 * @param value
+	 *            - The value
+	 * @param order
+	 *            - Byte order of the value
+	 */
+	public static void putDouble(final byte[] b, final int off, final double value, final ByteOrder order) {
+		putLong(b, off, Double.doubleToRawLongBits(value), order);
+	}
+
+	/**
+	 * Reads a short from a buffer
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value
+	 */
+	public static short getShort(final ByteBuffer buf, final int index, final ByteOrder order) {
+		final short value = buf.getShort(index);
+		return buf.order() == order ? value : Short.reverseBytes(value);
+	}
+
+	/**
+	 * Reads an unsigned short from a buffer
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value, from 0 to 65535
+	 */
+	public static int getUnsignedShort(final ByteBuffer buf, final int index, final ByteOrder order) {
+		return getShort(buf, index, order) & 0xFFFF;
+	}
+
+	/**
+	 * Reads an int from a buffer
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value
+	 */
+	public static int getInt(final ByteBuffer buf, final int index, final ByteOrder order) {
+		final int value = buf.getInt(index);
+		return buf.order() == order ? value : Integer.reverseBytes(value);
+	}
+
+	/**
+	 * Reads an unsigned int from a buffer
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value, from 0 to 2<sup>32</sup> - 1
+	 */
+	public static long getUnsignedInt(final ByteBuffer buf, final int index, final ByteOrder order) {
+		return getInt(buf, index, order) & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Reads a long from a buffer
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value
+	 */
+	public static long getLong(final ByteBuffer buf, final int index, final ByteOrder order) {
+		final long value = buf.getLong(index);
+		return buf.order() == order ? value : Long.reverseBytes(value);
+	}
+
+	/**
+	 * Reads a float from a buffer
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value
+	 */
+	public static float getFloat(final ByteBuffer buf, final int index, final ByteOrder order) {
+		return Float.intBitsToFloat(getInt(buf, index, order));
+	}
+
+	/**
+	 * Reads a double from a buffer
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the value
+	 * @param order
+	 *            - Byte order of the value
+	 * @return The value
+	 */
+	public static double getDouble(final ByteBuffer buf, final int index, final ByteOrder order) {
+		return Double.longBitsToDouble(getLong(buf, index, order));
+	}
+
+	/**
+	 * Writes a short to a buffer
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the value
+	 * @param value
+	 *            - The value, signed or unsigned
+	 * @param order
+	 *            - Byte order of the value
+	 */
+	public static void putShort(final ByteBuffer buf, final int index, final int value, final ByteOrder order) {
+		buf.putShort(index, buf.order() == order ? (short) value : Short.reverseBytes((short) value));
+	}
+
+	/**
+	 * Writes an int to a buffer
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the value
+	 * @param value
+	 *            - The value, signed or unsigned
+	 * @param order
+	 *            - Byte order of the value
+	 */
+	public static void putInt(final ByteBuffer buf, final int index, final int value, final ByteOrder order) {
+		buf.putInt(index, buf.order() == order ? value : Integer.reverseBytes(value));
+	}
+
+	/**
+	 * Writes a long to a buffer
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the value
+	 * @param value
+	 *            - The value
+	 * @param order
+	 *            - Byte order of the value
+	 */
+	public static void putLong(final ByteBuffer buf, final int index, final long value, final ByteOrder order) {
+		buf.putLong(index, buf.order() == order ? value : Long.reverseBytes(value));
+	}
+
+	/**
+	 * Writes a float to a buffer
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the value
+	 * @param value
+	 *            - The value
+	 * @param order
+	 *            - Byte order of the value
+	 */
+	public static void putFloat(final ByteBuffer buf, final int index, final float value, final ByteOrder order) {
+		putInt(buf, index, Float.floatToRawIntBits(value), order);
+	}
+
+	/**
+	 * Writes a double to a buffer
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the value
+	 * @param value
+	 *            - The value
+	 * @param order
+	 *            - Byte order of the value
+	 */
+	public static void putDouble(final ByteBuffer buf, final int index, final double value, final ByteOrder order) {
+		putLong(buf, index, Double.doubleToRawLongBits(value), order);
+	}
+
+	/**
+	 * Reads many ints from a byte array
+	 *
+	 * @param src
+	 *            - The byte array
+	 * @param srcOff
+	 *            - Offset of the first value
+	 * @param dst
+	 *            - Destination array
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param len
+	 *            - Number of values
+	 * @param order
+	 *            - Byte order of the values
+	 */
+	public static void getInts(final byte[] src, final int srcOff, final int[] dst, final int dstOff, final int len,
+			final ByteOrder order) {
+		ByteBuffer.wrap(src, srcOff, len << 2).order(order).asIntBuffer().get(dst, dstOff, len);
+	}
+
+	/**
+	 * Writes many ints to a byte array
+	 *
+	 * @param src
+	 *            - The values
+	 * @param srcOff
+	 *            - Offset of the first value
+	 * @param dst
+	 *            - Destination byte array
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param len
+	 *            - Number of values
+	 * @param order
+	 *            - Byte order of the values
+	 */
+	public static void putInts(final int[] src, final int srcOff, final byte[] dst, final int dstOff, final int len,
+			final ByteOrder order) {
+		ByteBuffer.wrap(dst, dstOff, len << 2).order(order).asIntBuffer().put(src, srcOff, len);
+	}
+
+	/**
+	 * Reads many longs from a byte array
+	 *
+	 * @param src
+	 *            - The byte array
+	 * @param srcOff
+	 *            - Offset of the first value
+	 * @param dst
+	 *            - Destination array
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param len
+	 *            - Number of values
+	 * @param order
+	 *            - Byte order of the values
+	 */
+	public static void getLongs(final byte[] src, final int srcOff, final long[] dst, final int dstOff, final int len,
+			final ByteOrder order) {
+		ByteBuffer.wrap(src, srcOff, len << 3).order(order).asLongBuffer().get(dst, dstOff, len);
+	}
+
+	/**
+	 * Writes many longs to a byte array
+	 *
+	 * @param src
+	 *            - The values
+	 * @param srcOff
+	 *            - Offset of the first value
+	 * @param dst
+	 *            - Destination byte array
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param len
+	 *            - Number of values
+	 * @param order
+	 *            - Byte order of the values
+	 */
+	public static void putLongs(final long[] src, final int srcOff, final byte[] dst, final int dstOff, final int len,
+			final ByteOrder order) {
+		ByteBuffer.wrap(dst, dstOff, len << 3).order(order).asLongBuffer().put(src, srcOff, len);
+	}
+
+	/**
+	 * Reads many ints from the current position of a buffer, that is advanced
+	 *
+	 * @param src
+	 *            - The buffer
+	 * @param dst
+	 *            - Destination array
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param len
+	 *            - Number of values
+	 * @param order
+	 *            - Byte order of the values
+	 */
+	public static void getInts(final ByteBuffer src, final int[] dst, final int dstOff, final int len, final ByteOrder order) {
+		src.duplicate().order(order).asIntBuffer().get(dst, dstOff, len);
+		src.position(src.position() + (len << 2));
+	}
+
+	/**
+	 * Writes many ints at the current position of a buffer, that is advanced
+	 *
+	 * @param src
+	 *            - The values
+	 * @param srcOff
+	 *            - Offset of the first value
+	 * @param dst
+	 *            - Destination buffer
+	 * @param len
+	 *            - Number of values
+	 * @param order
+	 *            - Byte order of the values
+	 */
+	public static void putInts(final int[] src, final int srcOff, final ByteBuffer dst, final int len, final ByteOrder order) {
+		dst.duplicate().order(order).asIntBuffer().put(src, srcOff, len);
+		dst.position(dst.position() + (len << 2));
+	}
+
+	/**
+	 * Reads many longs from the current position of a buffer, that is advanced
+	 *
+	 * @param src
+	 *            - The buffer
+	 * @param dst
+	 *            - Destination array
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param len
+	 *            - Number of values
+	 * @param order
+	 *            - Byte order of the values
+	 */
+	public static void getLongs(final ByteBuffer src, final long[] dst, final int dstOff, final int len,
+			final ByteOrder order) {
+		src.duplicate().order(order).asLongBuffer().get(dst, dstOff, len);
+		src.position(src.position() + (len << 3));
+	}
+
+	/**
+	 * Writes many longs at the current position of a buffer, that is advanced
+	 *
+	 * @param src
+	 *            - The values
+	 * @param srcOff
+	 *            - Offset of the first value
+	 * @param dst
+	 *            - Destination buffer
+	 * @param len
+	 *            - Number of values
+	 * @param order
+	 *            - Byte order of the values
+	 */
+	public static void putLongs(final long[] src, final int srcOff, final ByteBuffer dst, final int len,
+			final ByteOrder order) {
+		dst.duplicate().order(order).asLongBuffer().put(src, srcOff, len);
+		dst.position(dst.position() + (len << 3));
+	}
+
+	/**
+	 * Gets the number of bytes of a variable length long
+	 *
+	 * @param value
+	 *            - The value
+	 * @return The number of bytes, from 1 to 10
+	 */
+	public static int varLongSize(final long value) {
+		return (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+	}
+
+	/**
+	 * Gets the number of bytes of a variable length int
+	 *
+	 * @param value
+	 *            - The value
+	 * @return The number of bytes, from 1 to 5
+	 */
+	public static int varIntSize(final int value) {
+		return varLongSize(value & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Writes a variable length long at the current position of a buffer, that
+	 * is advanced
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param value
+	 *            - The value
+	 */
+	public static void putVarLong(final ByteBuffer buf, final long value) {
+		long v = value;
+		while ((v & ~0x7FL) != 0) {
+			buf.put((byte) (v | 0x80));
+			v >>>= 7;
+		}
+		buf.put((byte) v);
+	}
+
+	/**
+	 * Writes a variable length int at the current position of a buffer, that
+	 * is advanced
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param value
+	 *            - The value
+	 */
+	public static void putVarInt(final ByteBuffer buf, final int value) {
+		putVarLong(buf, value & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Reads a variable length long from the current position of a buffer, that
+	 * is advanced. If at least 8 bytes remain, they are read as a single long:
+	 * the first byte without continuation bit is found in the complement of
+	 * the continuation bits, and the seven bit groups are joined with masks and
+	 * shifts, without branches.
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @return The value
+	 * @throws IllegalArgumentException
+	 *             If the value is longer than 10 bytes
+	 */
+	public static long getVarLong(final ByteBuffer buf) {
+		final int position = buf.position();
+		if (buf.limit() - position < 8) {
+			return getVarLong(buf, position, 0, 0);
+		}
+
+		final long word = getLong(buf, position, ByteOrder.LITTLE_ENDIAN);
+		final long stops = ~word & CONTINUATION_BITS;
+		if (stops == 0) {
+			return getVarLong(buf, position + 8, 56, compact(word));
+		}
+
+		final int bits = Long.numberOfTrailingZeros(stops) + 1;
+		buf.position(position + (bits >>> 3));
+
+		return compact(bits == 64 ? word : word & ((1L << bits) - 1));
+	}
+
+	/**
+	 * Reads a variable length int from the current position of a buffer, that
+	 * is advanced
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @return The value
+	 * @throws IllegalArgumentException
+	 *             If the value does not fit in 32 bits
+	 */
+	public static int getVarInt(final ByteBuffer buf) {
+		final long value = getVarLong(buf);
+		if ((value >>> 32) != 0) {
+			throw new IllegalArgumentException("Malformed variable length int");
+		}
+
+		return (int) value;
+	}
+
+	/**
+	 * Writes many variable length ints at the current position of a buffer,
+	 * that is advanced
+	 *
+	 * @param src
+	 *            - The values
+	 * @param srcOff
+	 *            - Offset of the first value
+	 * @param dst
+	 *            - Destination buffer
+	 * @param len
+	 *            - Number of values
+	 * @param zigZag
+	 *            - Whether to ZigZag encode the values first
+	 */
+	public static void putVarInts(final int[] src, final int srcOff, final ByteBuffer dst, final int len,
+			final boolean zigZag) {
+		for (int i = srcOff, end = srcOff + len; i < end; i++) {
+			putVarInt(dst, zigZag ? MathUtils.zigZagEncode(src[i]) : src[i]);
+		}
+	}
+
+	/**
+	 * Reads many variable length ints from the current position of a buffer,
+	 * that is advanced
+	 *
+	 * @param src
+	 *            - The buffer
+	 * @param dst
+	 *            - Destination array
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param len
+	 *            - Number of values
+	 * @param zigZag
+	 *            - Whether to ZigZag decode the values
+	 */
+	public static void getVarInts(final ByteBuffer src, final int[] dst, final int dstOff, final int len,
+			final boolean zigZag) {
+		for (int i = dstOff, end = dstOff + len; i < end; i++) {
+			final int value = getVarInt(src);
+			dst[i] = zigZag ? MathUtils.zigZagDecode(value) : value;
+		}
+	}
+
+	/**
+	 * Writes many variable length longs at the current position of a buffer,
+	 * that is advanced
+	 *
+	 * @param src
+	 *            - The values
+	 * @param srcOff
+	 *            - Offset of the first value
+	 * @param dst
+	 *            - Destination buffer
+	 * @param len
+	 *            - Number of values
+	 * @param zigZag
+	 *            - Whether to ZigZag encode the values first
+	 */
+	public static void putVarLongs(final long[] src, final int srcOff, final ByteBuffer dst, final int len,
+			final boolean zigZag) {
+		for (int i = srcOff, end = srcOff + len; i < end; i++) {
+			putVarLong(dst, zigZag ? MathUtils.zigZagEncode(src[i]) : src[i]);
+		}
+	}
+
+	/**
+	 * Reads many variable length longs from the current position of a buffer,
+	 * that is advanced
+	 *
+	 * @param src
+	 *            - The buffer
+	 * @param dst
+	 *            - Destination array
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param len
+	 *            - Number of values
+	 * @param zigZag
+	 *            - Whether to ZigZag decode the values
+	 */
+	public static void getVarLongs(final ByteBuffer src, final long[] dst, final int dstOff, final int len,
+			final boolean zigZag) {
+		for (int i = dstOff, end = dstOff + len; i < end; i++) {
+			final long value = getVarLong(src);
+			dst[i] = zigZag ? MathUtils.zigZagDecode(value) : value;
+		}
+	}
+
+	/**
+	 * Reads the rest of a variable length long one byte at a time
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param position
+	 *            - Position of the next byte
+	 * @param shift
+	 *            - Number of bits already read
+	 * @param value
+	 *            - Bits already read
+	 * @return The value
+	 */
+	private static long getVarLong(final ByteBuffer buf, final int position, final int shift, final long value) {
+		buf.position(position);
+		long result = value;
+		for (int s = shift; s < MAX_VAR_LONG_SIZE * 7; s += 7) {
+			final byte b = buf.get();
+			result |= (b & 0x7FL) << s;
+			if (b >= 0) {
+				return result;
+			}
+		}
+
+		throw new IllegalArgumentException("Malformed variable length long");
+	}
+
+	/**
+	 * Joins the seven bit groups of the bytes of a little endian long
+	 *
+	 * @param word
+	 *            - The bytes, without the bytes after the last one
+	 * @return The joined groups
+	 */
+	private static long compact(final long word) {
+		return (word & 0x7FL) | ((word & 0x7F00L) >>> 1) | ((word & 0x7F0000L) >>> 2) | ((word & 0x7F000000L) >>> 3)
+				| ((word & 0x7F00000000L) >>> 4) | ((word & 0x7F0000000000L) >>> 5) | ((word & 0x7F000000000000L) >>> 6)
+				| ((word & 0x7F00000000000000L) >>> 7);
+	}
+}
@@ -0,0 +1,315 @@
+package com.razican.utils;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of reusable direct byte buffers and heap char buffers, so that
+ * repeated IO does not allocate new buffers. Buffers are grouped in size
+ * classes, powers of two from {@link #MIN_CLASS_SIZE} to
+ * {@link #MAX_CLASS_SIZE}. Each thread keeps a few released buffers of each
+ * class for itself, and the rest are shared by all threads up to a bound.
+ * Larger requests are allocated without pooling.
+ * <p>
+ * A buffer must be released once, and not be used after it is released. The
+ * number of buffers and bytes currently borrowed can be queried, and leak
+ * detection can be enabled to record where each borrowed buffer was acquired.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public final class BufferPool {
+
+	/**
+	 * Capacity of the smallest size class, 4 KiB
+	 */
+	public static final int MIN_CLASS_SIZE = 4 * 1024;
+
+	/**
+	 * Capacity of the largest size class, 1 MiB
+	 */
+	public static final int MAX_CLASS_SIZE = 1024 * 1024;
+
+	private static final int MIN_CLASS_SHIFT = 12;
+	private static final int CLASSES = 9;
+	private static final int THREAD_CACHE_SIZE = 4;
+	private static final int SHARED_SIZE = 32;
+
+	private static final BufferPool DEFAULT = new BufferPool();
+
+	private final List<BlockingQueue<ByteBuffer>> sharedBytes = new ArrayList<>(CLASSES);
+	private final List<BlockingQueue<CharBuffer>> sharedChars = new ArrayList<>(CLASSES);
+	private final ThreadLocal<Cache> caches = ThreadLocal.withInitial(Cache::new);
+
+	private final AtomicLong acquired = new AtomicLong();
+	private final AtomicLong released = new AtomicLong();
+	private final AtomicLong allocated = new AtomicLong();
+	private final AtomicLong outstandingBytes = new AtomicLong();
+
+	private final Map<Buffer, Throwable> leaks = Collections.synchronizedMap(new IdentityHashMap<Buffer, Throwable>());
+	private volatile boolean leakDetection;
+
+	/**
+	 * Creates an empty pool. Most users should share the default pool.
+	 */
+	public BufferPool() {
+		for (int i = 0; i < CLASSES; i++) {
+			sharedBytes.add(new ArrayBlockingQueue<ByteBuffer>(SHARED_SIZE));
+			sharedChars.add(new ArrayBlockingQueue<CharBuffer>(SHARED_SIZE));
+		}
+	}
+
+	/**
+	 * @return The pool shared by the library
+	 */
+	public static BufferPool getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Acquires a direct byte buffer, in big endian order, with its position at
+	 * 0 and its limit at the requested size. Its capacity can be bigger.
+	 *
+	 * @param size
+	 *            - The minimum size of the buffer
+	 * @return The buffer
+	 */
+	public ByteBuffer acquire(final int size) {
+		final int sizeClass = sizeClass(size);
+		ByteBuffer buf = null;
+		if (sizeClass < CLASSES) {
+			buf = caches.get().pollBytes(sizeClass);
+			if (buf == null) {
+				buf = sharedBytes.get(sizeClass).poll();
+			}
+		}
+		if (buf == null) {
+			buf = ByteBuffer.allocateDirect(sizeClass < CLASSES ? MIN_CLASS_SIZE << sizeClass : size);
+			allocated.incrementAndGet();
+		}
+
+		buf.clear();
+		buf.limit(size);
+		buf.order(ByteOrder.BIG_ENDIAN);
+		borrowed(buf);
+		return buf;
+	}
+
+	/**
+	 * Acquires a heap char buffer, with its position at 0 and its limit at the
+	 * requested size. Its capacity can be bigger.
+	 *
+	 * @param size
+	 *            - The minimum size of the buffer, in characters
+	 * @return The buffer
+	 */
+	public CharBuffer acquireChars(final int size) {
+		final int sizeClass = sizeClass(size);
+		CharBuffer buf = null;
+		if (sizeClass < CLASSES) {
+			buf = caches.get().pollChars(sizeClass);
+			if (buf == null) {
+				buf = sharedChars.get(sizeClass).poll();
+			}
+		}
+		if (buf == null) {
+			buf = CharBuffer.allocate(sizeClass < CLASSES ? MIN_CLASS_SIZE << sizeClass : size);
+			allocated.incrementAndGet();
+		}
+
+		buf.clear();
+		buf.limit(size);
+		borrowed(buf);
+		return buf;
+	}
+
+	/**
+	 * Releases a byte buffer acquired from this pool
+	 *
+	 * @param buf
+	 *            - The buffer
+	 */
+	public void release(final ByteBuffer buf) {
+		returned(buf);
+		final int sizeClass = classOf(buf.capacity());
+		if (sizeClass >= 0 && buf.isDirect() && !caches.get().offerBytes(sizeClass, buf)) {
+			sharedBytes.get(sizeClass).offer(buf);
+		}
+	}
+
+	/**
+	 * Releases a char buffer acquired from this pool
+	 *
+	 * @param buf
+	 *            - The buffer
+	 */
+	public void release(final CharBuffer buf) {
+		returned(buf);
+		final int sizeClass = classOf(buf.capacity());
+		if (sizeClass >= 0 && buf.hasArray() && !caches.get().offerChars(sizeClass, buf)) {
+			sharedChars.get(sizeClass).offer(buf);
+		}
+	}
+
+	/**
+	 * @return The number of buffers acquired
+	 */
+	public long getAcquired() {
+		return acquired.get();
+	}
+
+	/**
+	 * @return The number of buffers released
+	 */
+	public long getReleased() {
+		return released.get();
+	}
+
+	/**
+	 * @return The number of buffers allocated because none was available
+	 */
+	public long getAllocated() {
+		return allocated.get();
+	}
+
+	/**
+	 * @return The number of buffers acquired and not yet released
+	 */
+	public long getOutstanding() {
+		return acquired.get() - released.get();
+	}
+
+	/**
+	 * @return The capacity, in bytes, of the buffers acquired and not yet
+	 *         released
+	 */
+	public long getOutstandingBytes() {
+		return outstandingBytes.get();
+	}
+
+	/**
+	 * Enables or disables leak detection. While enabled, the stack trace of
+	 * every acquisition is recorded until the buffer is released, which is
+	 * slow and keeps leaked buffers reachable.
+	 *
+	 * @param enabled
+	 *            - Whether to detect leaks
+	 */
+	public void setLeakDetection(final boolean enabled) {
+		leakDetection = enabled;
+		if (!enabled) {
+			leaks.clear();
+		}
+	}
+
+	/**
+	 * Gets the buffers acquired while leak detection was enabled that have not
+	 * been released
+	 *
+	 * @return The stack traces of the acquisitions of the buffers
+	 */
+	public List<Throwable> getLeaks() {
+		synchronized (leaks) {
+			return new ArrayList<>(leaks.values());
+		}
+	}
+
+	private void borrowed(final Buffer buf) {
+		acquired.incrementAndGet();
+		outstandingBytes.addAndGet(bytes(buf));
+		if (leakDetection) {
+			leaks.put(buf, new Throwable("Buffer of " + buf.capacity() + " elements acquired here"));
+		}
+	}
+
+	private void returned(final Buffer buf) {
+		released.incrementAndGet();
+		outstandingBytes.addAndGet(-bytes(buf));
+		if (leakDetection) {
+			leaks.remove(buf);
+		}
+	}
+
+	private static long bytes(final Buffer buf) {
+		return buf instanceof CharBuffer ? (long) buf.capacity() << 1 : buf.capacity();
+	}
+
+	/**
+	 * @param size
+	 *            - A requested size
+	 * @return The smallest size class that fits the size, {@link #CLASSES} or
+	 *         more if none does
+	 */
+	private static int sizeClass(final int size) {
+		if (size <= MIN_CLASS_SIZE) {
+			return 0;
+		}
+
+		return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_CLASS_SHIFT;
+	}
+
+	/**
+	 * @param capacity
+	 *            - The capacity of a buffer
+	 * @return The size class of the capacity, -1 if it is not a class size
+	 */
+	private static int classOf(final int capacity) {
+		final int sizeClass = sizeClass(capacity);
+		return sizeClass < CLASSES && MIN_CLASS_SIZE << sizeClass == capacity ? sizeClass : -1;
+	}
+
+	/**
+	 * Released buffers kept by a thread
+	 */
+	private static final class Cache {
+		private final ByteBuffer[][] bytes = new ByteBuffer[CLASSES][THREAD_CACHE_SIZE];
+		private final CharBuffer[][] chars = new CharBuffer[CLASSES][THREAD_CACHE_SIZE];
+		private final int[] byteCounts = new int[CLASSES];
+		private final int[] charCounts = new int[CLASSES];
+
+		private ByteBuffer pollBytes(final int sizeClass) {
+			if (byteCounts[sizeClass] == 0) {
+				return null;
+			}
+			final int i = --byteCounts[sizeClass];
+			final ByteBuffer buf = bytes[sizeClass][i];
+			bytes[sizeClass][i] = null;
+			return buf;
+		}
+
+		private boolean offerBytes(final int sizeClass, final ByteBuffer buf) {
+			if (byteCounts[sizeClass] == THREAD_CACHE_SIZE) {
+				return false;
+			}
+			bytes[sizeClass][byteCounts[sizeClass]++] = buf;
+			return true;
+		}
+
+		private CharBuffer pollChars(final int sizeClass) {
+			if (charCounts[sizeClass] == 0) {
+				return null;
+			}
+			final int i = --charCounts[sizeClass];
+			final CharBuffer buf = chars[sizeClass][i];
+			chars[sizeClass][i] = null;
+			return buf;
+		}
+
+		private boolean offerChars(final int sizeClass, final CharBuffer buf) {
+			if (charCounts[sizeClass] == THREAD_CACHE_SIZE) {
+				return false;
+			}
+			chars[sizeClass][charCounts[sizeClass]++] = buf;
+			return true;
+		}
+	}
+}
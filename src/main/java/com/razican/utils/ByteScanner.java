@@ -0,0 +1,361 @@
+package com.razican.utils;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scanner of whitespace separated numbers and tokens of an input stream,
+ * such as piped standard input. The stream is read in large chunks into a
+ * byte buffer, and numbers are parsed directly from the bytes, without
+ * creating strings, so it can read millions of values per second. Tokens must
+ * be ASCII, as numbers are.
+ * <p>
+ * Integers are parsed exactly as by {@link Long#parseLong(String)}, with an
+ * optional sign, and doubles are parsed by {@link NumberParser}, to the same
+ * value as {@link Double#parseDouble(String)}.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public class ByteScanner implements Closeable {
+
+	/**
+	 * Default size of the buffer, 64 KiB
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private final InputStream in;
+	private final byte[] buf;
+	private int pos;
+	private int limit;
+	private byte[] token = new byte[64];
+	private int tokenLength;
+
+	/**
+	 * Creates a scanner with the default buffer size
+	 *
+	 * @param in
+	 *            - The stream to scan
+	 */
+	public ByteScanner(final InputStream in) {
+		this(in, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a scanner
+	 *
+	 * @param in
+	 *            - The stream to scan
+	 * @param bufferSize
+	 *            - The size of the buffer
+	 */
+	public ByteScanner(final InputStream in, final int bufferSize) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("The buffer size must be positive");
+		}
+
+		this.in = in;
+		this.buf = new byte[bufferSize];
+	}
+
+	/**
+	 * Checks if there is another token, skipping the whitespace before it
+	 *
+	 * @return Whether there is another token
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public boolean hasNext() throws IOException {
+		if (skipWhitespace() == -1) {
+			return false;
+		}
+		pos--;
+
+		return true;
+	}
+
+	/**
+	 * Reads the next token as a String
+	 *
+	 * @return The token
+	 * @throws IOException
+	 *             If an IO error occurs, or if there are no more tokens
+	 */
+	public String next() throws IOException {
+		readToken();
+		return CharsetUtils.newString(token, 0, tokenLength, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Reads the next token as an int
+	 *
+	 * @return The number
+	 * @throws IOException
+	 *             If an IO error occurs, or if there are no more tokens
+	 * @throws NumberFormatException
+	 *             If the token is not an int
+	 */
+	public int nextInt() throws IOException {
+		return (int) nextLong(Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Reads the next token as a long
+	 *
+	 * @return The number
+	 * @throws IOException
+	 *             If an IO error occurs, or if there are no more tokens
+	 * @throws NumberFormatException
+	 *             If the token is not a long
+	 */
+	public long nextLong() throws IOException {
+		return nextLong(Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Reads the next token as a double
+	 *
+	 * @return The number
+	 * @throws IOException
+	 *             If an IO error occurs, or if there are no more tokens
+	 * @throws NumberFormatException
+	 *             If the token is not a double
+	 */
+	public double nextDouble() throws IOException {
+		readToken();
+		return NumberParser.parseDouble(token, 0, tokenLength);
+	}
+
+	/**
+	 * Reads ints until the array is full or the stream ends
+	 *
+	 * @param dst
+	 *            - Destination array
+	 * @return The number of ints read
+	 * @throws IOException
+	 *             If an IO error occurs
+	 * @throws NumberFormatException
+	 *             If a token is not an int
+	 */
+	public int readInts(final int[] dst) throws IOException {
+		return readInts(dst, 0, dst.length);
+	}
+
+	/**
+	 * Reads ints until the given number is read or the stream ends
+	 *
+	 * @param dst
+	 *            - Destination array
+	 * @param off
+	 *            - Offset in the destination array
+	 * @param len
+	 *            - Maximum number of ints to read
+	 * @return The number of ints read
+	 * @throws IOException
+	 *             If an IO error occurs
+	 * @throws NumberFormatException
+	 *             If a token is not an int
+	 */
+	public int readInts(final int[] dst, final int off, final int len) throws IOException {
+		int i = off;
+		for (final int end = off + len; i < end && hasNext(); i++) {
+			dst[i] = nextInt();
+		}
+
+		return i - off;
+	}
+
+	/**
+	 * Reads longs until the array is full or the stream ends
+	 *
+	 * @param dst
+	 *            - Destination array
+	 * @return The number of longs read
+	 * @throws IOException
+	 *             If an IO error occurs
+	 * @throws NumberFormatException
+	 *             If a token is not a long
+	 */
+	public int readLongs(final long[] dst) throws IOException {
+		return readLongs(dst, 0, dst.length);
+	}
+
+	/**
+	 * Reads longs until the given number is read or the stream ends
+	 *
+	 * @param dst
+	 *            - Destination array
+	 * @param off
+	 *            - Offset in the destination array
+	 * @param len
+	 *            - Maximum number of longs to read
+	 * @return The number of longs read
+	 * @throws IOException
+	 *             If an IO error occurs
+	 * @throws NumberFormatException
+	 *             If a token is not a long
+	 */
+	public int readLongs(final long[] dst, final int off, final int len) throws IOException {
+		int i = off;
+		for (final int end = off + len; i < end && hasNext(); i++) {
+			dst[i] = nextLong();
+		}
+
+		return i - off;
+	}
+
+	/**
+	 * Reads doubles until the array is full or the stream ends
+	 *
+	 * @param dst
+	 *            - Destination array
+	 * @return The number of doubles read
+	 * @throws IOException
+	 *             If an IO error occurs
+	 * @throws NumberFormatException
+	 *             If a token is not a double
+	 */
+	public int readDoubles(final double[] dst) throws IOException {
+		return readDoubles(dst, 0, dst.length);
+	}
+
+	/**
+	 * Reads doubles until the given number is read or the stream ends
+	 *
+	 * @param dst
+	 *            - Destination array
+	 * @param off
+	 *            - Offset in the destination array
+	 * @param len
+	 *            - Maximum number of doubles to read
+	 * @return The number of doubles read
+	 * @throws IOException
+	 *             If an IO error occurs
+	 * @throws NumberFormatException
+	 *             If a token is not a double
+	 */
+	public int readDoubles(final double[] dst, final int off, final int len) throws IOException {
+		int i = off;
+		for (final int end = off + len; i < end && hasNext(); i++) {
+			dst[i] = nextDouble();
+		}
+
+		return i - off;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/**
+	 * Parses the next token as an integer in a range, accumulating it as a
+	 * negative number, as {@link Long#parseLong(String)} does, so that the
+	 * minimum value does not overflow
+	 *
+	 * @param min
+	 *            - Minimum value
+	 * @param max
+	 *            - Maximum value
+	 * @return The number
+	 */
+	private long nextLong(final long min, final long max) throws IOException {
+		int c = skipWhitespace();
+		if (c == -1) {
+			throw new EOFException("No more tokens");
+		}
+
+		final boolean negative = c == '-';
+		if (negative || c == '+') {
+			c = read();
+		}
+		if (c < '0' || c > '9') {
+			throw invalid(c);
+		}
+
+		final long limit = negative ? min : -max;
+		final long multiplyLimit = limit / 10;
+		long result = 0;
+		do {
+			final int digit = c - '0';
+			if (result < multiplyLimit) {
+				throw new NumberFormatException("Number out of range");
+			}
+			result *= 10;
+			if (result < limit + digit) {
+				throw new NumberFormatException("Number out of range");
+			}
+			result -= digit;
+			c = read();
+		} while (c >= '0' && c <= '9');
+
+		if (c != -1 && !isWhitespace(c)) {
+			throw invalid(c);
+		}
+
+		return negative ? result : -result;
+	}
+
+	/**
+	 * Reads the next token into the token buffer
+	 */
+	private void readToken() throws IOException {
+		int c = skipWhitespace();
+		if (c == -1) {
+			throw new EOFException("No more tokens");
+		}
+
+		tokenLength = 0;
+		do {
+			if (tokenLength == token.length) {
+				final byte[] larger = new byte[token.length << 1];
+				System.arraycopy(token, 0, larger, 0, tokenLength);
+				token = larger;
+			}
+			token[tokenLength++] = (byte) c;
+			c = read();
+		} while (c != -1 && !isWhitespace(c));
+	}
+
+	/**
+	 * @return The first byte that is not whitespace, -1 at the end of the
+	 *         stream
+	 */
+	private int skipWhitespace() throws IOException {
+		int c;
+		do {
+			c = read();
+		} while (c != -1 && isWhitespace(c));
+
+		return c;
+	}
+
+	/**
+	 * @return The next byte, -1 at the end of the stream
+	 */
+	private int read() throws IOException {
+		if (pos == limit) {
+			final int n = in.read(buf, 0, buf.length);
+			if (n <= 0) {
+				return -1;
+			}
+			pos = 0;
+			limit = n;
+		}
+
+		return buf[pos++] & 0xFF;
+	}
+
+	private static boolean isWhitespace(final int c) {
+		return c == ' ' || c == '\n' || c == '\r' || c == '\t' || c == '\f' || c == 0x0B;
+	}
+
+	private static NumberFormatException invalid(final int c) {
+		return new NumberFormatException(c == -1 ? "Unexpected end of input" : "Unexpected character: "
+				+ (char) (c & 0xFF));
+	}
+}
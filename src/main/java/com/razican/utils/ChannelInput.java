@@ -0,0 +1,270 @@
+package com.razican.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Buffered reader of the binary values written by a {@link ChannelOutput}.
+ * Bytes are read from the channel in blocks, so more bytes than the values
+ * need may be read.
+ * <p>
+ * Array lengths come from the input, so they are not trusted: arrays start
+ * with at most one buffer of values and grow as the values arrive, and a
+ * length longer than the input is reported as a corrupted stream instead of
+ * allocating memory for it.
+ *
+ * @author Razican (Iban Eguia)
+ */
+final class ChannelInput {
+
+	private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+	private static final int MAX_VAR_LONG_SIZE = 10;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buf = ByteBuffer.allocate(ChannelOutput.BUFFER_SIZE).order(ORDER);
+
+	/**
+	 * @param channel
+	 *            - The channel to read from
+	 */
+	ChannelInput(final ReadableByteChannel channel) {
+		this.channel = channel;
+		this.buf.limit(0);
+	}
+
+	/**
+	 * Gets the buffer, with at least the given number of bytes remaining
+	 *
+	 * @param bytes
+	 *            - The number of bytes, up to {@link ChannelOutput#BUFFER_SIZE}
+	 * @return The buffer
+	 * @throws EOFException
+	 *             If the channel ends before
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	ByteBuffer require(final int bytes) throws IOException {
+		if (fill(bytes) < bytes) {
+			throw new EOFException();
+		}
+
+		return buf;
+	}
+
+	int getVarInt() throws IOException {
+		final long value = getVarLong();
+		if ((value >>> 32) != 0) {
+			throw new StreamCorruptedException("Malformed variable length int");
+		}
+
+		return (int) value;
+	}
+
+	long getVarLong() throws IOException {
+		fill(MAX_VAR_LONG_SIZE);
+		try {
+			return BinaryUtils.getVarLong(buf);
+		} catch (final BufferUnderflowException e) {
+			throw new EOFException();
+		} catch (final IllegalArgumentException e) {
+			throw new StreamCorruptedException(e.getMessage());
+		}
+	}
+
+	/**
+	 * Reads a length, that must not be negative
+	 *
+	 * @return The length
+	 * @throws IOException
+	 *             If an IO error occurs or the length is not valid
+	 */
+	int getLength() throws IOException {
+		final int length = getVarInt();
+		if (length < 0) {
+			throw new StreamCorruptedException("Invalid length: " + (length & 0xFFFFFFFFL));
+		}
+
+		return length;
+	}
+
+	byte[] getBytes(final int length) throws IOException {
+		byte[] dst = new byte[capacity(length, 1)];
+		for (int i = 0; i < length;) {
+			if (i == dst.length) {
+				dst = Arrays.copyOf(dst, grow(dst.length, length));
+			}
+			final int n = Math.min(dst.length - i, available(1, length));
+			buf.get(dst, i, n);
+			i += n;
+		}
+
+		return dst;
+	}
+
+	boolean[] getBooleans(final int length) throws IOException {
+		boolean[] dst = new boolean[capacity(length, 1)];
+		for (int i = 0; i < length;) {
+			if (i == dst.length) {
+				dst = Arrays.copyOf(dst, grow(dst.length, length));
+			}
+			for (int end = i + Math.min(dst.length - i, available(1, length)); i < end; i++) {
+				dst[i] = buf.get() != 0;
+			}
+		}
+
+		return dst;
+	}
+
+	short[] getShorts(final int length) throws IOException {
+		short[] dst = new short[capacity(length, 2)];
+		for (int i = 0; i < length;) {
+			if (i == dst.length) {
+				dst = Arrays.copyOf(dst, grow(dst.length, length));
+			}
+			final int n = Math.min(dst.length - i, available(2, length));
+			buf.asShortBuffer().get(dst, i, n);
+			buf.position(buf.position() + (n << 1));
+			i += n;
+		}
+
+		return dst;
+	}
+
+	char[] getChars(final int length) throws IOException {
+		char[] dst = new char[capacity(length, 2)];
+		for (int i = 0; i < length;) {
+			if (i == dst.length) {
+				dst = Arrays.copyOf(dst, grow(dst.length, length));
+			}
+			final int n = Math.min(dst.length - i, available(2, length));
+			buf.asCharBuffer().get(dst, i, n);
+			buf.position(buf.position() + (n << 1));
+			i += n;
+		}
+
+		return dst;
+	}
+
+	int[] getInts(final int length) throws IOException {
+		int[] dst = new int[capacity(length, 4)];
+		for (int i = 0; i < length;) {
+			if (i == dst.length) {
+				dst = Arrays.copyOf(dst, grow(dst.length, length));
+			}
+			final int n = Math.min(dst.length - i, available(4, length));
+			BinaryUtils.getInts(buf, dst, i, n, ORDER);
+			i += n;
+		}
+
+		return dst;
+	}
+
+	long[] getLongs(final int length) throws IOException {
+		long[] dst = new long[capacity(length, 8)];
+		for (int i = 0; i < length;) {
+			if (i == dst.length) {
+				dst = Arrays.copyOf(dst, grow(dst.length, length));
+			}
+			final int n = Math.min(dst.length - i, available(8, length));
+			BinaryUtils.getLongs(buf, dst, i, n, ORDER);
+			i += n;
+		}
+
+		return dst;
+	}
+
+	float[] getFloats(final int length) throws IOException {
+		float[] dst = new float[capacity(length, 4)];
+		for (int i = 0; i < length;) {
+			if (i == dst.length) {
+				dst = Arrays.copyOf(dst, grow(dst.length, length));
+			}
+			final int n = Math.min(dst.length - i, available(4, length));
+			buf.asFloatBuffer().get(dst, i, n);
+			buf.position(buf.position() + (n << 2));
+			i += n;
+		}
+
+		return dst;
+	}
+
+	double[] getDoubles(final int length) throws IOException {
+		double[] dst = new double[capacity(length, 8)];
+		for (int i = 0; i < length;) {
+			if (i == dst.length) {
+				dst = Arrays.copyOf(dst, grow(dst.length, length));
+			}
+			final int n = Math.min(dst.length - i, available(8, length));
+			buf.asDoubleBuffer().get(dst, i, n);
+			buf.position(buf.position() + (n << 3));
+			i += n;
+		}
+
+		return dst;
+	}
+
+	/**
+	 * @param width
+	 *            - Size of each value
+	 * @param length
+	 *            - Length of the array being read
+	 * @return The number of whole values in the buffer, at least one
+	 * @throws StreamCorruptedException
+	 *             If the channel ends before
+	 */
+	private int available(final int width, final int length) throws IOException {
+		if (fill(width) < width) {
+			throw new StreamCorruptedException("Length " + length + " exceeds the input");
+		}
+
+		return buf.remaining() / width;
+	}
+
+	/**
+	 * @param length
+	 *            - Length of the array
+	 * @param width
+	 *            - Size of each value
+	 * @return The initial capacity of the array, at most one buffer
+	 */
+	private static int capacity(final int length, final int width) {
+		return Math.min(length, ChannelOutput.BUFFER_SIZE / width);
+	}
+
+	private static int grow(final int capacity, final int length) {
+		return (int) Math.min(length, (long) capacity << 1);
+	}
+
+	/**
+	 * Reads from the channel until the given number of bytes remain in the
+	 * buffer, or the channel ends
+	 *
+	 * @param bytes
+	 *            - The number of bytes
+	 * @return The number of bytes remaining in the buffer
+	 */
+	private int fill(final int bytes) throws IOException {
+		if (buf.remaining() >= bytes) {
+			return buf.remaining();
+		}
+
+		buf.compact();
+		try {
+			while (buf.position() < bytes) {
+				if (channel.read(buf) < 0) {
+					break;
+				}
+			}
+		} finally {
+			buf.flip();
+		}
+
+		return buf.remaining();
+	}
+}
@@ -0,0 +1,148 @@
+package com.razican.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Buffered writer of binary values to a channel, in little endian order.
+ * Arrays are copied to the buffer with view buffers, and lengths are written
+ * as variable length ints.
+ *
+ * @author Razican (Iban Eguia)
+ */
+final class ChannelOutput {
+
+	static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+	private static final int MAX_VAR_LONG_SIZE = 10;
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE).order(ORDER);
+
+	/**
+	 * @param channel
+	 *            - The channel to write to
+	 */
+	ChannelOutput(final WritableByteChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * Gets the buffer, with at least the given number of bytes remaining
+	 *
+	 * @param bytes
+	 *            - The number of bytes, up to {@link #BUFFER_SIZE}
+	 * @return The buffer
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	ByteBuffer ensure(final int bytes) throws IOException {
+		if (buf.remaining() < bytes) {
+			flush();
+		}
+
+		return buf;
+	}
+
+	/**
+	 * Writes the buffered bytes to the channel
+	 *
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	void flush() throws IOException {
+		buf.flip();
+		while (buf.hasRemaining()) {
+			channel.write(buf);
+		}
+		buf.clear();
+	}
+
+	void putVarInt(final int value) throws IOException {
+		BinaryUtils.putVarInt(ensure(MAX_VAR_LONG_SIZE), value);
+	}
+
+	void putVarLong(final long value) throws IOException {
+		BinaryUtils.putVarLong(ensure(MAX_VAR_LONG_SIZE), value);
+	}
+
+	void put(final byte[] src, final int off, final int len) throws IOException {
+		for (int i = off, end = off + len; i < end;) {
+			final int n = Math.min(end - i, room(1));
+			buf.put(src, i, n);
+			i += n;
+		}
+	}
+
+	void put(final boolean[] src) throws IOException {
+		for (int i = 0; i < src.length;) {
+			for (int end = i + Math.min(src.length - i, room(1)); i < end; i++) {
+				buf.put(src[i] ? (byte) 1 : (byte) 0);
+			}
+		}
+	}
+
+	void put(final short[] src) throws IOException {
+		for (int i = 0; i < src.length;) {
+			final int n = Math.min(src.length - i, room(2));
+			buf.asShortBuffer().put(src, i, n);
+			buf.position(buf.position() + (n << 1));
+			i += n;
+		}
+	}
+
+	void put(final char[] src) throws IOException {
+		for (int i = 0; i < src.length;) {
+			final int n = Math.min(src.length - i, room(2));
+			buf.asCharBuffer().put(src, i, n);
+			buf.position(buf.position() + (n << 1));
+			i += n;
+		}
+	}
+
+	void put(final int[] src) throws IOException {
+		for (int i = 0; i < src.length;) {
+			final int n = Math.min(src.length - i, room(4));
+			BinaryUtils.putInts(src, i, buf, n, ORDER);
+			i += n;
+		}
+	}
+
+	void put(final long[] src) throws IOException {
+		for (int i = 0; i < src.length;) {
+			final int n = Math.min(src.length - i, room(8));
+			BinaryUtils.putLongs(src, i, buf, n, ORDER);
+			i += n;
+		}
+	}
+
+	void put(final float[] src) throws IOException {
+		for (int i = 0; i < src.length;) {
+			final int n = Math.min(src.length - i, room(4));
+			buf.asFloatBuffer().put(src, i, n);
+			buf.position(buf.position() + (n << 2));
+			i += n;
+		}
+	}
+
+	void put(final double[] src) throws IOException {
+		for (int i = 0; i < src.length;) {
+			final int n = Math.min(src.length - i, room(8));
+			buf.asDoubleBuffer().put(src, i, n);
+			buf.position(buf.position() + (n << 3));
+			i += n;
+		}
+	}
+
+	/**
+	 * @param width
+	 *            - Size of each value
+	 * @return The number of values that fit in the buffer, at least one
+	 */
+	private int room(final int width) throws IOException {
+		return ensure(width).remaining() / width;
+	}
+}
@@ -0,0 +1,464 @@
+package com.razican.utils;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Charset transcoding utilities. Encoders and decoders are cached per thread
+ * and charset, and all methods write to caller supplied arrays or buffers.
+ * Malformed or unmappable input is reported with a
+ * {@link CharacterCodingException}.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public final class CharsetUtils {
+
+	private static final long HIGH_BITS = 0x8080808080808080L;
+
+	private static final ThreadLocal<Map<Charset, CharsetEncoder>> ENCODERS = ThreadLocal.withInitial(HashMap::new);
+	private static final ThreadLocal<Map<Charset, CharsetDecoder>> DECODERS = ThreadLocal.withInitial(HashMap::new);
+
+	private CharsetUtils() {
+	}
+
+	/**
+	 * Gets the cached encoder of the current thread for a charset. The encoder
+	 * is reset and reports errors, and can be used until the next call for the
+	 * same charset in the same thread.
+	 *
+	 * @param charset
+	 *            - The charset
+	 * @return The encoder
+	 */
+	public static CharsetEncoder getEncoder(final Charset charset) {
+		final Map<Charset, CharsetEncoder> encoders = ENCODERS.get();
+		CharsetEncoder encoder = encoders.get(charset);
+		if (encoder == null) {
+			encoder = charset.newEncoder();
+			encoders.put(charset, encoder);
+		}
+
+		return encoder.reset().onMalformedInput(CodingErrorAction.REPORT)
+				.onUnmappableCharacter(CodingErrorAction.REPORT);
+	}
+
+	/**
+	 * Gets the cached decoder of the current thread for a charset. The decoder
+	 * is reset and reports errors, and can be used until the next call for the
+	 * same charset in the same thread.
+	 *
+	 * @param charset
+	 *            - The charset
+	 * @return The decoder
+	 */
+	public static CharsetDecoder getDecoder(final Charset charset) {
+		final Map<Charset, CharsetDecoder> decoders = DECODERS.get();
+		CharsetDecoder decoder = decoders.get(charset);
+		if (decoder == null) {
+			decoder = charset.newDecoder();
+			decoders.put(charset, decoder);
+		}
+
+		return decoder.reset().onMalformedInput(CodingErrorAction.REPORT)
+				.onUnmappableCharacter(CodingErrorAction.REPORT);
+	}
+
+	/**
+	 * Gets the maximum number of bytes needed to encode some characters
+	 *
+	 * @param chars
+	 *            - The number of characters
+	 * @param charset
+	 *            - The charset
+	 * @return The maximum number of bytes
+	 */
+	public static int maxBytes(final int chars, final Charset charset) {
+		return (int) Math.min(Integer.MAX_VALUE, (long) Math.ceil(chars * (double) getEncoder(charset).maxBytesPerChar()));
+	}
+
+	/**
+	 * Gets the maximum number of characters that some bytes can decode to
+	 *
+	 * @param bytes
+	 *            - The number of bytes
+	 * @param charset
+	 *            - The charset
+	 * @return The maximum number of characters
+	 */
+	public static int maxChars(final int bytes, final Charset charset) {
+		return (int) Math.min(Integer.MAX_VALUE, (long) Math.ceil(bytes * (double) getDecoder(charset).maxCharsPerByte()));
+	}
+
+	/**
+	 * Encodes characters into a byte array
+	 *
+	 * @param src
+	 *            - The characters
+	 * @param srcOff
+	 *            - Offset of the characters
+	 * @param len
+	 *            - Number of characters to encode
+	 * @param dst
+	 *            - Destination array
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param charset
+	 *            - The charset
+	 * @return The number of bytes written
+	 * @throws CharacterCodingException
+	 *             If the characters cannot be encoded
+	 * @throws BufferOverflowException
+	 *             If the destination array is too small
+	 */
+	public static int encode(final char[] src, final int srcOff, final int len, final byte[] dst, final int dstOff,
+			final Charset charset) throws CharacterCodingException {
+		return encode(CharBuffer.wrap(src, srcOff, len), ByteBuffer.wrap(dst, dstOff, dst.length - dstOff), charset);
+	}
+
+	/**
+	 * Encodes the remaining characters of a buffer. Both buffers are advanced.
+	 *
+	 * @param src
+	 *            - The characters
+	 * @param dst
+	 *            - Destination buffer
+	 * @param charset
+	 *            - The charset
+	 * @return The number of bytes written
+	 * @throws CharacterCodingException
+	 *             If the characters cannot be encoded
+	 * @throws BufferOverflowException
+	 *             If the destination buffer is too small
+	 */
+	public static int encode(final CharBuffer src, final ByteBuffer dst, final Charset charset)
+			throws CharacterCodingException {
+		final CharsetEncoder encoder = getEncoder(charset);
+		final int start = dst.position();
+		check(encoder.encode(src, dst, true));
+		check(encoder.flush(dst));
+
+		return dst.position() - start;
+	}
+
+	/**
+	 * Decodes bytes into a character array
+	 *
+	 * @param src
+	 *            - The bytes
+	 * @param srcOff
+	 *            - Offset of the bytes
+	 * @param len
+	 *            - Number of bytes to decode
+	 * @param dst
+	 *            - Destination array
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param charset
+	 *            - The charset
+	 * @return The number of characters written
+	 * @throws CharacterCodingException
+	 *             If the bytes cannot be decoded
+	 * @throws BufferOverflowException
+	 *             If the destination array is too small
+	 */
+	public static int decode(final byte[] src, final int srcOff, final int len, final char[] dst, final int dstOff,
+			final Charset charset) throws CharacterCodingException {
+		return decode(ByteBuffer.wrap(src, srcOff, len), CharBuffer.wrap(dst, dstOff, dst.length - dstOff), charset);
+	}
+
+	/**
+	 * Decodes the remaining bytes of a buffer. Both buffers are advanced.
+	 *
+	 * @param src
+	 *            - The bytes
+	 * @param dst
+	 *            - Destination buffer
+	 * @param charset
+	 *            - The charset
+	 * @return The number of characters written
+	 * @throws CharacterCodingException
+	 *             If the bytes cannot be decoded
+	 * @throws BufferOverflowException
+	 *             If the destination buffer is too small
+	 */
+	public static int decode(final ByteBuffer src, final CharBuffer dst, final Charset charset)
+			throws CharacterCodingException {
+		return decode(src, dst, getDecoder(charset));
+	}
+
+	/**
+	 * Encodes many character arrays, one after the other, into a single byte
+	 * array. The sources are copied to a buffer of the {@link BufferPool}, that
+	 * is wiped afterwards, so that no objects are created for each array.
+	 *
+	 * @param src
+	 *            - The character arrays
+	 * @param dst
+	 *            - Destination array
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param ends
+	 *            - Array where the end offset in <code>dst</code> of each
+	 *            encoded array is stored, with at least as many elements as
+	 *            <code>src</code>
+	 * @param charset
+	 *            - The charset
+	 * @return The total number of bytes written
+	 * @throws CharacterCodingException
+	 *             If the characters cannot be encoded
+	 * @throws BufferOverflowException
+	 *             If the destination array is too small
+	 */
+	public static int encodeAll(final char[][] src, final byte[] dst, final int dstOff, final int[] ends,
+			final Charset charset) throws CharacterCodingException {
+		final CharsetEncoder encoder = getEncoder(charset);
+		final ByteBuffer out = ByteBuffer.wrap(dst, dstOff, dst.length - dstOff);
+		int max = 0;
+		for (final char[] chars : src) {
+			max = Math.max(max, chars.length);
+		}
+
+		final CharBuffer in = BufferPool.getDefault().acquireChars(max);
+		try {
+			for (int i = 0; i < src.length; i++) {
+				in.clear();
+				in.put(src[i]).flip();
+
+				encoder.reset();
+				check(encoder.encode(in, out, true));
+				check(encoder.flush(out));
+				ends[i] = out.position();
+			}
+		} finally {
+			Arrays.fill(in.array(), 0, max, '\0');
+			BufferPool.getDefault().release(in);
+		}
+
+		return out.position() - dstOff;
+	}
+
+	/**
+	 * Decodes many byte arrays, one after the other, into a single character
+	 * array. The sources are copied to a buffer of the {@link BufferPool}, that
+	 * is wiped afterwards, so that no objects are created for each array.
+	 *
+	 * @param src
+	 *            - The byte arrays
+	 * @param dst
+	 *            - Destination array
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param ends
+	 *            - Array where the end offset in <code>dst</code> of each
+	 *            decoded array is stored, with at least as many elements as
+	 *            <code>src</code>
+	 * @param charset
+	 *            - The charset
+	 * @return The total number of characters written
+	 * @throws CharacterCodingException
+	 *             If the bytes cannot be decoded
+	 * @throws BufferOverflowException
+	 *             If the destination array is too small
+	 */
+	public static int decodeAll(final byte[][] src, final char[] dst, final int dstOff, final int[] ends,
+			final Charset charset) throws CharacterCodingException {
+		final CharsetDecoder decoder = getDecoder(charset);
+		final CharBuffer out = CharBuffer.wrap(dst, dstOff, dst.length - dstOff);
+		int max = 0;
+		for (final byte[] bytes : src) {
+			max = Math.max(max, bytes.length);
+		}
+
+		final ByteBuffer in = BufferPool.getDefault().acquire(max);
+		try {
+			for (int i = 0; i < src.length; i++) {
+				in.clear();
+				in.put(src[i]).flip();
+
+				decoder.reset();
+				check(decoder.decode(in, out, true));
+				check(decoder.flush(out));
+				ends[i] = out.position();
+			}
+		} finally {
+			in.clear();
+			for (int i = 0; i < max; i++) {
+				in.put(i, (byte) 0);
+			}
+			BufferPool.getDefault().release(in);
+		}
+
+		return out.position() - dstOff;
+	}
+
+	/**
+	 * Detects the charset of a byte order mark at the start of some bytes
+	 *
+	 * @param b
+	 *            - The bytes
+	 * @param len
+	 *            - The number of bytes available, from the start
+	 * @return UTF-8, UTF-16BE or UTF-16LE if the bytes start with their byte
+	 *         order mark, or null otherwise
+	 */
+	public static Charset detectBom(final byte[] b, final int len) {
+		if (len >= 3 && b[0] == (byte) 0xEF && b[1] == (byte) 0xBB && b[2] == (byte) 0xBF) {
+			return StandardCharsets.UTF_8;
+		}
+		if (len >= 2 && b[0] == (byte) 0xFE && b[1] == (byte) 0xFF) {
+			return StandardCharsets.UTF_16BE;
+		}
+		if (len >= 2 && b[0] == (byte) 0xFF && b[1] == (byte) 0xFE) {
+			return StandardCharsets.UTF_16LE;
+		}
+
+		return null;
+	}
+
+	/**
+	 * Gets the length of the byte order mark of a charset
+	 *
+	 * @param charset
+	 *            - The charset, as returned by {@link #detectBom(byte[], int)}
+	 * @return The number of bytes of the mark, 0 if the charset has none
+	 */
+	public static int bomLength(final Charset charset) {
+		if (StandardCharsets.UTF_8.equals(charset)) {
+			return 3;
+		}
+		if (StandardCharsets.UTF_16BE.equals(charset) || StandardCharsets.UTF_16LE.equals(charset)) {
+			return 2;
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Decodes bytes to a String, replacing malformed and unmappable input. If
+	 * the charset is ASCII compatible, such as UTF-8, and all the bytes are
+	 * ASCII, the String is built from the bytes as Latin-1, without a
+	 * decoder.
+	 *
+	 * @param src
+	 *            - The bytes
+	 * @param off
+	 *            - Offset of the bytes
+	 * @param len
+	 *            - Number of bytes to decode
+	 * @param charset
+	 *            - The charset
+	 * @return The String
+	 */
+	@SuppressWarnings("deprecation")
+	public static String newString(final byte[] src, final int off, final int len, final Charset charset) {
+		if (StandardCharsets.ISO_8859_1.equals(charset) || isAsciiCompatible(charset) && isAscii(src, off, len)) {
+			return new String(src, 0, off, len);
+		}
+
+		return new String(src, off, len, charset);
+	}
+
+	/**
+	 * Checks whether a charset encodes ASCII characters as single ASCII bytes,
+	 * and never uses ASCII bytes for other characters
+	 *
+	 * @param charset
+	 *            - The charset
+	 * @return Whether the charset is UTF-8, US-ASCII or ISO-8859-1
+	 */
+	public static boolean isAsciiCompatible(final Charset charset) {
+		return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset)
+				|| StandardCharsets.ISO_8859_1.equals(charset);
+	}
+
+	/**
+	 * Checks whether some bytes are all ASCII, eight at a time
+	 *
+	 * @param src
+	 *            - The bytes
+	 * @param off
+	 *            - Offset of the bytes
+	 * @param len
+	 *            - Number of bytes to check
+	 * @return Whether no byte has its high bit set
+	 */
+	public static boolean isAscii(final byte[] src, final int off, final int len) {
+		final int end = off + len;
+		int i = off;
+		long bits = 0;
+		for (; i + 8 <= end; i += 8) {
+			bits |= BinaryUtils.getLong(src, i, ByteOrder.LITTLE_ENDIAN);
+		}
+		for (; i < end; i++) {
+			bits |= src[i];
+		}
+
+		return (bits & HIGH_BITS) == 0;
+	}
+
+	/**
+	 * Reads the byte order mark at the start of a file, if any. The position
+	 * of the channel is not changed.
+	 *
+	 * @param channel
+	 *            - The channel of the file
+	 * @return The charset of the mark, or null if there is no mark
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	static Charset readBom(final FileChannel channel) throws IOException {
+		final ByteBuffer head = ByteBuffer.allocate(3);
+		while (head.hasRemaining() && channel.read(head, head.position()) > 0) {
+			// Read until the buffer is full or the file ends
+		}
+
+		return detectBom(head.array(), head.position());
+	}
+
+	/**
+	 * Decodes the remaining bytes of a buffer with a given decoder, that is
+	 * reset first. Both buffers are advanced.
+	 *
+	 * @param src
+	 *            - The bytes
+	 * @param dst
+	 *            - Destination buffer
+	 * @param decoder
+	 *            - The decoder
+	 * @return The number of characters written
+	 * @throws CharacterCodingException
+	 *             If the bytes cannot be decoded
+	 */
+	static int decode(final ByteBuffer src, final CharBuffer dst, final CharsetDecoder decoder)
+			throws CharacterCodingException {
+		final int start = dst.position();
+		decoder.reset();
+		check(decoder.decode(src, dst, true));
+		check(decoder.flush(dst));
+
+		return dst.position() - start;
+	}
+
+	private static void check(final CoderResult result) throws CharacterCodingException {
+		if (result.isOverflow()) {
+			throw new BufferOverflowException();
+		}
+		if (result.isError()) {
+			result.throwException();
+		}
+	}
+}
@@ -0,0 +1,233 @@
+package com.razican.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics that count the instrumentation events, to be polled. Counters are
+ * {@link LongAdder}s and the decoding times are kept in a histogram of
+ * power-of-two buckets, so that reporting never blocks, even from many
+ * threads.
+ * <p>
+ * Bucket <code>i</code> of the histogram counts the decoded chunks that took
+ * less than <code>2<sup>i</sup></code> nanoseconds, and at least
+ * <code>2<sup>i - 1</sup></code>.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public class CountingIoMetrics implements IoMetrics {
+
+	/**
+	 * Number of buckets of the decoding time histogram
+	 */
+	public static final int BUCKETS = 64;
+
+	private final LongAdder bytesRead = new LongAdder();
+	private final LongAdder linesRead = new LongAdder();
+	private final LongAdder bytesWritten = new LongAdder();
+	private final LongAdder decodedBytes = new LongAdder();
+	private final LongAdder decodeNanos = new LongAdder();
+	private final LongAdder maps = new LongAdder();
+	private final LongAdder unmaps = new LongAdder();
+	private final LongAdder mappedBytes = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final AtomicLongArray decodeHistogram = new AtomicLongArray(BUCKETS);
+	private final AtomicReference<Throwable> lastError = new AtomicReference<>();
+
+	@Override
+	public void bytesRead(final long bytes) {
+		bytesRead.add(bytes);
+	}
+
+	@Override
+	public void linesRead(final long lines) {
+		linesRead.add(lines);
+	}
+
+	@Override
+	public void bytesWritten(final long bytes) {
+		bytesWritten.add(bytes);
+	}
+
+	@Override
+	public boolean isTimingDecoding() {
+		return true;
+	}
+
+	@Override
+	public void decoded(final long bytes, final long nanos) {
+		decodedBytes.add(bytes);
+		decodeNanos.add(nanos);
+		decodeHistogram.incrementAndGet(bucket(nanos));
+	}
+
+	@Override
+	public void mapped(final long bytes) {
+		maps.increment();
+		mappedBytes.add(bytes);
+	}
+
+	@Override
+	public void unmapped(final long bytes) {
+		unmaps.increment();
+		mappedBytes.add(-bytes);
+	}
+
+	@Override
+	public void error(final String operation, final Throwable error) {
+		errors.increment();
+		lastError.set(error);
+	}
+
+	/**
+	 * @return The number of bytes read
+	 */
+	public long getBytesRead() {
+		return bytesRead.sum();
+	}
+
+	/**
+	 * @return The number of lines produced
+	 */
+	public long getLinesRead() {
+		return linesRead.sum();
+	}
+
+	/**
+	 * @return The number of bytes written
+	 */
+	public long getBytesWritten() {
+		return bytesWritten.sum();
+	}
+
+	/**
+	 * @return The number of bytes decoded
+	 */
+	public long getDecodedBytes() {
+		return decodedBytes.sum();
+	}
+
+	/**
+	 * @return The total time spent decoding, in nanoseconds
+	 */
+	public long getDecodeNanos() {
+		return decodeNanos.sum();
+	}
+
+	/**
+	 * @return The number of regions mapped
+	 */
+	public long getMaps() {
+		return maps.sum();
+	}
+
+	/**
+	 * @return The number of mapped regions released
+	 */
+	public long getUnmaps() {
+		return unmaps.sum();
+	}
+
+	/**
+	 * @return The size of the regions mapped and not yet released, in bytes
+	 */
+	public long getMappedBytes() {
+		return mappedBytes.sum();
+	}
+
+	/**
+	 * @return The number of errors
+	 */
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	/**
+	 * @return The last error reported, null if there was none
+	 */
+	public Throwable getLastError() {
+		return lastError.get();
+	}
+
+	/**
+	 * @return A copy of the decoding time histogram, with {@link #BUCKETS}
+	 *         buckets
+	 */
+	public long[] getDecodeHistogram() {
+		final long[] histogram = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			histogram[i] = decodeHistogram.get(i);
+		}
+
+		return histogram;
+	}
+
+	/**
+	 * Estimates a percentile of the decoding times, as the upper bound of the
+	 * bucket where it falls
+	 *
+	 * @param percentile
+	 *            - The percentile, between 0 and 100
+	 * @return The estimated time, in nanoseconds, 0 if nothing was decoded
+	 */
+	public long getDecodePercentile(final double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("The percentile must be between 0 and 100");
+		}
+
+		final long[] histogram = getDecodeHistogram();
+		long total = 0;
+		for (final long count : histogram) {
+			total += count;
+		}
+		if (total == 0) {
+			return 0;
+		}
+
+		final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long seen = 0;
+		int i = 0;
+		while ((seen += histogram[i]) < rank) {
+			i++;
+		}
+
+		return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+	}
+
+	/**
+	 * Sets all the counters to zero. Events reported concurrently can be
+	 * partially kept.
+	 */
+	public void reset() {
+		bytesRead.reset();
+		linesRead.reset();
+		bytesWritten.reset();
+		decodedBytes.reset();
+		decodeNanos.reset();
+		maps.reset();
+		unmaps.reset();
+		mappedBytes.reset();
+		errors.reset();
+		for (int i = 0; i < BUCKETS; i++) {
+			decodeHistogram.set(i, 0);
+		}
+		lastError.set(null);
+	}
+
+	@Override
+	public String toString() {
+		return "bytesRead=" + getBytesRead() + ", linesRead=" + getLinesRead() + ", bytesWritten="
+				+ getBytesWritten() + ", decodedBytes=" + getDecodedBytes() + ", decodeNanos=" + getDecodeNanos() + ", maps=" + getMaps() + ", unmaps="
+				+ getUnmaps() + ", errors=" + getErrors();
+	}
+
+	/**
+	 * @param nanos
+	 *            - A time
+	 * @return The bucket of the time
+	 */
+	private static int bucket(final long nanos) {
+		return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos)));
+	}
+}
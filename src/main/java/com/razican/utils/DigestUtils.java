@@ -0,0 +1,347 @@
+package com.razican.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Message digest utilities. Digest instances are cached per thread and reset
+ * before each use, and text is encoded in UTF-8 directly into a reusable
+ * per-thread direct buffer that is fed to the digest. Files and streams are
+ * digested in chunks, with constant memory use.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public final class DigestUtils {
+
+	/**
+	 * MD5 algorithm name
+	 */
+	public static final String MD5 = "MD5";
+
+	/**
+	 * SHA-1 algorithm name
+	 */
+	public static final String SHA1 = "SHA-1";
+
+	/**
+	 * SHA-256 algorithm name
+	 */
+	public static final String SHA256 = "SHA-256";
+
+	/**
+	 * SHA-512 algorithm name
+	 */
+	public static final String SHA512 = "SHA-512";
+
+	/**
+	 * Default leaf size of tree digests, 4 MiB
+	 */
+	public static final int DEFAULT_LEAF_SIZE = 4 * 1024 * 1024;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int WINDOW_SIZE = 16 * 1024 * 1024;
+
+	private static final ThreadLocal<Map<String, MessageDigest>> DIGESTS = ThreadLocal.withInitial(HashMap::new);
+	private static final ThreadLocal<CharsetEncoder> ENCODERS = ThreadLocal.withInitial(() -> StandardCharsets.UTF_8
+			.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE));
+
+	private DigestUtils() {
+	}
+
+	/**
+	 * Gets the cached digest of the current thread for an algorithm. The
+	 * digest is reset, and can be used until the next call for the same
+	 * algorithm in the same thread.
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm
+	 * @return The digest
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 */
+	public static MessageDigest getDigest(final String algorithm) throws NoSuchAlgorithmException {
+		final Map<String, MessageDigest> digests = DIGESTS.get();
+		MessageDigest md = digests.get(algorithm);
+		if (md == null) {
+			md = MessageDigest.getInstance(algorithm);
+			digests.put(algorithm, md);
+		} else {
+			md.reset();
+		}
+
+		return md;
+	}
+
+	/**
+	 * Generates the digest of some data
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm
+	 * @param data
+	 *            - The data to digest
+	 * @return The digest
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 */
+	public static byte[] digest(final String algorithm, final byte[] data) throws NoSuchAlgorithmException {
+		return getDigest(algorithm).digest(data);
+	}
+
+	/**
+	 * Generates the digest of the UTF-8 representation of a text
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm
+	 * @param text
+	 *            - The text to digest
+	 * @return The digest
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 */
+	public static byte[] digest(final String algorithm, final CharSequence text) throws NoSuchAlgorithmException {
+		final MessageDigest md = getDigest(algorithm);
+		update(md, CharBuffer.wrap(text), false);
+
+		return md.digest();
+	}
+
+	/**
+	 * Generates the digest of the UTF-8 representation of a character array.
+	 * The encoded bytes are wiped from the buffer afterwards, so that it can
+	 * be used with passwords.
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm
+	 * @param charArray
+	 *            - The characters to digest
+	 * @return The digest
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 */
+	public static byte[] digest(final String algorithm, final char[] charArray) throws NoSuchAlgorithmException {
+		final MessageDigest md = getDigest(algorithm);
+		update(md, CharBuffer.wrap(charArray), true);
+
+		return md.digest();
+	}
+
+	/**
+	 * Generates the digest of the contents of a file
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm
+	 * @param file
+	 *            - The file to digest
+	 * @return The digest
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static byte[] digest(final String algorithm, final File file) throws NoSuchAlgorithmException, IOException {
+		return digest(algorithm, file.toPath());
+	}
+
+	/**
+	 * Generates the digest of the contents of a file. The file is fed to the
+	 * digest in memory mapped windows, so memory use does not depend on its
+	 * size.
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm
+	 * @param path
+	 *            - The path of the file to digest
+	 * @return The digest
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static byte[] digest(final String algorithm, final Path path) throws NoSuchAlgorithmException, IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return digest(algorithm, channel);
+		}
+	}
+
+	/**
+	 * Generates the digest of the remaining contents of a channel. File
+	 * channels are fed to the digest in memory mapped windows, from their
+	 * current position, and other channels through a reusable direct buffer.
+	 * The channel is not closed.
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm
+	 * @param channel
+	 *            - The channel to digest
+	 * @return The digest
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static byte[] digest(final String algorithm, final ReadableByteChannel channel) throws NoSuchAlgorithmException,
+			IOException {
+		final MessageDigest md = getDigest(algorithm);
+		if (channel instanceof FileChannel) {
+			final FileChannel fc = (FileChannel) channel;
+			final long size = fc.size();
+			for (long position = fc.position(); position < size; position += WINDOW_SIZE) {
+				md.update(fc.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position)));
+			}
+			fc.position(size);
+		} else {
+			final ByteBuffer buf = BufferPool.getDefault().acquire(BUFFER_SIZE);
+			try {
+				while (channel.read(buf) != -1) {
+					buf.flip();
+					md.update(buf);
+					buf.clear();
+				}
+			} finally {
+				BufferPool.getDefault().release(buf);
+			}
+		}
+
+		return md.digest();
+	}
+
+	/**
+	 * Generates the digest of the remaining contents of a stream. The stream
+	 * is not closed.
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm
+	 * @param stream
+	 *            - The stream to digest
+	 * @return The digest
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static byte[] digest(final String algorithm, final InputStream stream) throws NoSuchAlgorithmException,
+			IOException {
+		if (stream instanceof FileInputStream) {
+			return digest(algorithm, ((FileInputStream) stream).getChannel());
+		}
+
+		return digest(algorithm, Channels.newChannel(stream));
+	}
+
+	/**
+	 * Generates the tree digest of a file, with leaves of
+	 * {@link #DEFAULT_LEAF_SIZE} bytes
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm
+	 * @param file
+	 *            - The file to digest
+	 * @return The root digest
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 * @throws IOException
+	 *             If an IO error occurs
+	 * @see #treeDigest(String, Path, int)
+	 */
+	public static byte[] treeDigest(final String algorithm, final File file) throws NoSuchAlgorithmException, IOException {
+		return treeDigest(algorithm, file.toPath(), DEFAULT_LEAF_SIZE);
+	}
+
+	/**
+	 * Generates the tree digest of a file. The leaves are hashed concurrently
+	 * in the common fork/join pool, so big files are digested using all the
+	 * cores. The result is not the plain digest of the file, and it depends on
+	 * the leaf size. It is computed as follows, where <code>H</code> is the
+	 * digest algorithm and <code>||</code> is concatenation:
+	 * <ul>
+	 * <li>The file is split in leaves of <code>leafSize</code> bytes. The last
+	 * leaf can be shorter, and an empty file has a single empty leaf.</li>
+	 * <li>The digest of a leaf <code>L</code> is
+	 * <code>H(0x00 || L)</code>.</li>
+	 * <li>The digest of a list of <code>n</code> leaves is the digest of the
+	 * leaf when <code>n</code> is 1. Otherwise, with <code>k</code> the biggest
+	 * power of two smaller than <code>n</code>, it is
+	 * <code>H(0x01 || D1 || D2)</code>, where <code>D1</code> is the digest of
+	 * the first <code>k</code> leaves and <code>D2</code> the digest of the
+	 * rest.</li>
+	 * </ul>
+	 * This is the Merkle tree hash of RFC 6962, with the file leaves as
+	 * entries.
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm
+	 * @param path
+	 *            - The path of the file to digest
+	 * @param leafSize
+	 *            - The size of the leaves in bytes
+	 * @return The root digest
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static byte[] treeDigest(final String algorithm, final Path path, final int leafSize)
+			throws NoSuchAlgorithmException, IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return TreeDigest.digest(algorithm, channel, leafSize);
+		}
+	}
+
+	/**
+	 * Encodes characters in UTF-8 and feeds them to a digest
+	 *
+	 * @param md
+	 *            - The digest
+	 * @param chars
+	 *            - The characters to encode
+	 * @param wipe
+	 *            - Whether to wipe the encoded bytes from the buffer
+	 */
+	private static void update(final MessageDigest md, final CharBuffer chars, final boolean wipe) {
+		final CharsetEncoder encoder = ENCODERS.get().reset();
+		final ByteBuffer buf = BufferPool.getDefault().acquire(BUFFER_SIZE);
+		int used = 0;
+		try {
+			CoderResult result;
+			do {
+				buf.clear();
+				result = encoder.encode(chars, buf, true);
+				buf.flip();
+				used = Math.max(used, buf.limit());
+				md.update(buf);
+			} while (result.isOverflow());
+			do {
+				buf.clear();
+				result = encoder.flush(buf);
+				buf.flip();
+				used = Math.max(used, buf.limit());
+				md.update(buf);
+			} while (result.isOverflow());
+		} finally {
+			if (wipe) {
+				buf.clear();
+				for (int i = 0; i < used; i++) {
+					buf.put(i, (byte) 0);
+				}
+			}
+			BufferPool.getDefault().release(buf);
+		}
+	}
+}
@@ -0,0 +1,257 @@
+package com.razican.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the contents of files as strings, as returned by
+ * {@link FileUtils#toString(File, Charset)}. A file decoded with different
+ * charsets is cached once per charset. The least recently used files are evicted
+ * when either the number of files or the total number of characters exceeds
+ * its bound.
+ * <p>
+ * Every lookup checks the modification time and size of the file, which only
+ * needs a single metadata read, and reloads the file if they changed. Since
+ * a file can be modified again within the resolution of its modification
+ * time, contents read less than {@link #RACY_WINDOW} milliseconds after the
+ * file was modified are not trusted, and are reloaded until the file has not
+ * changed for that long.
+ * <p>
+ * This class is thread-safe. Files are loaded outside of the lock, so a slow
+ * load does not block the lookups of other files.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public class FileCache {
+
+	/**
+	 * Milliseconds after a modification during which the contents of a file
+	 * are not trusted
+	 */
+	public static final long RACY_WINDOW = 2000;
+
+	private final int maxEntries;
+	private final long maxChars;
+	private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long chars;
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Creates a cache
+	 *
+	 * @param maxEntries
+	 *            - Maximum number of files
+	 * @param maxChars
+	 *            - Maximum total number of characters. Larger files are never
+	 *            cached.
+	 */
+	public FileCache(final int maxEntries, final long maxChars) {
+		if (maxEntries <= 0 || maxChars <= 0) {
+			throw new IllegalArgumentException("The bounds must be positive");
+		}
+
+		this.maxEntries = maxEntries;
+		this.maxChars = maxChars;
+	}
+
+	/**
+	 * Gets the contents of a file, decoded with the default charset
+	 *
+	 * @param file
+	 *            - The file
+	 * @return The contents of the file, null if the file does not exist
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public String get(final File file) throws IOException {
+		return get(file, Charset.defaultCharset());
+	}
+
+	/**
+	 * Gets the contents of a file
+	 *
+	 * @param file
+	 *            - The file
+	 * @param charset
+	 *            - The charset of the file
+	 * @return The contents of the file, null if the file does not exist
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public String get(final File file, final Charset charset) throws IOException {
+		final Path path = file.toPath().toAbsolutePath().normalize();
+		final BasicFileAttributes attributes;
+		try {
+			attributes = Files.readAttributes(path, BasicFileAttributes.class);
+		} catch (final NoSuchFileException e) {
+			invalidate(file);
+			misses.incrementAndGet();
+			return null;
+		}
+		final long modified = attributes.lastModifiedTime().toMillis();
+		final long size = attributes.size();
+		final Key key = new Key(path, charset);
+
+		synchronized (entries) {
+			final Entry entry = entries.get(key);
+			if (entry != null && entry.modified == modified && entry.size == size
+					&& entry.loaded - modified >= RACY_WINDOW) {
+				hits.incrementAndGet();
+				return entry.content;
+			}
+		}
+
+		misses.incrementAndGet();
+		final long loaded = System.currentTimeMillis();
+		final String content = FileUtils.toString(path.toFile(), charset);
+		if (content == null) {
+			invalidate(file);
+		} else if (content.length() <= maxChars) {
+			put(key, new Entry(content, modified, size, loaded));
+		}
+
+		return content;
+	}
+
+	/**
+	 * Removes a file from the cache, with every charset
+	 *
+	 * @param file
+	 *            - The file
+	 */
+	public void invalidate(final File file) {
+		final Path path = file.toPath().toAbsolutePath().normalize();
+		synchronized (entries) {
+			final Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+			while (it.hasNext()) {
+				final Map.Entry<Key, Entry> entry = it.next();
+				if (entry.getKey().path.equals(path)) {
+					chars -= entry.getValue().content.length();
+					it.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes all the files from the cache
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+			chars = 0;
+		}
+	}
+
+	/**
+	 * @return The number of cached files
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * @return The total number of cached characters
+	 */
+	public long chars() {
+		synchronized (entries) {
+			return chars;
+		}
+	}
+
+	/**
+	 * @return The number of lookups served from the cache
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return The number of lookups that read the file
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return The number of files evicted to respect the bounds
+	 */
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	private void put(final Key key, final Entry entry) {
+		synchronized (entries) {
+			final Entry previous = entries.put(key, entry);
+			if (previous != null) {
+				chars -= previous.content.length();
+			}
+			chars += entry.content.length();
+
+			final Iterator<Entry> it = entries.values().iterator();
+			while (entries.size() > maxEntries || chars > maxChars) {
+				chars -= it.next().content.length();
+				it.remove();
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Path of a file and charset of its contents
+	 */
+	private static final class Key {
+		private final Path path;
+		private final Charset charset;
+
+		private Key(final Path path, final Charset charset) {
+			this.path = path;
+			this.charset = charset;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return path.equals(other.path) && charset.equals(other.charset);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * path.hashCode() + charset.hashCode();
+		}
+	}
+
+	/**
+	 * Cached contents of a file
+	 */
+	private static final class Entry {
+		private final String content;
+		private final long modified;
+		private final long size;
+		private final long loaded;
+
+		private Entry(final String content, final long modified, final long size, final long loaded) {
+			this.content = content;
+			this.modified = modified;
+			this.size = size;
+			this.loaded = loaded;
+		}
+	}
+}
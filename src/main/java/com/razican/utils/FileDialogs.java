@@ -0,0 +1,121 @@
+package com.razican.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.filechooser.FileNameExtensionFilter;
+
+/**
+ * File dialogs, to choose the files to open and save with Swing. This is the
+ * only class of the library that uses Swing, so that the rest can be used in
+ * headless environments without loading it.
+ * 
+ * @author Razican (Iban Eguia)
+ * @author Jordan Aranda Tejada
+ */
+public final class FileDialogs {
+
+	private FileDialogs() {
+	}
+
+	/**
+	 * Opens a file with a file chooser
+	 * 
+	 * @param description
+	 *            - The description of the file
+	 * @param extensions
+	 *            - The extension of the file. Could be multiple extensions.
+	 * @return The file loaded
+	 */
+	public static File open(final String description, final String... extensions) {
+		final JFileChooser fileChooser = new JFileChooser();
+		fileChooser.setFileFilter(new FileNameExtensionFilter(description, extensions));
+		fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
+		String path = "";
+		File file = null;
+		try {
+			if (fileChooser.showOpenDialog(null) == JFileChooser.APPROVE_OPTION) {
+				path = fileChooser.getSelectedFile().getAbsolutePath();
+				file = new File(path);
+			}
+		} catch (final Exception e) {
+			e.printStackTrace();
+		}
+		return file;
+	}
+
+	/**
+	 * Saves a file with a file chooser
+	 * 
+	 * @param content
+	 *            - The object to save
+	 * @param description
+	 *            - The description of the file
+	 * @param extension
+	 *            - The extension of the file
+	 * @param file
+	 *            - The file in where to save
+	 * @return The path of the saved file
+	 */
+	public static String saveObject(final Object content, final String description, final String extension, final File file) {
+		final JFileChooser fileChooser = new JFileChooser();
+		final FileNameExtensionFilter langFilter = new FileNameExtensionFilter(description, extension);
+		fileChooser.setFileFilter(langFilter);
+		fileChooser.setSelectedFile(file);
+		String path = "";
+		try {
+			if (fileChooser.showSaveDialog(null) == JFileChooser.APPROVE_OPTION) {
+				path = fileChooser.getSelectedFile().getAbsolutePath();
+				if (!path.endsWith("." + extension)) {
+					path += "." + extension;
+				}
+				final File file2 = new File(path);
+				if ((file2.exists() && JOptionPane.OK_OPTION == JOptionPane.showConfirmDialog(null, "The file exists, do you want to replace it?", "File Exists", JOptionPane.YES_NO_OPTION)) || !file2.exists()) {
+					FileUtils.saveObject(content, file2, true);
+				}
+			}
+			return path;
+		} catch (final Exception e) {
+			e.printStackTrace();
+			return path;
+		}
+	}
+
+	/**
+	 * Saves a file with a file chooser
+	 * 
+	 * @param content
+	 *            - The object to save
+	 * @param description
+	 *            - The description of the file
+	 * @param extension
+	 *            - The extension of the file
+	 * 
+	 * @return The path of the saved file
+	 */
+	public static String saveByteArray(final ByteArrayOutputStream content, final String description, final String extension) {
+
+		final JFileChooser fileChooser = new JFileChooser();
+		final FileNameExtensionFilter langFilter = new FileNameExtensionFilter(description, extension);
+		fileChooser.setFileFilter(langFilter);
+		String path = "";
+		try {
+			if (fileChooser.showSaveDialog(null) == JFileChooser.APPROVE_OPTION) {
+				path = fileChooser.getSelectedFile().getAbsolutePath();
+				if (!path.endsWith("." + extension)) {
+					path += "." + extension;
+				}
+				final File file2 = new File(path);
+				if ((file2.exists() && JOptionPane.OK_OPTION == JOptionPane.showConfirmDialog(null, "The file exists, do you want to replace it?", "File Exists", JOptionPane.YES_NO_OPTION)) || !file2.exists()) {
+					FileUtils.saveByteArray(content, file2, true);
+				}
+			}
+			return path;
+		} catch (final Exception e) {
+			e.printStackTrace();
+			return path;
+		}
+	}
+}
@@ -2,21 +2,28 @@ package com.razican.utils;
 
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.LineNumberReader;
-import java.io.ObjectOutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
-
-import javax.swing.JFileChooser;
-import javax.swing.JOptionPane;
-import javax.swing.filechooser.FileNameExtensionFilter;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * File utilities
@@ -26,9 +33,33 @@ import javax.swing.filechooser.FileNameExtensionFilter;
  */
 public final class FileUtils {
 
+	private static volatile IoMetrics metrics = IoMetrics.NOOP;
+
 	private FileUtils() {
 	}
 
+	/**
+	 * Gets the metrics that receive the instrumentation events of the file
+	 * reading methods
+	 * 
+	 * @return The metrics, {@link IoMetrics#NOOP} by default
+	 */
+	public static IoMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Sets the metrics that receive the instrumentation events of the file
+	 * reading methods. Readers and iterators that were already created keep
+	 * reporting to the previous metrics.
+	 * 
+	 * @param metrics
+	 *            - The metrics, or null to ignore the events
+	 */
+	public static void setMetrics(final IoMetrics metrics) {
+		FileUtils.metrics = metrics == null ? IoMetrics.NOOP : metrics;
+	}
+
 	/**
 	 * Converts the contents of a file to a String
 	 * 
@@ -44,7 +75,8 @@ public final class FileUtils {
 	}
 
 	/**
-	 * Converts the contents of a file to a String
+	 * Converts the contents of a file to a String, with the default charset.
+	 * To read the same files repeatedly, use a {@link FileCache}.
 	 * 
 	 * @param file
 	 *            - The file to get as a string
@@ -54,49 +86,345 @@ public final class FileUtils {
 	 *             If an IO error occurs
 	 */
 	public static String toString(final File file) throws IOException {
+		return toString(file, Charset.defaultCharset());
+	}
+
+	/**
+	 * Converts the contents of a file to a String. If the file starts with a
+	 * UTF-8 or UTF-16 byte order mark, the mark is skipped and its charset is
+	 * used instead of the given one. Files in UTF-8, US-ASCII or ISO-8859-1
+	 * are read to a byte array and converted with
+	 * {@link CharsetUtils#newString(byte[], int, int, Charset)}, without a
+	 * character buffer. Other small files are read and decoded in buffers of
+	 * the {@link BufferPool}, and bigger ones are memory mapped.
+	 * 
+	 * @param file
+	 *            - The file to get as a string
+	 * @param charset
+	 *            - The charset of the file
+	 * @return String with the contents of the file, null if the file does not
+	 *         exist
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static String toString(final File file, final Charset charset) throws IOException {
+		final IoMetrics metrics = FileUtils.metrics;
+		try {
+			return read(file, charset, metrics);
+		} catch (final IOException | RuntimeException e) {
+			metrics.error("toString", e);
+			throw e;
+		}
+	}
+
+	private static String read(final File file, final Charset charset, final IoMetrics metrics) throws IOException {
 		if (file.exists()) {
-			FileInputStream stream = null;
-			try {
-				stream = new FileInputStream(file);
-			} catch (final FileNotFoundException e) {
+			if (file.length() > MappedFileReader.DEFAULT_WINDOW_SIZE) {
+				final Reader reader = new MappedFileReader(file, charset);
+				try {
+					final StringBuilder content = new StringBuilder((int) Math.min(file.length(), Integer.MAX_VALUE - 8));
+					final char[] buf = new char[8192];
+					int n;
+					while ((n = reader.read(buf)) != -1) {
+						content.append(buf, 0, n);
+					}
+
+					return content.toString();
+				} finally {
+					reader.close();
+				}
 			}
 
-			final FileChannel fc = stream.getChannel();
-			final MappedByteBuffer bb = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+			final FileInputStream stream = new FileInputStream(file);
+			try {
+				final FileChannel fc = stream.getChannel();
+				final Charset bom = CharsetUtils.readBom(fc);
+				final Charset actual = bom == null ? charset : bom;
+				final long start = CharsetUtils.bomLength(bom);
+				if (CharsetUtils.isAsciiCompatible(actual)) {
+					final ByteBuffer bytes = ByteBuffer.allocate((int) (fc.size() - start));
+					while (bytes.hasRemaining() && fc.read(bytes, start + bytes.position()) > 0) {
+						// Read until the buffer is full or the file ends
+					}
+					metrics.bytesRead(bytes.position());
 
-			final String content = Charset.defaultCharset().decode(bb).toString();
+					final long decodeStart = metrics.isTimingDecoding() ? System.nanoTime() : 0;
+					final String content = CharsetUtils.newString(bytes.array(), 0, bytes.position(), actual);
+					if (decodeStart != 0) {
+						metrics.decoded(bytes.position(), System.nanoTime() - decodeStart);
+					}
 
-			stream.close();
+					return content;
+				}
+
+				final long size = fc.size() - start;
+				if (size <= BufferPool.MAX_CLASS_SIZE) {
+					final BufferPool pool = BufferPool.getDefault();
+					final ByteBuffer bytes = pool.acquire((int) size);
+					final CharBuffer chars = pool.acquireChars(CharsetUtils.maxChars((int) size, actual));
+					try {
+						while (bytes.hasRemaining() && fc.read(bytes, start + bytes.position()) > 0) {
+							// Read until the buffer is full or the file ends
+						}
+						bytes.flip();
+						metrics.bytesRead(bytes.remaining());
 
-			return content;
+						final long decodeStart = metrics.isTimingDecoding() ? System.nanoTime() : 0;
+						final CharsetDecoder decoder = CharsetUtils.getDecoder(actual)
+								.onMalformedInput(CodingErrorAction.REPLACE)
+								.onUnmappableCharacter(CodingErrorAction.REPLACE);
+						CharsetUtils.decode(bytes, chars, decoder);
+						chars.flip();
+						if (decodeStart != 0) {
+							metrics.decoded(bytes.limit(), System.nanoTime() - decodeStart);
+						}
+						return chars.toString();
+					} finally {
+						pool.release(bytes);
+						pool.release(chars);
+					}
+				}
+
+				final MappedByteBuffer bb = fc.map(FileChannel.MapMode.READ_ONLY, start, size);
+				metrics.mapped(size);
+				metrics.bytesRead(size);
+				try {
+					final long decodeStart = metrics.isTimingDecoding() ? System.nanoTime() : 0;
+					final String content = actual.decode(bb).toString();
+					if (decodeStart != 0) {
+						metrics.decoded(size, System.nanoTime() - decodeStart);
+					}
+
+					return content;
+				} finally {
+					metrics.unmapped(size);
+				}
+			} finally {
+				stream.close();
+			}
 		}
 		return null;
 	}
 
+	/**
+	 * Gets a reader for the given file, that maps and decodes the file in
+	 * fixed-size windows, so that memory use is bounded for any file size
+	 * 
+	 * @param filename
+	 *            - Name of the file
+	 * @return A reader for the contents of the file
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static Reader getReader(final String filename) throws IOException {
+		return getReader(new File(filename));
+	}
+
+	/**
+	 * Gets a reader for the given file, that maps and decodes the file in
+	 * fixed-size windows, so that memory use is bounded for any file size
+	 * 
+	 * @param file
+	 *            - The file
+	 * @return A reader for the contents of the file
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static Reader getReader(final File file) throws IOException {
+		return getReader(file, Charset.defaultCharset());
+	}
+
+	/**
+	 * Gets a reader for the given file, that maps and decodes the file in
+	 * fixed-size windows, so that memory use is bounded for any file size. A
+	 * byte order mark overrides the given charset.
+	 * 
+	 * @param file
+	 *            - The file
+	 * @param charset
+	 *            - The charset of the file
+	 * @return A reader for the contents of the file
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static Reader getReader(final File file, final Charset charset) throws IOException {
+		try {
+			return new MappedFileReader(file, charset);
+		} catch (final IOException | RuntimeException e) {
+			metrics.error("getReader", e);
+			throw e;
+		}
+	}
+
 	/**
 	 * Gets the LineIterator for the given file
 	 * 
 	 * @param filename
 	 *            - Name of the file
 	 * @return a LineIterator of the lines of the document
-	 * @throws FileNotFoundException
-	 *             if the file is not found
+	 * @throws IOException
+	 *             If an IO error occurs
 	 */
-	public static LineIterator getLineIterator(final String filename) throws FileNotFoundException {
+	public static LineIterator getLineIterator(final String filename) throws IOException {
 		return getLineIterator(new File(filename));
 	}
 
 	/**
-	 * Gets the LineIterator for the given file
+	 * Gets the LineIterator for the given file, with the default charset
+	 * 
+	 * @param file
+	 *            - The file
+	 * @return a LineIterator of the lines of the document
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static LineIterator getLineIterator(final File file) throws IOException {
+		return getLineIterator(file, Charset.defaultCharset());
+	}
+
+	/**
+	 * Gets the LineIterator for the given file. A byte order mark overrides
+	 * the given charset. If the charset allows it, lines are found directly in
+	 * the bytes of the file, and only end with <code>\n</code> or
+	 * <code>\r\n</code>.
 	 * 
 	 * @param file
 	 *            - The file
+	 * @param charset
+	 *            - The charset of the file
 	 * @return a LineIterator of the lines of the document
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static LineIterator getLineIterator(final File file, final Charset charset) throws IOException {
+		final FileInputStream stream;
+		try {
+			stream = new FileInputStream(file);
+		} catch (final IOException e) {
+			metrics.error("getLineIterator", e);
+			throw e;
+		}
+		try {
+			final Charset bom = CharsetUtils.readBom(stream.getChannel());
+			final Charset actual = bom == null ? charset : bom;
+			final long start = CharsetUtils.bomLength(bom);
+			if (LineScanner.supports(actual)) {
+				return new LineIterator(new LineScanner(stream, start, Long.MAX_VALUE), actual);
+			}
+
+			stream.getChannel().position(start);
+			return new LineIterator(new BufferedReader(new InputStreamReader(stream, actual)));
+		} catch (final IOException | RuntimeException e) {
+			metrics.error("getLineIterator", e);
+			stream.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets a LineScanner for the given file
+	 * 
+	 * @param file
+	 *            - The file
+	 * @return a LineScanner of the lines of the document
 	 * @throws FileNotFoundException
 	 *             if the file is not found
 	 */
-	public static LineIterator getLineIterator(final File file) throws FileNotFoundException {
-		return new LineIterator(new BufferedReader(new FileReader(file)));
+	public static LineScanner getLineScanner(final File file) throws FileNotFoundException {
+		return new LineScanner(file);
+	}
+
+	/**
+	 * Gets a stream of the lines of the given file
+	 * 
+	 * @param filename
+	 *            - Name of the file
+	 * @param parallel
+	 *            - Whether the stream is parallel
+	 * @return a stream of the lines of the document, that must be closed
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static Stream<String> lines(final String filename, final boolean parallel) throws IOException {
+		return lines(new File(filename), parallel);
+	}
+
+	/**
+	 * Gets a stream of the lines of the given file, with the default charset
+	 * 
+	 * @param file
+	 *            - The file
+	 * @param parallel
+	 *            - Whether the stream is parallel
+	 * @return a stream of the lines of the document, that must be closed
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static Stream<String> lines(final File file, final boolean parallel) throws IOException {
+		return lines(file, Charset.defaultCharset(), parallel);
+	}
+
+	/**
+	 * Gets a stream of the lines of the given file. A byte order mark
+	 * overrides the given charset. If the charset allows it, the file is split
+	 * in byte ranges aligned to line boundaries, so that parallel streams
+	 * process different ranges concurrently.
+	 * 
+	 * @param file
+	 *            - The file
+	 * @param charset
+	 *            - The charset of the file
+	 * @param parallel
+	 *            - Whether the stream is parallel
+	 * @return a stream of the lines of the document, that must be closed
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static Stream<String> lines(final File file, final Charset charset, final boolean parallel)
+			throws IOException {
+		final FileInputStream stream;
+		try {
+			stream = new FileInputStream(file);
+		} catch (final IOException e) {
+			metrics.error("lines", e);
+			throw e;
+		}
+		try {
+			final Charset bom = CharsetUtils.readBom(stream.getChannel());
+			final Charset actual = bom == null ? charset : bom;
+			final long start = CharsetUtils.bomLength(bom);
+			if (!LineScanner.supports(actual)) {
+				stream.getChannel().position(start);
+				final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, actual));
+				final Stream<String> lines = reader.lines().onClose(closer(reader));
+				return parallel ? lines.parallel() : lines;
+			}
+
+			return StreamSupport.stream(new LineSpliterator(stream.getChannel(), actual, start), parallel).onClose(
+					closer(stream));
+		} catch (final IOException | RuntimeException e) {
+			metrics.error("lines", e);
+			stream.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Follows a growing file, such as a log, returning its lines as they are
+	 * written. The lines are decoded with the default charset.
+	 * 
+	 * @param file
+	 *            - The file to follow
+	 * @param fromEnd
+	 *            - Whether to start at the current end of the file, instead of
+	 *            at the start
+	 * @return An iterator that waits for new lines, until it is closed
+	 * @throws IOException
+	 *             If the file cannot be opened or watched
+	 * @see TailingLineIterator
+	 */
+	public static TailingLineIterator tail(final File file, final boolean fromEnd) throws IOException {
+		return new TailingLineIterator(file.toPath(), Charset.defaultCharset(), fromEnd);
 	}
 
 	/**
@@ -104,9 +432,10 @@ public final class FileUtils {
 	 * 
 	 * @param filename
 	 *            - The name of the file
-	 * @return The number of lines
+	 * @return The number of lines, -1 if the file does not exist or cannot be
+	 *         read
 	 */
-	public static int getLines(final String filename) {
+	public static long getLines(final String filename) {
 		return getLines(new File(filename));
 	}
 
@@ -115,31 +444,81 @@ public final class FileUtils {
 	 * 
 	 * @param file
 	 *            - The file
-	 * @return The number of lines
+	 * @return The number of lines, -1 if the file does not exist or cannot be
+	 *         read
 	 */
-	public static int getLines(final File file) {
-		LineNumberReader reader = null;
-		if (file.exists()) {
-			try {
-				reader = new LineNumberReader(new FileReader(file));
-				while ((reader.readLine()) != null) {
-					;
-				}
+	public static long getLines(final File file) {
+		return getLines(file, false);
+	}
 
-				return reader.getLineNumber();
-			} catch (final Exception e) {
-				return -1;
-			} finally {
-				if (reader != null) {
-					try {
-						reader.close();
-					} catch (final IOException e) {
-						e.printStackTrace();
-					}
-				}
+	/**
+	 * Counts the number of lines in the given file, with the default charset
+	 * 
+	 * @param file
+	 *            - The file
+	 * @param parallel
+	 *            - Whether to count segments of the file concurrently
+	 * @return The number of lines, -1 if the file does not exist or cannot be
+	 *         read
+	 */
+	public static long getLines(final File file, final boolean parallel) {
+		return getLines(file, Charset.defaultCharset(), parallel);
+	}
+
+	/**
+	 * Counts the number of lines in the given file. A byte order mark
+	 * overrides the given charset. If the charset allows it, the
+	 * <code>\n</code> bytes of the file are counted directly, and in parallel
+	 * mode segments of the file are counted concurrently in a fork/join pool.
+	 * 
+	 * @param file
+	 *            - The file
+	 * @param charset
+	 *            - The charset of the file
+	 * @param parallel
+	 *            - Whether to count segments of the file concurrently
+	 * @return The number of lines, -1 if the file does not exist or cannot be
+	 *         read
+	 */
+	public static long getLines(final File file, final Charset charset, final boolean parallel) {
+		if (!file.exists()) {
+			return -1;
+		}
+
+		final IoMetrics metrics = FileUtils.metrics;
+		FileInputStream stream = null;
+		try {
+			stream = new FileInputStream(file);
+			final Charset bom = CharsetUtils.readBom(stream.getChannel());
+			final Charset actual = bom == null ? charset : bom;
+			if (LineScanner.supports(actual)) {
+				final long lines = LineCounter.countLines(stream.getChannel(), CharsetUtils.bomLength(bom), parallel,
+						metrics);
+				metrics.bytesRead(stream.getChannel().size());
+				metrics.linesRead(lines);
+				return lines;
 			}
-		} else {
+
+			stream.getChannel().position(CharsetUtils.bomLength(bom));
+			final LineNumberReader reader = new LineNumberReader(new InputStreamReader(stream, actual));
+			while ((reader.readLine()) != null) {
+				;
+			}
+			metrics.bytesRead(stream.getChannel().size());
+			metrics.linesRead(reader.getLineNumber());
+
+			return reader.getLineNumber();
+		} catch (final Exception e) {
+			metrics.error("getLines", e);
 			return -1;
+		} finally {
+			if (stream != null) {
+				try {
+					stream.close();
+				} catch (final IOException e) {
+					metrics.error("getLines", e);
+				}
+			}
 		}
 	}
 
@@ -151,22 +530,11 @@ public final class FileUtils {
 	 * @param extensions
 	 *            - The extension of the file. Could be multiple extensions.
 	 * @return The file loaded
+	 * @deprecated Use {@link FileDialogs#open(String, String...)}
 	 */
+	@Deprecated
 	public static File open(final String description, final String... extensions) {
-		final JFileChooser fileChooser = new JFileChooser();
-		fileChooser.setFileFilter(new FileNameExtensionFilter(description, extensions));
-		fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
-		String path = "";
-		File file = null;
-		try {
-			if (fileChooser.showOpenDialog(null) == JFileChooser.APPROVE_OPTION) {
-				path = fileChooser.getSelectedFile().getAbsolutePath();
-				file = new File(path);
-			}
-		} catch (final Exception e) {
-			e.printStackTrace();
-		}
-		return file;
+		return FileDialogs.open(description, extensions);
 	}
 
 	/**
@@ -181,31 +549,12 @@ public final class FileUtils {
 	 * @param file
 	 *            - The file in where to save
 	 * @return The path of the saved file
+	 * @deprecated Use
+	 *             {@link FileDialogs#saveObject(Object, String, String, File)}
 	 */
+	@Deprecated
 	public static String saveObject(final Object content, final String description, final String extension, final File file) {
-		final JFileChooser fileChooser = new JFileChooser();
-		final FileNameExtensionFilter langFilter = new FileNameExtensionFilter(description, extension);
-		fileChooser.setFileFilter(langFilter);
-		fileChooser.setSelectedFile(file);
-		String path = "";
-		try {
-			if (fileChooser.showSaveDialog(null) == JFileChooser.APPROVE_OPTION) {
-				path = fileChooser.getSelectedFile().getAbsolutePath();
-				if (!path.endsWith("." + extension)) {
-					path += "." + extension;
-				}
-				final File file2 = new File(path);
-				if ((file2.exists() && JOptionPane.OK_OPTION == JOptionPane.showConfirmDialog(null, "The file exists, do you want to replace it?", "File Exists", JOptionPane.YES_NO_OPTION)) || !file2.exists()) {
-					final ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(path));
-					oos.writeObject(content);
-					oos.close();
-				}
-			}
-			return path;
-		} catch (final Exception e) {
-			e.printStackTrace();
-			return path;
-		}
+		return FileDialogs.saveObject(content, description, extension, file);
 	}
 
 	/**
@@ -219,30 +568,233 @@ public final class FileUtils {
 	 *            - The extension of the file
 	 * 
 	 * @return The path of the saved file
+	 * @deprecated Use
+	 *             {@link FileDialogs#saveByteArray(ByteArrayOutputStream, String, String)}
 	 */
+	@Deprecated
 	public static String saveByteArray(final ByteArrayOutputStream content, final String description, final String extension) {
+		return FileDialogs.saveByteArray(content, description, extension);
+	}
 
-		final JFileChooser fileChooser = new JFileChooser();
-		final FileNameExtensionFilter langFilter = new FileNameExtensionFilter(description, extension);
-		fileChooser.setFileFilter(langFilter);
-		String path = "";
+	/**
+	 * Saves the contents of a byte array stream in a file, without copying
+	 * them. To write without blocking the calling thread, use an
+	 * {@link AsyncFileWriter}.
+	 * 
+	 * @param content
+	 *            - The content to save
+	 * @param file
+	 *            - The file in where to save
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static void saveByteArray(final ByteArrayOutputStream content, final File file) throws IOException {
+		final IoMetrics metrics = FileUtils.metrics;
 		try {
-			if (fileChooser.showSaveDialog(null) == JFileChooser.APPROVE_OPTION) {
-				path = fileChooser.getSelectedFile().getAbsolutePath();
-				if (!path.endsWith("." + extension)) {
-					path += "." + extension;
-				}
-				final File file2 = new File(path);
-				if ((file2.exists() && JOptionPane.OK_OPTION == JOptionPane.showConfirmDialog(null, "The file exists, do you want to replace it?", "File Exists", JOptionPane.YES_NO_OPTION)) || !file2.exists()) {
-					final FileOutputStream fos = new FileOutputStream(path);
-					fos.write(content.toByteArray());
-					fos.close();
-				}
+			final FileOutputStream fos = new FileOutputStream(file);
+			try {
+				content.writeTo(fos);
+			} finally {
+				fos.close();
 			}
-			return path;
-		} catch (final Exception e) {
-			e.printStackTrace();
-			return path;
+			metrics.bytesWritten(content.size());
+		} catch (final IOException | RuntimeException e) {
+			metrics.error("saveByteArray", e);
+			throw e;
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Saves the contents of a byte array stream in a file
+	 * 
+	 * @param content
+	 *            - The content to save
+	 * @param file
+	 *            - The file in where to save
+	 * @param atomic
+	 *            - Whether to write a temporary file in the same directory,
+	 *            force it to the storage device and atomically move it over
+	 *            the file, so that a crash never leaves a partially written
+	 *            file. To share the forces of many small saves, use a
+	 *            {@link GroupCommitter}.
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static void saveByteArray(final ByteArrayOutputStream content, final File file, final boolean atomic)
+			throws IOException {
+		saveByteArray(content, file.toPath(), atomic);
+	}
+
+	/**
+	 * Saves the contents of a byte array stream in a file
+	 * 
+	 * @param content
+	 *            - The content to save
+	 * @param path
+	 *            - The path of the file in where to save
+	 * @param atomic
+	 *            - Whether to write a temporary file in the same directory,
+	 *            force it to the storage device and atomically move it over
+	 *            the file, so that a crash never leaves a partially written
+	 *            file. To share the forces of many small saves, use a
+	 *            {@link GroupCommitter}.
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static void saveByteArray(final ByteArrayOutputStream content, final Path path, final boolean atomic)
+			throws IOException {
+		final IoMetrics metrics = FileUtils.metrics;
+		try {
+			save(path, channel -> content.writeTo(Channels.newOutputStream(channel)), atomic, metrics);
+		} catch (final IOException | RuntimeException e) {
+			metrics.error("saveByteArray", e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Serializes an object in a file with the Java serialization
+	 * 
+	 * @param content
+	 *            - The object to save
+	 * @param file
+	 *            - The file in where to save
+	 * @param atomic
+	 *            - Whether to write a temporary file in the same directory,
+	 *            force it to the storage device and atomically move it over
+	 *            the file, so that a crash never leaves a partially written
+	 *            file
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static void saveObject(final Object content, final File file, final boolean atomic) throws IOException {
+		saveObject(content, file, new JavaSerializer(), atomic);
+	}
+
+	/**
+	 * Serializes an object in a file
+	 * 
+	 * @param content
+	 *            - The object to save
+	 * @param file
+	 *            - The file in where to save
+	 * @param serializer
+	 *            - The serializer, such as a {@link BinarySerializer}
+	 * @param atomic
+	 *            - Whether to write a temporary file in the same directory,
+	 *            force it to the storage device and atomically move it over
+	 *            the file, so that a crash never leaves a partially written
+	 *            file
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static void saveObject(final Object content, final File file, final Serializer serializer,
+			final boolean atomic) throws IOException {
+		saveObject(content, file.toPath(), serializer, atomic);
+	}
+
+	/**
+	 * Serializes an object in a file
+	 * 
+	 * @param content
+	 *            - The object to save
+	 * @param path
+	 *            - The path of the file in where to save
+	 * @param serializer
+	 *            - The serializer, such as a {@link BinarySerializer}
+	 * @param atomic
+	 *            - Whether to write a temporary file in the same directory,
+	 *            force it to the storage device and atomically move it over
+	 *            the file, so that a crash never leaves a partially written
+	 *            file
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static void saveObject(final Object content, final Path path, final Serializer serializer,
+			final boolean atomic) throws IOException {
+		final IoMetrics metrics = FileUtils.metrics;
+		try {
+			save(path, channel -> serializer.serialize(content, channel), atomic, metrics);
+		} catch (final IOException | RuntimeException e) {
+			metrics.error("saveObject", e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Saves a file, reporting the bytes written to the metrics
+	 *
+	 * @param path
+	 *            - The path of the file
+	 * @param writer
+	 *            - Writer of the contents, from the start of the channel
+	 * @param atomic
+	 *            - Whether to replace the file atomically
+	 * @param metrics
+	 *            - The metrics
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	private static void save(final Path path, final AtomicFiles.ContentWriter writer, final boolean atomic,
+			final IoMetrics metrics) throws IOException {
+		final AtomicFiles.ContentWriter counted = channel -> {
+			writer.write(channel);
+			metrics.bytesWritten(channel.position());
+		};
+		if (atomic) {
+			AtomicFiles.replace(path, counted);
+		} else {
+			try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING)) {
+				counted.write(channel);
+			}
+		}
+	}
+
+	/**
+	 * Loads an object from a file
+	 * 
+	 * @param file
+	 *            - The file to load
+	 * @param serializer
+	 *            - The serializer the object was saved with
+	 * @return The object
+	 * @throws IOException
+	 *             If an IO error occurs or the file is not valid
+	 */
+	public static Object loadObject(final File file, final Serializer serializer) throws IOException {
+		return loadObject(file.toPath(), serializer);
+	}
+
+	/**
+	 * Loads an object from a file
+	 * 
+	 * @param path
+	 *            - The path of the file to load
+	 * @param serializer
+	 *            - The serializer the object was saved with
+	 * @return The object
+	 * @throws IOException
+	 *             If an IO error occurs or the file is not valid
+	 */
+	public static Object loadObject(final Path path, final Serializer serializer) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final Object object = serializer.deserialize(channel);
+			metrics.bytesRead(channel.position());
+			return object;
+		} catch (final IOException | RuntimeException e) {
+			metrics.error("loadObject", e);
+			throw e;
+		}
+	}
+
+	private static Runnable closer(final Closeable closeable) {
+		return () -> {
+			try {
+				closeable.close();
+			} catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		};
+	}
+}
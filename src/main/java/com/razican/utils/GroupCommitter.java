@@ -0,0 +1,239 @@
+package com.razican.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Performs atomic, crash-safe file saves in batches. Saves requested within a
+ * short delay of each other are committed together: every file is written to
+ * a temporary file and forced, then all of them are moved over their targets,
+ * and each directory is forced only once for the whole batch. If a file is
+ * saved more than once in a batch, only the last contents are written.
+ * <p>
+ * Each save returns a future that completes once the file has been replaced.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public class GroupCommitter implements Closeable {
+
+	private static final int MAX_BATCH = 256;
+
+	private final long maxDelay;
+	private final IoMetrics metrics = FileUtils.getMetrics();
+	private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+	private final Thread thread;
+	private boolean closed;
+
+	/**
+	 * Creates a committer
+	 *
+	 * @param maxDelay
+	 *            - Milliseconds to wait for more saves after the first one of
+	 *            a batch
+	 */
+	public GroupCommitter(final long maxDelay) {
+		if (maxDelay < 0) {
+			throw new IllegalArgumentException("The delay must not be negative");
+		}
+
+		this.maxDelay = maxDelay;
+		this.thread = new Thread(this::run, "GroupCommitter");
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Saves the remaining bytes of a buffer in a file. The buffer must not be
+	 * modified until the save completes.
+	 *
+	 * @param target
+	 *            - The file to replace
+	 * @param content
+	 *            - The content to save
+	 * @return A future that completes when the file is replaced
+	 */
+	public CompletableFuture<Void> save(final Path target, final ByteBuffer content) {
+		return submit(new Request(target, content, null, false));
+	}
+
+	/**
+	 * Saves the contents of a byte array stream in a file, without copying
+	 * them. The stream must not be modified until the save completes.
+	 *
+	 * @param target
+	 *            - The file to replace
+	 * @param content
+	 *            - The content to save
+	 * @return A future that completes when the file is replaced
+	 */
+	public CompletableFuture<Void> save(final Path target, final ByteArrayOutputStream content) {
+		return submit(new Request(target, null, content, false));
+	}
+
+	/**
+	 * Closes the committer after the pending saves
+	 */
+	@Override
+	public void close() {
+		synchronized (queue) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			queue.add(new Request(null, null, null, true));
+		}
+
+		try {
+			thread.join();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private CompletableFuture<Void> submit(final Request request) {
+		synchronized (queue) {
+			if (!closed) {
+				queue.add(request);
+				return request.future;
+			}
+		}
+
+		final CompletableFuture<Void> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new IOException("The committer is closed"));
+		return failed;
+	}
+
+	private void run() {
+		final List<Request> batch = new ArrayList<>(MAX_BATCH);
+		boolean done = false;
+
+		while (!done) {
+			try {
+				batch.add(queue.take());
+				final long deadline = System.currentTimeMillis() + maxDelay;
+				while (batch.size() < MAX_BATCH && !batch.get(batch.size() - 1).last) {
+					final Request next = queue.poll(Math.max(0, deadline - System.currentTimeMillis()),
+							TimeUnit.MILLISECONDS);
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+			} catch (final InterruptedException e) {
+				done = true;
+			}
+
+			for (final Request request : batch) {
+				done |= request.last;
+			}
+			commit(batch, metrics);
+			batch.clear();
+		}
+
+		final IOException closedException = new IOException("The committer is closed");
+		for (final Request request : queue) {
+			request.future.completeExceptionally(closedException);
+		}
+	}
+
+	private static void commit(final List<Request> batch, final IoMetrics metrics) {
+		final Map<Path, Request> latest = new LinkedHashMap<>();
+		for (final Request request : batch) {
+			if (!request.last) {
+				final Path target = request.target.toAbsolutePath();
+				final Request previous = latest.put(target, request);
+				if (previous != null) {
+					request.superseded.add(previous);
+				}
+			}
+		}
+
+		final Map<Request, Path> temps = new LinkedHashMap<>();
+		for (final Request request : latest.values()) {
+			try {
+				temps.put(request, AtomicFiles.write(request.target, channel -> {
+					if (request.buffer != null) {
+						while (request.buffer.hasRemaining()) {
+							channel.write(request.buffer);
+						}
+					} else {
+						request.stream.writeTo(Channels.newOutputStream(channel));
+					}
+					metrics.bytesWritten(channel.position());
+				}));
+			} catch (final IOException | RuntimeException e) {
+				metrics.error("save", e);
+				request.fail(e);
+			}
+		}
+
+		final Set<Path> directories = new HashSet<>();
+		final List<Request> moved = new ArrayList<>(temps.size());
+		for (final Map.Entry<Request, Path> entry : temps.entrySet()) {
+			final Request request = entry.getKey();
+			try {
+				AtomicFiles.move(entry.getValue(), request.target);
+				directories.add(AtomicFiles.directory(request.target));
+				moved.add(request);
+			} catch (final IOException e) {
+				metrics.error("save", e);
+				request.fail(e);
+			}
+		}
+
+		for (final Path directory : directories) {
+			AtomicFiles.syncDirectory(directory);
+		}
+		for (final Request request : moved) {
+			request.complete();
+		}
+	}
+
+	/**
+	 * A pending save
+	 */
+	private static final class Request {
+		private final Path target;
+		private final ByteBuffer buffer;
+		private final ByteArrayOutputStream stream;
+		private final boolean last;
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+		private final List<Request> superseded = new ArrayList<>(0);
+
+		private Request(final Path target, final ByteBuffer buffer, final ByteArrayOutputStream stream,
+				final boolean last) {
+			this.target = target;
+			this.buffer = buffer;
+			this.stream = stream;
+			this.last = last;
+		}
+
+		private void complete() {
+			for (final Request request : superseded) {
+				request.complete();
+			}
+			future.complete(null);
+		}
+
+		private void fail(final Throwable cause) {
+			for (final Request request : superseded) {
+				request.fail(cause);
+			}
+			future.completeExceptionally(cause);
+		}
+	}
+}
@@ -0,0 +1,278 @@
+package com.razican.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Hexadecimal encoding and decoding utilities. Encoding uses tables with the
+ * two characters of each of the 256 byte values, and all methods can write to
+ * caller supplied arrays or buffers.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public final class HexUtils {
+
+	private static final char[] LOWER = table("0123456789abcdef");
+	private static final char[] UPPER = table("0123456789ABCDEF");
+	private static final int[] VALUES = new int[128];
+
+	static {
+		for (int i = 0; i < VALUES.length; i++) {
+			VALUES[i] = Character.digit(i, 16);
+		}
+	}
+
+	private HexUtils() {
+	}
+
+	/**
+	 * Converts a byte to hexadecimal
+	 *
+	 * @param b
+	 *            - The byte to convert
+	 * @param upperCase
+	 *            - Whether to use upper case letters
+	 * @return String with the two hexadecimal characters of the byte
+	 */
+	public static String encode(final byte b, final boolean upperCase) {
+		return new String(upperCase ? UPPER : LOWER, (b & 0xFF) << 1, 2);
+	}
+
+	/**
+	 * Converts data to an hexadecimal string
+	 *
+	 * @param data
+	 *            - Data to convert to hexadecimal
+	 * @param upperCase
+	 *            - Whether to use upper case letters
+	 * @return String in hexadecimal
+	 */
+	public static String encode(final byte[] data, final boolean upperCase) {
+		final char[] hex = new char[data.length << 1];
+		encode(data, 0, data.length, hex, 0, upperCase);
+
+		return new String(hex);
+	}
+
+	/**
+	 * Converts data to hexadecimal characters
+	 *
+	 * @param src
+	 *            - Data to convert to hexadecimal
+	 * @param srcOff
+	 *            - Offset of the data
+	 * @param len
+	 *            - Number of bytes to convert
+	 * @param dst
+	 *            - Destination array, with space for <code>2 * len</code>
+	 *            characters
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param upperCase
+	 *            - Whether to use upper case letters
+	 * @return The number of characters written
+	 */
+	public static int encode(final byte[] src, final int srcOff, final int len, final char[] dst, final int dstOff,
+			final boolean upperCase) {
+		final char[] table = upperCase ? UPPER : LOWER;
+		for (int i = 0, j = dstOff; i < len; i++, j += 2) {
+			final int index = (src[srcOff + i] & 0xFF) << 1;
+			dst[j] = table[index];
+			dst[j + 1] = table[index + 1];
+		}
+
+		return len << 1;
+	}
+
+	/**
+	 * Converts data to hexadecimal ASCII bytes
+	 *
+	 * @param src
+	 *            - Data to convert to hexadecimal
+	 * @param srcOff
+	 *            - Offset of the data
+	 * @param len
+	 *            - Number of bytes to convert
+	 * @param dst
+	 *            - Destination array, with space for <code>2 * len</code>
+	 *            bytes
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @param upperCase
+	 *            - Whether to use upper case letters
+	 * @return The number of bytes written
+	 */
+	public static int encode(final byte[] src, final int srcOff, final int len, final byte[] dst, final int dstOff,
+			final boolean upperCase) {
+		final char[] table = upperCase ? UPPER : LOWER;
+		for (int i = 0, j = dstOff; i < len; i++, j += 2) {
+			final int index = (src[srcOff + i] & 0xFF) << 1;
+			dst[j] = (byte) table[index];
+			dst[j + 1] = (byte) table[index + 1];
+		}
+
+		return len << 1;
+	}
+
+	/**
+	 * Converts the remaining bytes of a buffer to hexadecimal ASCII bytes.
+	 * Both buffers are advanced.
+	 *
+	 * @param src
+	 *            - Data to convert to hexadecimal
+	 * @param dst
+	 *            - Destination buffer, with space for twice the remaining
+	 *            bytes of the source
+	 * @param upperCase
+	 *            - Whether to use upper case letters
+	 */
+	public static void encode(final ByteBuffer src, final ByteBuffer dst, final boolean upperCase) {
+		if (dst.remaining() < src.remaining() << 1) {
+			throw new IllegalArgumentException("The destination buffer is too small");
+		}
+
+		final char[] table = upperCase ? UPPER : LOWER;
+		while (src.hasRemaining()) {
+			final int index = (src.get() & 0xFF) << 1;
+			dst.put((byte) table[index]);
+			dst.put((byte) table[index + 1]);
+		}
+	}
+
+	/**
+	 * Converts an hexadecimal string to data
+	 *
+	 * @param hex
+	 *            - Hexadecimal characters, in lower or upper case
+	 * @return The decoded data
+	 */
+	public static byte[] decode(final CharSequence hex) {
+		final byte[] data = new byte[hex.length() >> 1];
+		decode(hex, 0, hex.length(), data, 0);
+
+		return data;
+	}
+
+	/**
+	 * Converts hexadecimal characters to data
+	 *
+	 * @param src
+	 *            - Hexadecimal characters, in lower or upper case
+	 * @param srcOff
+	 *            - Offset of the characters
+	 * @param len
+	 *            - Number of characters to convert, must be even
+	 * @param dst
+	 *            - Destination array, with space for <code>len / 2</code>
+	 *            bytes
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @return The number of bytes written
+	 */
+	public static int decode(final CharSequence src, final int srcOff, final int len, final byte[] dst, final int dstOff) {
+		checkLength(len);
+		for (int i = srcOff, j = dstOff, end = srcOff + len; i < end; i += 2, j++) {
+			dst[j] = decode(src.charAt(i), src.charAt(i + 1), i);
+		}
+
+		return len >> 1;
+	}
+
+	/**
+	 * Converts hexadecimal characters to data
+	 *
+	 * @param src
+	 *            - Hexadecimal characters, in lower or upper case
+	 * @param srcOff
+	 *            - Offset of the characters
+	 * @param len
+	 *            - Number of characters to convert, must be even
+	 * @param dst
+	 *            - Destination array, with space for <code>len / 2</code>
+	 *            bytes
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @return The number of bytes written
+	 */
+	public static int decode(final char[] src, final int srcOff, final int len, final byte[] dst, final int dstOff) {
+		checkLength(len);
+		for (int i = srcOff, j = dstOff, end = srcOff + len; i < end; i += 2, j++) {
+			dst[j] = decode(src[i], src[i + 1], i);
+		}
+
+		return len >> 1;
+	}
+
+	/**
+	 * Converts hexadecimal ASCII bytes to data
+	 *
+	 * @param src
+	 *            - Hexadecimal ASCII bytes, in lower or upper case
+	 * @param srcOff
+	 *            - Offset of the hexadecimal bytes
+	 * @param len
+	 *            - Number of bytes to convert, must be even
+	 * @param dst
+	 *            - Destination array, with space for <code>len / 2</code>
+	 *            bytes
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @return The number of bytes written
+	 */
+	public static int decode(final byte[] src, final int srcOff, final int len, final byte[] dst, final int dstOff) {
+		checkLength(len);
+		for (int i = srcOff, j = dstOff, end = srcOff + len; i < end; i += 2, j++) {
+			dst[j] = decode((char) (src[i] & 0xFF), (char) (src[i + 1] & 0xFF), i);
+		}
+
+		return len >> 1;
+	}
+
+	/**
+	 * Converts the remaining hexadecimal ASCII bytes of a buffer to data. Both
+	 * buffers are advanced.
+	 *
+	 * @param src
+	 *            - Hexadecimal ASCII bytes, in lower or upper case
+	 * @param dst
+	 *            - Destination buffer, with space for half the remaining bytes
+	 *            of the source
+	 */
+	public static void decode(final ByteBuffer src, final ByteBuffer dst) {
+		checkLength(src.remaining());
+		if (dst.remaining() < src.remaining() >> 1) {
+			throw new IllegalArgumentException("The destination buffer is too small");
+		}
+
+		while (src.hasRemaining()) {
+			final int position = src.position();
+			dst.put(decode((char) (src.get() & 0xFF), (char) (src.get() & 0xFF), position));
+		}
+	}
+
+	private static byte decode(final char high, final char low, final int position) {
+		if ((high | low) < VALUES.length) {
+			final int value = (VALUES[high] << 4) | VALUES[low];
+			if (value >= 0) {
+				return (byte) value;
+			}
+		}
+
+		throw new IllegalArgumentException("Invalid hexadecimal characters at position " + position);
+	}
+
+	private static void checkLength(final int len) {
+		if ((len & 1) != 0) {
+			throw new IllegalArgumentException("The number of hexadecimal characters must be even");
+		}
+	}
+
+	private static char[] table(final String digits) {
+		final char[] table = new char[512];
+		for (int i = 0; i < 256; i++) {
+			table[i << 1] = digits.charAt(i >>> 4);
+			table[(i << 1) + 1] = digits.charAt(i & 0x0F);
+		}
+
+		return table;
+	}
+}
@@ -0,0 +1,103 @@
+package com.razican.utils;
+
+/**
+ * Receiver of the instrumentation events of the file reading and saving
+ * methods of {@link FileUtils}, of the readers and iterators they return, and
+ * of {@link AsyncFileWriter}s and {@link GroupCommitter}s. Every method does
+ * nothing by default, so implementations only override the events they need.
+ * Install an implementation with {@link FileUtils#setMetrics(IoMetrics)}.
+ * <p>
+ * Events are reported from any thread, often in batches, so implementations
+ * must be thread-safe and fast. Readers, iterators and writers get the
+ * metrics when they are created, and keep reporting to them even if other
+ * metrics are installed later.
+ *
+ * @author Razican (Iban Eguia)
+ * @see CountingIoMetrics
+ */
+public interface IoMetrics {
+
+	/**
+	 * Metrics that ignore every event, installed by default
+	 */
+	IoMetrics NOOP = new IoMetrics() {
+	};
+
+	/**
+	 * Bytes were read from a file
+	 *
+	 * @param bytes
+	 *            - The number of bytes
+	 */
+	default void bytesRead(final long bytes) {
+	}
+
+	/**
+	 * Lines were produced by an iterator or stream
+	 *
+	 * @param lines
+	 *            - The number of lines
+	 */
+	default void linesRead(final long lines) {
+	}
+
+	/**
+	 * Bytes were written to a file
+	 *
+	 * @param bytes
+	 *            - The number of bytes
+	 */
+	default void bytesWritten(final long bytes) {
+	}
+
+	/**
+	 * Checks whether decoding should be timed. Timing needs two clock reads
+	 * per decoded chunk or line, so it is only done when this returns true.
+	 *
+	 * @return Whether {@link #decoded(long, long)} is reported
+	 */
+	default boolean isTimingDecoding() {
+		return false;
+	}
+
+	/**
+	 * Bytes were decoded to characters
+	 *
+	 * @param bytes
+	 *            - The number of bytes decoded
+	 * @param nanos
+	 *            - The time spent decoding them, in nanoseconds
+	 */
+	default void decoded(final long bytes, final long nanos) {
+	}
+
+	/**
+	 * A region of a file was memory mapped
+	 *
+	 * @param bytes
+	 *            - The size of the region
+	 */
+	default void mapped(final long bytes) {
+	}
+
+	/**
+	 * A mapped region was released. It is unmapped once it is garbage
+	 * collected.
+	 *
+	 * @param bytes
+	 *            - The size of the region
+	 */
+	default void unmapped(final long bytes) {
+	}
+
+	/**
+	 * An operation failed. The error is reported even if it is also thrown.
+	 *
+	 * @param operation
+	 *            - The name of the operation, such as <code>toString</code>
+	 * @param error
+	 *            - The error
+	 */
+	default void error(final String operation, final Throwable error) {
+	}
+}
@@ -0,0 +1,44 @@
+package com.razican.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Serializer that uses the Java serialization, for any {@link java.io.Serializable}
+ * object. It is slower and larger than the {@link BinarySerializer}, but it
+ * supports any object graph.
+ * <p>
+ * The input is buffered, so more bytes than the object needs may be read from
+ * the channel.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public class JavaSerializer implements Serializer {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	@Override
+	public void serialize(final Object value, final WritableByteChannel channel) throws IOException {
+		final ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(
+				Channels.newOutputStream(channel), BUFFER_SIZE));
+		oos.writeObject(value);
+		oos.flush();
+	}
+
+	@Override
+	public Object deserialize(final ReadableByteChannel channel) throws IOException {
+		final ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(Channels.newInputStream(channel),
+				BUFFER_SIZE));
+		try {
+			return ois.readObject();
+		} catch (final ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+	}
+}
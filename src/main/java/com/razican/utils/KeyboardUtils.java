@@ -5,7 +5,11 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 
 /**
- * Utilities for Keyboard input
+ * Utilities for Keyboard input. The <code>read</code> methods read one value
+ * per line. For bulk piped input, the <code>next</code> and
+ * <code>readInts</code> style methods scan whitespace separated values with a
+ * {@link ByteScanner}. Both modes buffer the standard input, so they must not
+ * be mixed.
  * 
  * @author Razican (Iban Eguia)
  */
@@ -16,6 +20,91 @@ public final class KeyboardUtils {
 	private KeyboardUtils() {
 	}
 
+	/**
+	 * Gets the scanner of the standard input, created on first use. It must
+	 * not be closed.
+	 * 
+	 * @return The scanner
+	 */
+	public static ByteScanner getScanner() {
+		return Scanner.INSTANCE;
+	}
+
+	/**
+	 * Scans the next whitespace separated int
+	 * 
+	 * @return The read integer
+	 * @throws IOException
+	 *             If an IO error occurs, or the input ends
+	 */
+	public static int nextInt() throws IOException {
+		return Scanner.INSTANCE.nextInt();
+	}
+
+	/**
+	 * Scans the next whitespace separated long
+	 * 
+	 * @return The read long
+	 * @throws IOException
+	 *             If an IO error occurs, or the input ends
+	 */
+	public static long nextLong() throws IOException {
+		return Scanner.INSTANCE.nextLong();
+	}
+
+	/**
+	 * Scans the next whitespace separated double
+	 * 
+	 * @return The read double
+	 * @throws IOException
+	 *             If an IO error occurs, or the input ends
+	 */
+	public static double nextDouble() throws IOException {
+		return Scanner.INSTANCE.nextDouble();
+	}
+
+	/**
+	 * Scans whitespace separated ints until the array is full or the input
+	 * ends
+	 * 
+	 * @param dst
+	 *            - Destination array
+	 * @return The number of ints read
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static int readInts(final int[] dst) throws IOException {
+		return Scanner.INSTANCE.readInts(dst);
+	}
+
+	/**
+	 * Scans whitespace separated longs until the array is full or the input
+	 * ends
+	 * 
+	 * @param dst
+	 *            - Destination array
+	 * @return The number of longs read
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static int readLongs(final long[] dst) throws IOException {
+		return Scanner.INSTANCE.readLongs(dst);
+	}
+
+	/**
+	 * Scans whitespace separated doubles until the array is full or the input
+	 * ends
+	 * 
+	 * @param dst
+	 *            - Destination array
+	 * @return The number of doubles read
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static int readDoubles(final double[] dst) throws IOException {
+		return Scanner.INSTANCE.readDoubles(dst);
+	}
+
 	/**
 	 * Read an integer from console
 	 * 
@@ -114,4 +203,11 @@ public final class KeyboardUtils {
 	public static String readString() throws IOException {
 		return buffer.readLine();
 	}
+
+	/**
+	 * Holder of the scanner, so that it is only created if used
+	 */
+	private static final class Scanner {
+		private static final ByteScanner INSTANCE = new ByteScanner(System.in);
+	}
 }
\ No newline at end of file
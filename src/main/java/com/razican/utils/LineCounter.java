@@ -0,0 +1,130 @@
+package com.razican.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join task that counts the <code>\n</code> bytes of a segment of a
+ * file. Segments bigger than {@link #SEGMENT_SIZE} are split in two halves
+ * that are counted concurrently in the common pool.
+ *
+ * @author Razican (Iban Eguia)
+ */
+class LineCounter extends RecursiveTask<Long> {
+
+	/**
+	 * Size of the segments that are mapped and counted by a single task, 16
+	 * MiB
+	 */
+	static final int SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	private static final long serialVersionUID = 1L;
+
+	private final FileChannel channel;
+	private final long start;
+	private final long end;
+	private final IoMetrics metrics;
+
+	/**
+	 * @param channel
+	 *            - Channel of the file
+	 * @param start
+	 *            - First byte of the segment
+	 * @param end
+	 *            - End of the segment, exclusive
+	 * @param metrics
+	 *            - Metrics that receive the mappings
+	 */
+	LineCounter(final FileChannel channel, final long start, final long end, final IoMetrics metrics) {
+		this.channel = channel;
+		this.start = start;
+		this.end = end;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Counts the lines of a file. A last line without terminator is counted
+	 * too.
+	 *
+	 * @param channel
+	 *            - Channel of the file
+	 * @param start
+	 *            - Offset of the first line, such as the end of a byte order
+	 *            mark
+	 * @param parallel
+	 *            - Whether to count the segments of the file concurrently
+	 * @param metrics
+	 *            - Metrics that receive the mappings
+	 * @return The number of lines
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	static long countLines(final FileChannel channel, final long start, final boolean parallel,
+			final IoMetrics metrics) throws IOException {
+		final long size = channel.size();
+		if (size <= start) {
+			return 0;
+		}
+
+		long lines;
+		if (parallel && size - start > SEGMENT_SIZE) {
+			try {
+				lines = ForkJoinPool.commonPool().invoke(new LineCounter(channel, start, size, metrics));
+			} catch (final RuntimeException e) {
+				for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+					if (cause instanceof IOException) {
+						throw (IOException) cause;
+					}
+				}
+				throw e;
+			}
+		} else {
+			lines = 0;
+			for (long position = start; position < size; position += SEGMENT_SIZE) {
+				lines += count(channel, position, Math.min(position + SEGMENT_SIZE, size), metrics);
+			}
+		}
+
+		final ByteBuffer last = ByteBuffer.allocate(1);
+		channel.read(last, size - 1);
+		if (last.get(0) != '\n') {
+			lines++;
+		}
+
+		return lines;
+	}
+
+	@Override
+	protected Long compute() {
+		try {
+			if (end - start <= SEGMENT_SIZE) {
+				return count(channel, start, end, metrics);
+			}
+
+			final long middle = start + ((end - start) >>> 1);
+			final LineCounter right = new LineCounter(channel, middle, end, metrics);
+			right.fork();
+
+			return new LineCounter(channel, start, middle, metrics).compute() + right.join();
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static long count(final FileChannel channel, final long start, final long end, final IoMetrics metrics)
+			throws IOException {
+		final MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+		segment.order(ByteOrder.LITTLE_ENDIAN);
+		metrics.mapped(end - start);
+		try {
+			return LineScanner.count(segment, 0, segment.limit());
+		} finally {
+			metrics.unmapped(end - start);
+		}
+	}
+}
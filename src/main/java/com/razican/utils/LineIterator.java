@@ -1,16 +1,47 @@
 package com.razican.utils;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 /**
+ * Iterator over the lines of a file. {@link #hasNext()} reads at most one line
+ * ahead, and lines can also be read in batches with {@link #nextBatch(String[])}
+ * and {@link #forEachBatch(int, Consumer)}.
+ * <p>
+ * The lines read, and the bytes and decoding time when lines are scanned in
+ * bytes, are reported to the metrics of {@link FileUtils#getMetrics()} every
+ * {@link #REPORT_INTERVAL} lines, at the end of the file and when the
+ * iterator is closed. An IO error while reading ahead is reported to the
+ * metrics and thrown by {@link #hasNext()} and {@link #next()} as an
+ * {@link UncheckedIOException}, so that it cannot be taken for the end of
+ * the file.
+ * 
  * @author Razican (Iban Eguia)
  */
-public class LineIterator implements Iterator<String> {
+public class LineIterator implements Iterator<String>, Closeable {
+
+	/**
+	 * Number of lines read between reports to the metrics
+	 */
+	public static final int REPORT_INTERVAL = 1024;
 
 	private final BufferedReader reader;
-	private String lastLine;
+	private final LineScanner scanner;
+	private final Charset charset;
+	private final IoMetrics metrics = FileUtils.getMetrics();
+	private final boolean timed = metrics.isTimingDecoding();
+	private String nextLine;
+	private int lines;
+	private long reportedPosition;
+	private long decodedBytes;
+	private long decodeNanos;
 
 	/**
 	 * @param reader
@@ -18,37 +49,155 @@ public class LineIterator implements Iterator<String> {
 	 */
 	public LineIterator(final BufferedReader reader) {
 		this.reader = reader;
+		this.scanner = null;
+		this.charset = null;
+	}
+
+	/**
+	 * @param scanner
+	 *            Scanner for the iterator
+	 * @param charset
+	 *            Charset used to decode the lines
+	 */
+	public LineIterator(final LineScanner scanner, final Charset charset) {
+		this.reader = null;
+		this.scanner = scanner;
+		this.charset = charset;
+		this.reportedPosition = scanner.position();
 	}
 
 	@Override
 	public boolean hasNext() {
-		try {
-			return (lastLine = reader.readLine()) != null;
-		} catch (final IOException e) {
-			e.printStackTrace();
+		if (nextLine == null) {
+			try {
+				nextLine = readLine();
+			} catch (final IOException e) {
+				metrics.error("LineIterator.hasNext", e);
+				throw new UncheckedIOException(e);
+			}
 		}
 
-		return false;
+		return nextLine != null;
 	}
 
 	@Override
 	public String next() {
-		String line = null;
-		if (lastLine != null) {
-			line = lastLine;
-		} else {
-			try {
-				line = reader.readLine();
-			} catch (final IOException e) {
-				e.printStackTrace();
-			}
+		if (!hasNext()) {
+			throw new NoSuchElementException();
 		}
-		lastLine = null;
+		final String line = nextLine;
+		nextLine = null;
 
 		return line;
 	}
 
+	/**
+	 * Gets many lines at once
+	 * 
+	 * @param dst
+	 *            - Array where the lines are stored, from the start
+	 * @return The number of lines stored, less than the length of the array
+	 *         only at the end of the file
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public int nextBatch(final String[] dst) throws IOException {
+		int count = 0;
+		if (nextLine != null && dst.length > 0) {
+			dst[count++] = nextLine;
+			nextLine = null;
+		}
+
+		String line;
+		while (count < dst.length && (line = readLine()) != null) {
+			dst[count++] = line;
+		}
+
+		return count;
+	}
+
+	/**
+	 * Performs an action for batches of the remaining lines. Each batch is a
+	 * new array, so it can be handed to other threads. All batches have the
+	 * given size, except the last one, that can be shorter.
+	 * 
+	 * @param batchSize
+	 *            - The number of lines of each batch
+	 * @param action
+	 *            - The action to perform
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public void forEachBatch(final int batchSize, final Consumer<String[]> action) throws IOException {
+		if (batchSize <= 0) {
+			throw new IllegalArgumentException("The batch size must be positive");
+		}
+
+		int count;
+		do {
+			final String[] batch = new String[batchSize];
+			count = nextBatch(batch);
+			if (count > 0) {
+				action.accept(count == batchSize ? batch : Arrays.copyOf(batch, count));
+			}
+		} while (count == batchSize);
+	}
+
 	@Override
 	public void remove() {
 	}
-}
\ No newline at end of file
+
+	@Override
+	public void close() throws IOException {
+		report();
+		if (scanner != null) {
+			scanner.close();
+		} else {
+			reader.close();
+		}
+	}
+
+	private String readLine() throws IOException {
+		final String line;
+		if (scanner == null) {
+			line = reader.readLine();
+		} else if (!scanner.nextLine()) {
+			line = null;
+		} else if (timed) {
+			final long start = System.nanoTime();
+			line = scanner.decode(charset);
+			decodeNanos += System.nanoTime() - start;
+			decodedBytes += scanner.lineLength();
+		} else {
+			line = scanner.decode(charset);
+		}
+
+		if (line == null || ++lines == REPORT_INTERVAL) {
+			report();
+		}
+
+		return line;
+	}
+
+	/**
+	 * Reports the lines read since the last report to the metrics
+	 */
+	private void report() {
+		if (lines > 0) {
+			metrics.linesRead(lines);
+			lines = 0;
+		}
+		if (scanner != null) {
+			final long position = scanner.position();
+			if (position > reportedPosition) {
+				metrics.bytesRead(position - reportedPosition);
+				reportedPosition = position;
+			}
+			if (decodedBytes > 0) {
+				metrics.decoded(decodedBytes, decodeNanos);
+				decodedBytes = 0;
+				decodeNanos = 0;
+			}
+		}
+	}
+}
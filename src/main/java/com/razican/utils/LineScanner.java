@@ -0,0 +1,467 @@
+package com.razican.utils;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Line scanner that finds line terminators directly in the bytes of a memory
+ * mapped file. Lines end with <code>\n</code> or <code>\r\n</code>. The
+ * scanner itself is a view of the current line: its offset and length can be
+ * read without decoding it, and it is only decoded to a String on request.
+ * <p>
+ * Only charsets in which the line terminators are encoded as single ASCII
+ * bytes are supported, see {@link #supports(Charset)}.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public class LineScanner implements Closeable {
+
+	/**
+	 * Default size of each mapped window, 16 MiB
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 16 * 1024 * 1024;
+
+	private static final long ONES = 0x0101010101010101L;
+	private static final long HIGHS = 0x8080808080808080L;
+	private static final long LOWS = 0x7F7F7F7F7F7F7F7FL;
+	private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+	private static final byte[] TERMINATORS = {'\r', '\n'};
+
+	private final FileInputStream stream;
+	private final FileChannel channel;
+	private final long start;
+	private final IoMetrics metrics = FileUtils.getMetrics();
+	private long end;
+	private int windowSize;
+
+	private MappedByteBuffer window;
+	private ByteBuffer copier;
+	private long windowStart;
+	private int next;
+	private int lineStart;
+	private int lineLength;
+	private byte[] scratch = new byte[128];
+	private boolean closed;
+
+	/**
+	 * Creates a scanner for the whole file
+	 *
+	 * @param file
+	 *            - The file to scan
+	 * @throws FileNotFoundException
+	 *             If the file is not found
+	 */
+	public LineScanner(final File file) throws FileNotFoundException {
+		this(file, 0, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a scanner for a byte range of a file. The range must start at
+	 * the beginning of a line and end at the end of a line.
+	 *
+	 * @param file
+	 *            - The file to scan
+	 * @param start
+	 *            - First byte of the range
+	 * @param end
+	 *            - End of the range, exclusive. If it is bigger than the size
+	 *            of the file, the file is scanned until the end.
+	 * @throws FileNotFoundException
+	 *             If the file is not found
+	 */
+	public LineScanner(final File file, final long start, final long end) throws FileNotFoundException {
+		this(new FileInputStream(file), start, end);
+	}
+
+	/**
+	 * Creates a scanner for a byte range of an open file. The range must start
+	 * at the beginning of a line and end at the end of a line. Closing the
+	 * scanner does not close the channel.
+	 *
+	 * @param channel
+	 *            - The channel of the file to scan
+	 * @param start
+	 *            - First byte of the range
+	 * @param end
+	 *            - End of the range, exclusive. If it is bigger than the size
+	 *            of the file, the file is scanned until the end.
+	 */
+	public LineScanner(final FileChannel channel, final long start, final long end) {
+		this(channel, start, end, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Creates a scanner for a byte range of an open file with a given initial
+	 * window size
+	 *
+	 * @param channel
+	 *            - The channel of the file to scan
+	 * @param start
+	 *            - First byte of the range
+	 * @param end
+	 *            - End of the range, exclusive
+	 * @param windowSize
+	 *            - Initial size of each mapped window
+	 */
+	LineScanner(final FileChannel channel, final long start, final long end, final int windowSize) {
+		if (windowSize <= 0) {
+			throw new IllegalArgumentException("The window size must be positive");
+		}
+
+		this.stream = null;
+		this.channel = channel;
+		this.start = start;
+		this.end = end;
+		this.windowSize = windowSize;
+	}
+
+	LineScanner(final FileInputStream stream, final long start, final long end) {
+		this.stream = stream;
+		this.channel = stream.getChannel();
+		this.start = start;
+		this.end = end;
+		this.windowSize = DEFAULT_WINDOW_SIZE;
+	}
+
+	/**
+	 * Checks if lines of a given charset can be scanned in raw bytes
+	 *
+	 * @param charset
+	 *            - The charset to check
+	 * @return Whether the charset encodes <code>\r</code> and <code>\n</code>
+	 *         as single ASCII bytes
+	 */
+	public static boolean supports(final Charset charset) {
+		return charset.canEncode() && Arrays.equals(TERMINATORS, "\r\n".getBytes(charset));
+	}
+
+	/**
+	 * Advances to the next line
+	 *
+	 * @return Whether there was a next line, always false once the scanner is
+	 *         closed
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public boolean nextLine() throws IOException {
+		if (closed) {
+			return false;
+		}
+		if (window == null) {
+			end = Math.min(end, channel.size());
+			map(start, 0);
+		}
+		if (windowStart + next >= end) {
+			return false;
+		}
+
+		int from = next;
+		int nl;
+		while ((nl = indexOf(window, from, window.limit())) < 0) {
+			if (windowStart + window.limit() >= end) {
+				nl = window.limit();
+				break;
+			}
+
+			from = window.limit() - next;
+			map(windowStart + next, from);
+		}
+
+		lineStart = next;
+		next = nl + 1;
+		if (nl > lineStart && window.get(nl - 1) == '\r') {
+			nl--;
+		}
+		lineLength = nl - lineStart;
+
+		return true;
+	}
+
+	/**
+	 * @return The offset of the current line in the file
+	 */
+	public long lineOffset() {
+		return windowStart + lineStart;
+	}
+
+	/**
+	 * @return The length in bytes of the current line, without the terminator
+	 */
+	public int lineLength() {
+		return lineLength;
+	}
+
+	/**
+	 * Gets a byte of the current line
+	 *
+	 * @param index
+	 *            - The index of the byte in the line
+	 * @return The byte
+	 */
+	public byte byteAt(final int index) {
+		if (index < 0 || index >= lineLength) {
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		}
+
+		return window.get(lineStart + index);
+	}
+
+	/**
+	 * Checks if the current line starts with the given bytes
+	 *
+	 * @param prefix
+	 *            - The prefix to check
+	 * @return Whether the line starts with the prefix
+	 */
+	public boolean startsWith(final byte[] prefix) {
+		if (prefix.length > lineLength) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length; i++) {
+			if (window.get(lineStart + i) != prefix[i]) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Finds a byte in the current line, such as a field separator
+	 *
+	 * @param b
+	 *            - The byte to find
+	 * @param from
+	 *            - The index in the line to start from
+	 * @return The index of the byte in the line, -1 if it is not found
+	 */
+	public int indexOf(final byte b, final int from) {
+		for (int i = Math.max(from, 0); i < lineLength; i++) {
+			if (window.get(lineStart + i) == b) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Parses an int from a range of the current line, without decoding it
+	 *
+	 * @param from
+	 *            - The index of the number in the line
+	 * @param len
+	 *            - The length of the number
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not an int
+	 * @see NumberParser#parseInt(ByteBuffer, int, int)
+	 */
+	public int parseInt(final int from, final int len) {
+		checkField(from, len);
+		return NumberParser.parseInt(window, lineStart + from, len);
+	}
+
+	/**
+	 * Parses a long from a range of the current line, without decoding it
+	 *
+	 * @param from
+	 *            - The index of the number in the line
+	 * @param len
+	 *            - The length of the number
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not a long
+	 * @see NumberParser#parseLong(ByteBuffer, int, int)
+	 */
+	public long parseLong(final int from, final int len) {
+		checkField(from, len);
+		return NumberParser.parseLong(window, lineStart + from, len);
+	}
+
+	/**
+	 * Parses a double from a range of the current line, without decoding it
+	 *
+	 * @param from
+	 *            - The index of the number in the line
+	 * @param len
+	 *            - The length of the number
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not a double
+	 * @see NumberParser#parseDouble(ByteBuffer, int, int)
+	 */
+	public double parseDouble(final int from, final int len) {
+		checkField(from, len);
+		return NumberParser.parseDouble(window, lineStart + from, len);
+	}
+
+	/**
+	 * Copies the bytes of the current line
+	 *
+	 * @param dst
+	 *            - Destination array, with at least {@link #lineLength()}
+	 *            bytes from <code>off</code>
+	 * @param off
+	 *            - Offset in the destination array
+	 * @return The number of bytes copied
+	 */
+	public int getBytes(final byte[] dst, final int off) {
+		copier.position(lineStart);
+		copier.get(dst, off, lineLength);
+
+		return lineLength;
+	}
+
+	/**
+	 * Decodes the current line
+	 *
+	 * @param charset
+	 *            - The charset of the file
+	 * @return The line as a String
+	 */
+	public String decode(final Charset charset) {
+		if (scratch.length < lineLength) {
+			scratch = new byte[Math.max(lineLength, scratch.length << 1)];
+		}
+		getBytes(scratch, 0);
+
+		return CharsetUtils.newString(scratch, 0, lineLength, charset);
+	}
+
+	@Override
+	public String toString() {
+		return decode(Charset.defaultCharset());
+	}
+
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		release();
+		if (stream != null) {
+			stream.close();
+		}
+	}
+
+	/**
+	 * Maps a new window. If the bytes kept from the previous window fill more
+	 * than half of it, the window size is doubled so that long lines fit.
+	 *
+	 * @param position
+	 *            - Position of the window in the file
+	 * @param kept
+	 *            - Number of bytes of the previous window that are mapped again
+	 * @throws IOException
+	 *             If an IO error occurs, or if a line does not fit in the
+	 *             biggest possible window
+	 */
+	private void map(final long position, final int kept) throws IOException {
+		if (kept > windowSize >> 1) {
+			if (windowSize == Integer.MAX_VALUE) {
+				throw new IOException("Line at offset " + position + " is longer than " + Integer.MAX_VALUE + " bytes");
+			}
+			windowSize = (int) Math.min((long) windowSize << 1, Integer.MAX_VALUE);
+		}
+
+		release();
+		window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, end - position));
+		window.order(ByteOrder.LITTLE_ENDIAN);
+		copier = window.duplicate();
+		metrics.mapped(window.capacity());
+		windowStart = position;
+		next = 0;
+	}
+
+	/**
+	 * @return The offset in the file of the first byte not scanned yet
+	 */
+	long position() {
+		return window == null ? start : Math.min(windowStart + next, end);
+	}
+
+	private void checkField(final int from, final int len) {
+		if (from < 0 || len < 0 || from > lineLength - len) {
+			throw new IndexOutOfBoundsException("Range [" + from + ", " + from + " + " + len
+					+ ") out of bounds for line length " + lineLength);
+		}
+	}
+
+	private void release() {
+		if (window != null) {
+			metrics.unmapped(window.capacity());
+			window = null;
+			copier = null;
+		}
+	}
+
+	/**
+	 * Finds the first <code>\n</code> byte in a range of a little endian
+	 * buffer. Eight bytes are checked at once by reading them as a long: the
+	 * bytes equal to <code>\n</code> become zero after the XOR, and the
+	 * subtraction then sets the high bit of the lowest zero byte.
+	 *
+	 * @param buf
+	 *            - Little endian buffer
+	 * @param from
+	 *            - First index to check
+	 * @param to
+	 *            - End index, exclusive
+	 * @return The index of the byte, -1 if it is not found
+	 */
+	static int indexOf(final ByteBuffer buf, final int from, final int to) {
+		int i = from;
+		for (; i + 8 <= to; i += 8) {
+			final long word = buf.getLong(i) ^ NEWLINES;
+			final long found = (word - ONES) & ~word & HIGHS;
+			if (found != 0) {
+				return i + (Long.numberOfTrailingZeros(found) >>> 3);
+			}
+		}
+		for (; i < to; i++) {
+			if (buf.get(i) == '\n') {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Counts the <code>\n</code> bytes in a range of a little endian buffer.
+	 * Unlike in {@link #indexOf(ByteBuffer, int, int)}, the zero bytes are
+	 * found without a subtraction, so that no borrow can mark the bytes after
+	 * them, and all the marks can be counted.
+	 *
+	 * @param buf
+	 *            - Little endian buffer
+	 * @param from
+	 *            - First index to check
+	 * @param to
+	 *            - End index, exclusive
+	 * @return The number of <code>\n</code> bytes
+	 */
+	static long count(final ByteBuffer buf, final int from, final int to) {
+		long count = 0;
+		int i = from;
+		for (; i + 8 <= to; i += 8) {
+			final long word = buf.getLong(i) ^ NEWLINES;
+			count += Long.bitCount(~(((word & LOWS) + LOWS) | word | LOWS));
+		}
+		for (; i < to; i++) {
+			if (buf.get(i) == '\n') {
+				count++;
+			}
+		}
+
+		return count;
+	}
+}
@@ -0,0 +1,182 @@
+package com.razican.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the lines of a byte range of a file. Ranges are split in
+ * the middle, and the split point is moved forward to the start of the next
+ * line, so that every line belongs to exactly one range.
+ * <p>
+ * The number of lines of a range is not known until it is scanned, so the
+ * spliterator is not {@link Spliterator#SIZED}, but
+ * {@link #estimateSize()} gives an estimation based on the average line
+ * length of the beginning of the file.
+ * <p>
+ * The lines and bytes of each range are reported to the metrics of
+ * {@link FileUtils#getMetrics()} once the range is finished.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public class LineSpliterator implements Spliterator<String> {
+
+	/**
+	 * Minimum size in bytes of a range that can be split
+	 */
+	public static final int MIN_SPLIT_SIZE = 64 * 1024;
+
+	private static final int SAMPLE_SIZE = 64 * 1024;
+	private static final int SEARCH_SIZE = 8 * 1024;
+
+	private final FileChannel channel;
+	private final Charset charset;
+	private long start;
+	private final long end;
+	private final double bytesPerLine;
+	private final IoMetrics metrics = FileUtils.getMetrics();
+	private LineScanner scanner;
+	private long lines;
+	private boolean finished;
+
+	/**
+	 * Creates a spliterator for all the lines of a file
+	 *
+	 * @param channel
+	 *            - Channel of the file, that must be closed by the caller once
+	 *            the spliterator is no longer used
+	 * @param charset
+	 *            - Charset of the file, see {@link LineScanner#supports(Charset)}
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public LineSpliterator(final FileChannel channel, final Charset charset) throws IOException {
+		this(channel, charset, 0);
+	}
+
+	/**
+	 * Creates a spliterator for the lines of a file from a given offset, such
+	 * as the end of a byte order mark
+	 *
+	 * @param channel
+	 *            - Channel of the file, that must be closed by the caller once
+	 *            the spliterator is no longer used
+	 * @param charset
+	 *            - Charset of the file, see {@link LineScanner#supports(Charset)}
+	 * @param start
+	 *            - Offset of the first line
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public LineSpliterator(final FileChannel channel, final Charset charset, final long start) throws IOException {
+		this(channel, charset, start, channel.size(), sampleBytesPerLine(channel));
+	}
+
+	private LineSpliterator(final FileChannel channel, final Charset charset, final long start, final long end,
+			final double bytesPerLine) {
+		this.channel = channel;
+		this.charset = charset;
+		this.start = start;
+		this.end = end;
+		this.bytesPerLine = bytesPerLine;
+	}
+
+	@Override
+	public boolean tryAdvance(final Consumer<? super String> action) {
+		if (finished) {
+			return false;
+		}
+
+		try {
+			if (scanner == null) {
+				scanner = new LineScanner(channel, start, end);
+			}
+			if (scanner.nextLine()) {
+				lines++;
+				action.accept(scanner.decode(charset));
+				return true;
+			}
+
+			metrics.linesRead(lines);
+			metrics.bytesRead(scanner.position() - start);
+			finished = true;
+			scanner.close();
+			return false;
+		} catch (final IOException e) {
+			metrics.error("lines", e);
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public Spliterator<String> trySplit() {
+		if (scanner != null || end - start < MIN_SPLIT_SIZE) {
+			return null;
+		}
+
+		try {
+			final long split = nextLineStart(start + ((end - start) >>> 1));
+			if (split >= end) {
+				return null;
+			}
+
+			final LineSpliterator prefix = new LineSpliterator(channel, charset, start, split, bytesPerLine);
+			start = split;
+
+			return prefix;
+		} catch (final IOException e) {
+			metrics.error("lines", e);
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public long estimateSize() {
+		return (long) Math.ceil((end - start) / bytesPerLine);
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | NONNULL | IMMUTABLE;
+	}
+
+	/**
+	 * Finds the start of the first line that begins at or after a position
+	 *
+	 * @param position
+	 *            - The position, bigger than the start of the range
+	 * @return The start of the line, or the end of the range if there is no
+	 *         such line
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	private long nextLineStart(final long position) throws IOException {
+		for (long from = position - 1; from < end; from += SEARCH_SIZE) {
+			final MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(SEARCH_SIZE, end - from));
+			buf.order(ByteOrder.LITTLE_ENDIAN);
+			final int nl = LineScanner.indexOf(buf, 0, buf.limit());
+			if (nl >= 0) {
+				return from + nl + 1;
+			}
+		}
+
+		return end;
+	}
+
+	private static double sampleBytesPerLine(final FileChannel channel) throws IOException {
+		final int length = (int) Math.min(SAMPLE_SIZE, channel.size());
+		if (length == 0) {
+			return 1;
+		}
+
+		final MappedByteBuffer sample = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+		sample.order(ByteOrder.LITTLE_ENDIAN);
+
+		return (double) length / Math.max(1, LineScanner.count(sample, 0, length));
+	}
+}
@@ -0,0 +1,202 @@
+package com.razican.utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Reader that decodes a file through a sequence of fixed-size memory mapped
+ * windows, so that files of any size can be read with bounded memory. If the
+ * file starts with a UTF-8 or UTF-16 byte order mark, the mark is skipped and
+ * its charset is used instead of the given one.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public class MappedFileReader extends Reader {
+
+	/**
+	 * Default size of each mapped window, 16 MiB
+	 */
+	public static final int DEFAULT_WINDOW_SIZE = 16 * 1024 * 1024;
+
+	/**
+	 * Minimum size of a window, enough to hold any multi-byte sequence
+	 */
+	public static final int MIN_WINDOW_SIZE = 16;
+
+	private static final int CHAR_BUFFER_SIZE = 8192;
+
+	private final FileInputStream stream;
+	private final FileChannel channel;
+	private final CharsetDecoder decoder;
+	private final int windowSize;
+	private final long size;
+	private final CharBuffer chars;
+	private final IoMetrics metrics = FileUtils.getMetrics();
+	private final boolean timed = metrics.isTimingDecoding();
+
+	private MappedByteBuffer window;
+	private long windowStart;
+	private boolean finished;
+
+	/**
+	 * Creates a reader for the given file using the default charset
+	 *
+	 * @param file
+	 *            - The file to read
+	 * @throws IOException
+	 *             If the file cannot be opened
+	 */
+	public MappedFileReader(final File file) throws IOException {
+		this(file, Charset.defaultCharset());
+	}
+
+	/**
+	 * Creates a reader for the given file
+	 *
+	 * @param file
+	 *            - The file to read
+	 * @param charset
+	 *            - The charset of the file
+	 * @throws IOException
+	 *             If the file cannot be opened
+	 */
+	public MappedFileReader(final File file, final Charset charset) throws IOException {
+		this(file, charset, DEFAULT_WINDOW_SIZE);
+	}
+
+	/**
+	 * Creates a reader for the given file
+	 *
+	 * @param file
+	 *            - The file to read
+	 * @param charset
+	 *            - The charset of the file
+	 * @param windowSize
+	 *            - The number of bytes to map at once, at least
+	 *            {@link #MIN_WINDOW_SIZE}
+	 * @throws IOException
+	 *             If the file cannot be opened
+	 */
+	public MappedFileReader(final File file, final Charset charset, final int windowSize) throws IOException {
+		if (windowSize < MIN_WINDOW_SIZE) {
+			throw new IllegalArgumentException("The window size must be at least " + MIN_WINDOW_SIZE + " bytes");
+		}
+
+		this.stream = new FileInputStream(file);
+		this.channel = stream.getChannel();
+		final Charset bom;
+		try {
+			bom = CharsetUtils.readBom(channel);
+		} catch (final IOException e) {
+			stream.close();
+			throw e;
+		}
+		this.decoder = (bom == null ? charset : bom).newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.windowStart = CharsetUtils.bomLength(bom);
+		this.windowSize = windowSize;
+		this.size = channel.size();
+		this.chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+		this.chars.flip();
+	}
+
+	/**
+	 * @return The size of the file in bytes
+	 */
+	public long size() {
+		return size;
+	}
+
+	@Override
+	public int read(final char[] cbuf, final int off, final int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!chars.hasRemaining() && !fill()) {
+			return -1;
+		}
+
+		final int n = Math.min(len, chars.remaining());
+		chars.get(cbuf, off, n);
+
+		return n;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!chars.hasRemaining() && !fill()) {
+			return -1;
+		}
+
+		return chars.get();
+	}
+
+	@Override
+	public boolean ready() throws IOException {
+		return chars.hasRemaining() || !finished;
+	}
+
+	@Override
+	public void close() throws IOException {
+		release();
+		stream.close();
+	}
+
+	/**
+	 * Decodes the next chunk of characters, mapping new windows as needed. A
+	 * multi-byte sequence split between two windows is left undecoded by the
+	 * decoder, and the next window is mapped starting at its first byte.
+	 *
+	 * @return Whether there are new characters available
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	private boolean fill() throws IOException {
+		chars.clear();
+		while (!finished && chars.position() == 0) {
+			if (window == null) {
+				window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(windowSize, size - windowStart));
+				metrics.mapped(window.capacity());
+			}
+
+			final boolean last = windowStart + window.limit() == size;
+			final int from = window.position();
+			final long decodeStart = timed ? System.nanoTime() : 0;
+			final CoderResult result = decoder.decode(window, chars, last);
+			if (timed) {
+				metrics.decoded(window.position() - from, System.nanoTime() - decodeStart);
+			}
+			metrics.bytesRead(window.position() - from);
+			if (result.isError()) {
+				result.throwException();
+			}
+			if (result.isUnderflow()) {
+				if (last) {
+					finished = decoder.flush(chars).isUnderflow();
+				} else {
+					windowStart += window.position();
+					release();
+				}
+			}
+		}
+		chars.flip();
+
+		return chars.hasRemaining();
+	}
+
+	private void release() {
+		if (window != null) {
+			metrics.unmapped(window.capacity());
+			window = null;
+		}
+	}
+}
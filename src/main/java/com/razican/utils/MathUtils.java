@@ -51,7 +51,7 @@ public class MathUtils {
 	 * @return String with hexadecimal representation of the byte
 	 */
 	public static String toHex(final byte b) {
-		return String.format("%02X", b);
+		return HexUtils.encode(b, true);
 	}
 
 	/**
@@ -70,4 +70,52 @@ public class MathUtils {
 			return 0;
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Encodes a signed integer with ZigZag encoding, so that numbers with a
+	 * small absolute value become small unsigned numbers: 0, -1, 1, -2...
+	 * become 0, 1, 2, 3...
+	 * 
+	 * @param n
+	 *            - The signed integer
+	 * @return The encoded integer
+	 */
+	public static int zigZagEncode(final int n) {
+		return (n << 1) ^ (n >> 31);
+	}
+
+	/**
+	 * Decodes a ZigZag encoded integer
+	 * 
+	 * @param n
+	 *            - The encoded integer
+	 * @return The signed integer
+	 */
+	public static int zigZagDecode(final int n) {
+		return (n >>> 1) ^ -(n & 1);
+	}
+
+	/**
+	 * Encodes a signed long with ZigZag encoding, so that numbers with a small
+	 * absolute value become small unsigned numbers: 0, -1, 1, -2... become 0,
+	 * 1, 2, 3...
+	 * 
+	 * @param n
+	 *            - The signed long
+	 * @return The encoded long
+	 */
+	public static long zigZagEncode(final long n) {
+		return (n << 1) ^ (n >> 63);
+	}
+
+	/**
+	 * Decodes a ZigZag encoded long
+	 * 
+	 * @param n
+	 *            - The encoded long
+	 * @return The signed long
+	 */
+	public static long zigZagDecode(final long n) {
+		return (n >>> 1) ^ -(n & 1);
+	}
+}
@@ -0,0 +1,615 @@
+package com.razican.utils;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parsing of numbers from ranges of byte arrays, byte buffers and character
+ * sequences, such as a field of a line, without allocating. Numbers must fill
+ * the whole range, without whitespace.
+ * <p>
+ * Integers have an optional sign and decimal digits, and are parsed exactly
+ * as by {@link Long#parseLong(String)}. Doubles have an optional sign, decimal
+ * digits with an optional fraction and an optional exponent, or are
+ * <code>NaN</code> or <code>Infinity</code>, and are always parsed to the same
+ * value as {@link Double#parseDouble(String)}, correctly rounded. Other
+ * syntax accepted by {@link Double#parseDouble(String)}, such as hexadecimal
+ * numbers, type suffixes or whitespace, is rejected.
+ * <p>
+ * Decimal numbers are parsed with the algorithm of Eisel and Lemire, which
+ * computes the result from the first 19 significant digits and a 128 bit
+ * approximation of the power of ten, and detects the rare cases where the
+ * approximation is not enough. Those cases are parsed by
+ * {@link Double#parseDouble(String)} from a new String.
+ * <p>
+ * The grammar is parsed from byte arrays only. Ranges of direct byte buffers
+ * and character sequences are first copied to a per thread scratch array, in
+ * a loop specialised for their type, so that the digit loops never dispatch
+ * on the type of the source.
+ *
+ * @author Razican (Iban Eguia)
+ * @see <a href="https://arxiv.org/abs/2101.11408">Number Parsing at a
+ *      Gigabyte per Second</a>
+ */
+public final class NumberParser {
+
+	private static final int MIN_EXPONENT = -342;
+	private static final int MAX_EXPONENT = 308;
+	private static final int MAX_DIGITS = 19;
+	private static final int MAX_EXPONENT_DIGITS = 100000;
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	private static final int SCRATCH_SIZE = 64;
+	private static final double[] EXACT_POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+	/**
+	 * High and low 64 bits of the normalized 128 bit approximations of the
+	 * powers of five from 5<sup>-342</sup> to 5<sup>308</sup>, which are also
+	 * those of the powers of ten
+	 */
+	private static final long[] POWERS_OF_FIVE = powersOfFive();
+
+	private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[SCRATCH_SIZE]);
+
+	private NumberParser() {
+	}
+
+	/**
+	 * Parses an int from a range of a byte array
+	 *
+	 * @param b
+	 *            - The array
+	 * @param off
+	 *            - Offset of the number
+	 * @param len
+	 *            - Length of the number
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not an int
+	 */
+	public static int parseInt(final byte[] b, final int off, final int len) {
+		checkRange(b.length, off, len);
+		return (int) parseLong(b, off, len, Integer.MIN_VALUE, Integer.MAX_VALUE, b, off);
+	}
+
+	/**
+	 * Parses a long from a range of a byte array
+	 *
+	 * @param b
+	 *            - The array
+	 * @param off
+	 *            - Offset of the number
+	 * @param len
+	 *            - Length of the number
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not a long
+	 */
+	public static long parseLong(final byte[] b, final int off, final int len) {
+		checkRange(b.length, off, len);
+		return parseLong(b, off, len, Long.MIN_VALUE, Long.MAX_VALUE, b, off);
+	}
+
+	/**
+	 * Parses an int from a range of a byte buffer, without changing its
+	 * position
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the number
+	 * @param len
+	 *            - Length of the number
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not an int
+	 */
+	public static int parseInt(final ByteBuffer buf, final int index, final int len) {
+		return (int) parseLong(buf, index, len, Integer.MIN_VALUE, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Parses a long from a range of a byte buffer, without changing its
+	 * position
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the number
+	 * @param len
+	 *            - Length of the number
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not a long
+	 */
+	public static long parseLong(final ByteBuffer buf, final int index, final int len) {
+		return parseLong(buf, index, len, Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Parses an int from a range of a character sequence
+	 *
+	 * @param s
+	 *            - The sequence
+	 * @param off
+	 *            - Offset of the number
+	 * @param len
+	 *            - Length of the number
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not an int
+	 */
+	public static int parseInt(final CharSequence s, final int off, final int len) {
+		checkRange(s.length(), off, len);
+		return (int) parseLong(copy(s, off, len), 0, len, Integer.MIN_VALUE, Integer.MAX_VALUE, s, off);
+	}
+
+	/**
+	 * Parses a long from a range of a character sequence
+	 *
+	 * @param s
+	 *            - The sequence
+	 * @param off
+	 *            - Offset of the number
+	 * @param len
+	 *            - Length of the number
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not a long
+	 */
+	public static long parseLong(final CharSequence s, final int off, final int len) {
+		checkRange(s.length(), off, len);
+		return parseLong(copy(s, off, len), 0, len, Long.MIN_VALUE, Long.MAX_VALUE, s, off);
+	}
+
+	/**
+	 * Parses a double from a range of a byte array
+	 *
+	 * @param b
+	 *            - The array
+	 * @param off
+	 *            - Offset of the number
+	 * @param len
+	 *            - Length of the number
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not a double
+	 */
+	public static double parseDouble(final byte[] b, final int off, final int len) {
+		checkRange(b.length, off, len);
+		return parseDouble(b, off, len, b, off);
+	}
+
+	/**
+	 * Parses a double from a range of a byte buffer, without changing its
+	 * position
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the number
+	 * @param len
+	 *            - Length of the number
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not a double
+	 */
+	public static double parseDouble(final ByteBuffer buf, final int index, final int len) {
+		checkRange(buf.limit(), index, len);
+		if (buf.hasArray()) {
+			return parseDouble(buf.array(), buf.arrayOffset() + index, len, buf, index);
+		}
+
+		return parseDouble(copy(buf, index, len), 0, len, buf, index);
+	}
+
+	/**
+	 * Parses a double from a range of a character sequence
+	 *
+	 * @param s
+	 *            - The sequence
+	 * @param off
+	 *            - Offset of the number
+	 * @param len
+	 *            - Length of the number
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not a double
+	 */
+	public static double parseDouble(final CharSequence s, final int off, final int len) {
+		checkRange(s.length(), off, len);
+		return parseDouble(copy(s, off, len), 0, len, s, off);
+	}
+
+	/**
+	 * Parses a double from a checked range of a byte array
+	 *
+	 * @param b
+	 *            - The array, or a copy of the source
+	 * @param off
+	 *            - Offset of the number
+	 * @param len
+	 *            - Length of the number
+	 * @param source
+	 *            - The source of the number, for the error messages
+	 * @param sourceOff
+	 *            - Offset of the number in the source
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not a double
+	 */
+	private static double parseDouble(final byte[] b, final int off, final int len, final Object source,
+			final int sourceOff) {
+		final int end = off + len;
+		int i = off;
+		final boolean negative = i < end && b[i] == '-';
+		if (negative || i < end && b[i] == '+') {
+			i++;
+		}
+		if (matches(b, i, end, "Infinity")) {
+			return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+		}
+		if (matches(b, i, end, "NaN")) {
+			return Double.NaN;
+		}
+
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean truncated = false;
+		final int start = i;
+		int c;
+		for (; i < end && (c = b[i]) >= '0' && c <= '9'; i++) {
+			final int digit = c - '0';
+			if (digits < MAX_DIGITS) {
+				mantissa = mantissa * 10 + digit;
+				digits += mantissa == 0 ? 0 : 1;
+			} else {
+				exponent++;
+				truncated |= digit != 0;
+			}
+		}
+		final int integerDigits = i - start;
+		int fractionDigits = 0;
+		if (i < end && b[i] == '.') {
+			for (i++; i < end && (c = b[i]) >= '0' && c <= '9'; i++) {
+				final int digit = c - '0';
+				fractionDigits++;
+				if (digits < MAX_DIGITS) {
+					mantissa = mantissa * 10 + digit;
+					digits += mantissa == 0 ? 0 : 1;
+					exponent--;
+				} else {
+					truncated |= digit != 0;
+				}
+			}
+		}
+		if (integerDigits + fractionDigits == 0) {
+			throw invalid(toString(source, sourceOff, len));
+		}
+
+		if (i < end && ((c = b[i]) == 'e' || c == 'E')) {
+			i++;
+			final boolean negativeExponent = i < end && b[i] == '-';
+			if (negativeExponent || i < end && b[i] == '+') {
+				i++;
+			}
+			final int exponentStart = i;
+			int value = 0;
+			for (; i < end && (c = b[i]) >= '0' && c <= '9'; i++) {
+				value = Math.min(value * 10 + c - '0', MAX_EXPONENT_DIGITS);
+			}
+			if (i == exponentStart) {
+				throw invalid(toString(source, sourceOff, len));
+			}
+			exponent += negativeExponent ? -value : value;
+		}
+		if (i != end) {
+			throw invalid(toString(source, sourceOff, len));
+		}
+
+		final double value = toDouble(negative, mantissa, exponent, truncated);
+		if (value == value) {
+			return value;
+		}
+
+		return Double.parseDouble(toString(source, sourceOff, len));
+	}
+
+	/**
+	 * Computes a double from its decimal significand and exponent
+	 *
+	 * @param negative
+	 *            - Whether the number is negative
+	 * @param mantissa
+	 *            - The first 19 significant digits, unsigned
+	 * @param exponent
+	 *            - The decimal exponent
+	 * @param truncated
+	 *            - Whether there were more significant digits
+	 * @return The number, or NaN if it must be parsed by the slow path
+	 */
+	static double toDouble(final boolean negative, final long mantissa, final int exponent, final boolean truncated) {
+		if (mantissa == 0) {
+			return negative ? -0.0 : 0.0;
+		}
+		if (!truncated && mantissa > 0 && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+			final double value = exponent < 0 ? mantissa / EXACT_POWERS_OF_TEN[-exponent] : mantissa
+					* EXACT_POWERS_OF_TEN[exponent];
+			return negative ? -value : value;
+		}
+
+		final double value = eiselLemire(negative, mantissa, exponent);
+		if (truncated && value == value && eiselLemire(negative, mantissa + 1, exponent) != value) {
+			return Double.NaN;
+		}
+
+		return value;
+	}
+
+	/**
+	 * Computes the double nearest to <code>mantissa * 10<sup>exponent</sup></code>
+	 *
+	 * @param negative
+	 *            - Whether the number is negative
+	 * @param mantissa
+	 *            - Non-zero unsigned significand
+	 * @param exponent
+	 *            - The decimal exponent
+	 * @return The number, or NaN if it cannot be computed exactly
+	 */
+	private static double eiselLemire(final boolean negative, final long mantissa, final int exponent) {
+		if (exponent < MIN_EXPONENT || exponent > MAX_EXPONENT) {
+			return Double.NaN;
+		}
+
+		final int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+		final long normalized = mantissa << leadingZeros;
+		long binaryExponent = ((217706L * exponent) >> 16) + 64 + 1023 - leadingZeros;
+
+		final int power = (exponent - MIN_EXPONENT) << 1;
+		long high = multiplyHigh(normalized, POWERS_OF_FIVE[power]);
+		long low = normalized * POWERS_OF_FIVE[power];
+
+		// If the lower bits of the product are all ones, the truncated part of
+		// the power of five could change the result, so it is added
+		if ((high & 0x1FF) == 0x1FF && Long.compareUnsigned(low + normalized, normalized) < 0) {
+			final long secondHigh = multiplyHigh(normalized, POWERS_OF_FIVE[power + 1]);
+			final long secondLow = normalized * POWERS_OF_FIVE[power + 1];
+			final long mergedLow = low + secondHigh;
+			if (Long.compareUnsigned(mergedLow, low) < 0) {
+				high++;
+			}
+			if ((high & 0x1FF) == 0x1FF && mergedLow == -1L
+					&& Long.compareUnsigned(secondLow + normalized, normalized) < 0) {
+				return Double.NaN;
+			}
+			low = mergedLow;
+		}
+
+		final long upperBit = high >>> 63;
+		long significand = high >>> (upperBit + 9);
+		binaryExponent -= 1 ^ upperBit;
+
+		// Exactly halfway between two doubles, the rounding is not known
+		if (low == 0 && (high & 0x1FF) == 0 && (significand & 3) == 1) {
+			return Double.NaN;
+		}
+
+		significand += significand & 1;
+		significand >>>= 1;
+		if (significand >>> 53 > 0) {
+			significand >>>= 1;
+			binaryExponent++;
+		}
+		if (binaryExponent <= 0 || binaryExponent >= 0x7FF) {
+			return Double.NaN;
+		}
+
+		final long bits = binaryExponent << 52 | significand & 0x000FFFFFFFFFFFFFL;
+		return Double.longBitsToDouble(negative ? bits | Long.MIN_VALUE : bits);
+	}
+
+	/**
+	 * @param x
+	 *            - Unsigned factor
+	 * @param y
+	 *            - Unsigned factor
+	 * @return The high 64 bits of the unsigned 128 bit product
+	 */
+	static long multiplyHigh(final long x, final long y) {
+		final long x0 = x & 0xFFFFFFFFL;
+		final long x1 = x >>> 32;
+		final long y0 = y & 0xFFFFFFFFL;
+		final long y1 = y >>> 32;
+
+		final long t = x1 * y0 + (x0 * y0 >>> 32);
+		final long w1 = (t & 0xFFFFFFFFL) + x0 * y1;
+
+		return x1 * y1 + (t >>> 32) + (w1 >>> 32);
+	}
+
+	/**
+	 * Computes the table of powers of five. Positive powers are truncated to
+	 * their 128 most significant bits. Negative powers are the truncated
+	 * reciprocal plus one, so that they are never below the exact value.
+	 *
+	 * @return The table
+	 */
+	private static long[] powersOfFive() {
+		final long[] table = new long[(MAX_EXPONENT - MIN_EXPONENT + 1) << 1];
+		final BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+		for (int q = MIN_EXPONENT; q <= MAX_EXPONENT; q++) {
+			final BigInteger power = BigInteger.valueOf(5).pow(Math.abs(q));
+			BigInteger value;
+			if (q >= 0) {
+				value = power.bitLength() > 128 ? power.shiftRight(power.bitLength() - 128) : power.shiftLeft(128 - power
+						.bitLength());
+			} else {
+				final int shift = q >= -27 ? power.bitLength() + 127 : 2 * power.bitLength() + 128;
+				value = BigInteger.ONE.shiftLeft(shift).divide(power).add(BigInteger.ONE);
+				if (value.bitLength() > 128) {
+					value = value.shiftRight(value.bitLength() - 128);
+				}
+			}
+
+			final int i = (q - MIN_EXPONENT) << 1;
+			table[i] = value.shiftRight(64).longValue();
+			table[i + 1] = value.and(mask).longValue();
+		}
+
+		return table;
+	}
+
+	private static long parseLong(final ByteBuffer buf, final int index, final int len, final long min, final long max) {
+		checkRange(buf.limit(), index, len);
+		if (buf.hasArray()) {
+			return parseLong(buf.array(), buf.arrayOffset() + index, len, min, max, buf, index);
+		}
+
+		return parseLong(copy(buf, index, len), 0, len, min, max, buf, index);
+	}
+
+	/**
+	 * Parses an integer in a range from a checked range of a byte array,
+	 * accumulating it as a negative number, as {@link Long#parseLong(String)}
+	 * does, so that the minimum value does not overflow
+	 *
+	 * @param b
+	 *            - The array, or a copy of the source
+	 * @param off
+	 *            - Offset of the number
+	 * @param len
+	 *            - Length of the number
+	 * @param min
+	 *            - Minimum value
+	 * @param max
+	 *            - Maximum value
+	 * @param source
+	 *            - The source of the number, for the error messages
+	 * @param sourceOff
+	 *            - Offset of the number in the source
+	 * @return The number
+	 * @throws NumberFormatException
+	 *             If the range is not an integer between the limits
+	 */
+	private static long parseLong(final byte[] b, final int off, final int len, final long min, final long max,
+			final Object source, final int sourceOff) {
+		final int end = off + len;
+		int i = off;
+		final boolean negative = i < end && b[i] == '-';
+		if (negative || i < end && b[i] == '+') {
+			i++;
+		}
+		if (i == end) {
+			throw invalid(toString(source, sourceOff, len));
+		}
+
+		final long limit = negative ? min : -max;
+		final long multiplyLimit = limit / 10;
+		long result = 0;
+		for (; i < end; i++) {
+			final int digit = b[i] - '0';
+			if (digit < 0 || digit > 9 || result < multiplyLimit || (result *= 10) < limit + digit) {
+				throw invalid(toString(source, sourceOff, len));
+			}
+			result -= digit;
+		}
+
+		return negative ? result : -result;
+	}
+
+	/**
+	 * Copies a range of a byte buffer to the scratch array of the thread
+	 *
+	 * @param buf
+	 *            - The buffer
+	 * @param index
+	 *            - Index of the range
+	 * @param len
+	 *            - Length of the range
+	 * @return The scratch array, with the range at its start
+	 */
+	private static byte[] copy(final ByteBuffer buf, final int index, final int len) {
+		final byte[] b = scratch(len);
+		for (int i = 0; i < len; i++) {
+			b[i] = buf.get(index + i);
+		}
+
+		return b;
+	}
+
+	/**
+	 * Copies a range of a character sequence to the scratch array of the
+	 * thread. Characters that are not ASCII, and so never part of a number,
+	 * are copied as <code>0xFF</code>.
+	 *
+	 * @param s
+	 *            - The sequence
+	 * @param off
+	 *            - Offset of the range
+	 * @param len
+	 *            - Length of the range
+	 * @return The scratch array, with the range at its start
+	 */
+	private static byte[] copy(final CharSequence s, final int off, final int len) {
+		final byte[] b = scratch(len);
+		for (int i = 0; i < len; i++) {
+			final char c = s.charAt(off + i);
+			b[i] = c < 0x80 ? (byte) c : (byte) 0xFF;
+		}
+
+		return b;
+	}
+
+	/**
+	 * @param len
+	 *            - The needed length
+	 * @return The scratch array of the thread, or a new array for longer
+	 *         ranges
+	 */
+	private static byte[] scratch(final int len) {
+		return len <= SCRATCH_SIZE ? SCRATCH.get() : new byte[len];
+	}
+
+	private static boolean matches(final byte[] b, final int from, final int end, final String word) {
+		if (end - from != word.length()) {
+			return false;
+		}
+		for (int i = 0; i < word.length(); i++) {
+			if (b[from + i] != word.charAt(i)) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static String toString(final Object source, final int off, final int len) {
+		if (source instanceof CharSequence) {
+			return ((CharSequence) source).subSequence(off, off + len).toString();
+		}
+		if (source instanceof byte[]) {
+			return CharsetUtils.newString((byte[]) source, off, len, StandardCharsets.ISO_8859_1);
+		}
+
+		final byte[] bytes = new byte[len];
+		for (int i = 0; i < len; i++) {
+			bytes[i] = ((ByteBuffer) source).get(off + i);
+		}
+
+		return CharsetUtils.newString(bytes, 0, len, StandardCharsets.ISO_8859_1);
+	}
+
+	private static void checkRange(final int length, final int off, final int len) {
+		if (off < 0 || len < 0 || off > length - len) {
+			throw new IndexOutOfBoundsException("Range [" + off + ", " + off + " + " + len + ") out of bounds for length "
+					+ length);
+		}
+	}
+
+	private static NumberFormatException invalid(final String s) {
+		return new NumberFormatException("For input string: \"" + s + "\"");
+	}
+}
@@ -0,0 +1,39 @@
+package com.razican.utils;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Serializer of objects to and from channels
+ *
+ * @author Razican (Iban Eguia)
+ * @see BinarySerializer
+ * @see JavaSerializer
+ */
+public interface Serializer {
+
+	/**
+	 * Serializes an object. All the data is written to the channel before
+	 * returning, and the channel is not closed.
+	 *
+	 * @param value
+	 *            - The object to serialize
+	 * @param channel
+	 *            - The channel to write to
+	 * @throws IOException
+	 *             If the object cannot be serialized or an IO error occurs
+	 */
+	void serialize(Object value, WritableByteChannel channel) throws IOException;
+
+	/**
+	 * Deserializes an object. The channel is not closed.
+	 *
+	 * @param channel
+	 *            - The channel to read from
+	 * @return The object
+	 * @throws IOException
+	 *             If the data is not valid or an IO error occurs
+	 */
+	Object deserialize(ReadableByteChannel channel) throws IOException;
+}
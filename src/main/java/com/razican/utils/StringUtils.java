@@ -1,13 +1,17 @@
 package com.razican.utils;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
-import java.nio.charset.CharsetEncoder;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 
@@ -22,51 +26,79 @@ public final class StringUtils {
 	}
 
 	/**
-	 * Converts data to an hexadecimal string
+	 * Converts a character array to a byte array
 	 *
-	 * @param data
-	 *            - Data to convert to hexadecimal
-	 * @return String in hexadecimal
+	 * @param charArray
+	 *            - Character array in ASCII
+	 * @return Byte array representing chars
 	 */
-	private static String toHex(final byte[] data) {
-		final StringBuffer buf = new StringBuffer();
-		for (final byte element : data) {
-			int halfbyte = (element >>> 4) & 0x0F;
-			int two_halfs = 0;
-			do {
-				if ((0 <= halfbyte) && (halfbyte <= 9)) {
-					buf.append((char) ('0' + halfbyte));
-				} else {
-					buf.append((char) ('a' + (halfbyte - 10)));
-				}
-				halfbyte = element & 0x0F;
-			} while (two_halfs++ < 1);
-		}
-		return buf.toString();
+	public static byte[] toByte(final char[] charArray) {
+		final byte[] byteArray = new byte[byteLength(charArray, 0, charArray.length)];
+		toByte(charArray, 0, charArray.length, byteArray, 0);
+
+		return byteArray;
 	}
 
 	/**
-	 * Converts a character array to a byte array
+	 * Converts characters to bytes, as {@link #toByte(char[])} does, in a
+	 * given byte array. Runs of characters that fit in one byte are copied in
+	 * a single pass, that only stops at the characters that need two bytes.
 	 *
-	 * @param charArray
+	 * @param src
 	 *            - Character array in ASCII
-	 * @return Byte array representing chars
+	 * @param srcOff
+	 *            - Offset of the characters
+	 * @param len
+	 *            - Number of characters to convert
+	 * @param dst
+	 *            - Destination array, with space for
+	 *            {@link #byteLength(char[], int, int)} bytes
+	 * @param dstOff
+	 *            - Offset in the destination array
+	 * @return The number of bytes written
 	 */
-	public static byte[] toByte(final char[] charArray) {
-		final byte[] byteArray = new byte[charArray.length << 1];
+	public static int toByte(final char[] src, final int srcOff, final int len, final byte[] dst, final int dstOff) {
+		final int end = srcOff + len;
+		int i = srcOff;
+		int j = dstOff;
+		while (i < end) {
+			for (; i < end; i++, j++) {
+				final char element = src[i];
+				if (element > 0xFF) {
+					break;
+				}
+				dst[j] = (byte) element;
+			}
 
-		int bpos = 0;
-		for (final char element : charArray) {
-			if ((byte) ((element & 0xFF00) >> 8) != 0) {
-				byteArray[bpos] = (byte) ((element & 0xFF00) >> 8);
-				bpos++;
+			if (i < end) {
+				final char element = src[i++];
+				dst[j++] = (byte) (element >>> 8);
+				dst[j++] = (byte) element;
 			}
+		}
+
+		return j - dstOff;
+	}
 
-			byteArray[bpos] = (byte) (element & 0x00FF);
-			bpos++;
+	/**
+	 * Gets the number of bytes that {@link #toByte(char[])} produces for some
+	 * characters
+	 *
+	 * @param src
+	 *            - Character array
+	 * @param srcOff
+	 *            - Offset of the characters
+	 * @param len
+	 *            - Number of characters
+	 * @return The number of bytes
+	 */
+	public static int byteLength(final char[] src, final int srcOff, final int len) {
+		int length = len;
+		for (int i = srcOff, end = srcOff + len; i < end; i++) {
+			length += ((src[i] >>> 8) + 0xFF) >>> 8;
 		}
 
-		return Arrays.copyOf(byteArray, bpos);
+		return length;
 	}
 
 	/**
@@ -82,24 +114,27 @@ public final class StringUtils {
 	 */
 	public static byte[] toByte(final char[] charArray, final String enc) throws CharacterCodingException {
 		final Charset charset = Charset.forName(enc);
-		final CharsetEncoder encoder = charset.newEncoder();
-
-		final CharBuffer charB = CharBuffer.wrap(charArray);
-		final ByteBuffer byteB = encoder.encode(charB);
-
-		final byte[] ba1 = new byte[byteB.limit()];
-		byteB.get(ba1);
-
-		return ba1;
+		final ByteBuffer buffer = BufferPool.getDefault().acquire(CharsetUtils.maxBytes(charArray.length, charset));
+		try {
+			final int length = CharsetUtils.encode(CharBuffer.wrap(charArray), buffer, charset);
+			final byte[] result = new byte[length];
+			buffer.flip();
+			buffer.get(result);
+			return result;
+		} finally {
+			for (int i = buffer.position() - 1; i >= 0; i--) {
+				buffer.put(i, (byte) 0);
+			}
+			BufferPool.getDefault().release(buffer);
+		}
 	}
 
 	/**
-	 * Converts a byte array to a char array
+	 * Converts a byte array to a char array, without intermediate strings.
+	 * Malformed input is replaced.
 	 *
 	 * @param byteArray
-	 *            Assert.assertEquals(StringUtils.firstToUpper("123abc"),
-	 *            "123abc"); - Byte array containing characters Shouldn't be
-	 *            used with passwords, it uses intermediate strings
+	 *            - Byte array containing characters
 	 * @param enc
 	 *            - Encoding to use
 	 * @return Character array
@@ -107,7 +142,25 @@ public final class StringUtils {
 	 *             if the encoding is not supported
 	 */
 	public static char[] toChar(final byte[] byteArray, final String enc) throws UnsupportedEncodingException {
-		return (new String(byteArray, enc)).toCharArray();
+		final Charset charset;
+		try {
+			charset = Charset.forName(enc);
+		} catch (final IllegalArgumentException e) {
+			throw new UnsupportedEncodingException(enc);
+		}
+
+		final CharBuffer buffer = BufferPool.getDefault().acquireChars(CharsetUtils.maxChars(byteArray.length, charset));
+		final CharsetDecoder decoder = CharsetUtils.getDecoder(charset).onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		try {
+			final int length = CharsetUtils.decode(ByteBuffer.wrap(byteArray), buffer, decoder);
+			return Arrays.copyOf(buffer.array(), length);
+		} catch (final CharacterCodingException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			Arrays.fill(buffer.array(), '\0');
+			BufferPool.getDefault().release(buffer);
+		}
 	}
 
 	/**
@@ -118,16 +171,7 @@ public final class StringUtils {
 	 * @return Generated Sha1 hash
 	 */
 	public static String sha1(final String str) {
-		byte[] sha1hash = new byte[40];
-		try {
-			final MessageDigest md = MessageDigest.getInstance("SHA-1");
-			md.update(str.getBytes(StandardCharsets.UTF_8));
-			sha1hash = md.digest();
-		} catch (final NoSuchAlgorithmException e) {
-			e.printStackTrace();
-		}
-
-		return toHex(sha1hash);
+		return hash(DigestUtils.SHA1, str);
 	}
 
 	/**
@@ -147,22 +191,181 @@ public final class StringUtils {
 	 * @return Generated sha1 hash
 	 */
 	public static String sha1(final char[] charArray) {
-		byte[] sha1hash = new byte[40];
+		return hash(DigestUtils.SHA1, charArray);
+	}
 
-		try {
-			final MessageDigest md = MessageDigest.getInstance("SHA-1");
+	/**
+	 * Creates the Sha256 representation of a given string
+	 *
+	 * @param str
+	 *            - Text to crypt in Sha256
+	 * @return Generated Sha256 hash
+	 */
+	public static String sha256(final String str) {
+		return hash(DigestUtils.SHA256, str);
+	}
+
+	/**
+	 * Generates the Sha256 representation of a character array
+	 *
+	 * @param charArray
+	 *            - character array to crypt in sha256
+	 * @return Generated sha256 hash
+	 */
+	public static String sha256(final char[] charArray) {
+		return hash(DigestUtils.SHA256, charArray);
+	}
+
+	/**
+	 * Creates the Sha512 representation of a given string
+	 *
+	 * @param str
+	 *            - Text to crypt in Sha512
+	 * @return Generated Sha512 hash
+	 */
+	public static String sha512(final String str) {
+		return hash(DigestUtils.SHA512, str);
+	}
+
+	/**
+	 * Generates the Sha512 representation of a character array
+	 *
+	 * @param charArray
+	 *            - character array to crypt in sha512
+	 * @return Generated sha512 hash
+	 */
+	public static String sha512(final char[] charArray) {
+		return hash(DigestUtils.SHA512, charArray);
+	}
+
+	/**
+	 * Creates the MD5 representation of a given string
+	 *
+	 * @param str
+	 *            - Text to crypt in MD5
+	 * @return Generated MD5 hash
+	 */
+	public static String md5(final String str) {
+		return hash(DigestUtils.MD5, str);
+	}
 
-			final ByteBuffer buf = StandardCharsets.UTF_8.encode(CharBuffer.wrap(charArray));
-			final byte[] utf8 = new byte[buf.limit()];
-			buf.get(utf8);
-			md.update(utf8);
+	/**
+	 * Generates the MD5 representation of a character array
+	 *
+	 * @param charArray
+	 *            - character array to crypt in MD5
+	 * @return Generated MD5 hash
+	 */
+	public static String md5(final char[] charArray) {
+		return hash(DigestUtils.MD5, charArray);
+	}
+
+	/**
+	 * Generates the hexadecimal digest of the contents of a file
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm, such as {@link DigestUtils#SHA1}
+	 * @param file
+	 *            - The file to digest
+	 * @return Generated hash
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static String hexDigest(final String algorithm, final File file) throws NoSuchAlgorithmException, IOException {
+		return HexUtils.encode(DigestUtils.digest(algorithm, file), false);
+	}
 
-			sha1hash = md.digest();
+	/**
+	 * Generates the hexadecimal digest of the contents of a file
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm, such as {@link DigestUtils#SHA1}
+	 * @param path
+	 *            - The path of the file to digest
+	 * @return Generated hash
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static String hexDigest(final String algorithm, final Path path) throws NoSuchAlgorithmException, IOException {
+		return HexUtils.encode(DigestUtils.digest(algorithm, path), false);
+	}
+
+	/**
+	 * Generates the hexadecimal digest of the remaining contents of a channel
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm, such as {@link DigestUtils#SHA1}
+	 * @param channel
+	 *            - The channel to digest
+	 * @return Generated hash
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static String hexDigest(final String algorithm, final ReadableByteChannel channel) throws NoSuchAlgorithmException,
+			IOException {
+		return HexUtils.encode(DigestUtils.digest(algorithm, channel), false);
+	}
+
+	/**
+	 * Generates the hexadecimal digest of the remaining contents of a stream
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm, such as {@link DigestUtils#SHA1}
+	 * @param stream
+	 *            - The stream to digest
+	 * @return Generated hash
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	public static String hexDigest(final String algorithm, final InputStream stream) throws NoSuchAlgorithmException,
+			IOException {
+		return HexUtils.encode(DigestUtils.digest(algorithm, stream), false);
+	}
+
+	/**
+	 * Generates the hexadecimal tree digest of a file
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm, such as {@link DigestUtils#SHA1}
+	 * @param file
+	 *            - The file to digest
+	 * @param leafSize
+	 *            - The size of the leaves in bytes, such as
+	 *            {@link DigestUtils#DEFAULT_LEAF_SIZE}
+	 * @return Generated hash
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 * @throws IOException
+	 *             If an IO error occurs
+	 * @see DigestUtils#treeDigest(String, Path, int)
+	 */
+	public static String hexTreeDigest(final String algorithm, final File file, final int leafSize)
+			throws NoSuchAlgorithmException, IOException {
+		return HexUtils.encode(DigestUtils.treeDigest(algorithm, file.toPath(), leafSize), false);
+	}
+
+	private static String hash(final String algorithm, final String str) {
+		try {
+			return HexUtils.encode(DigestUtils.digest(algorithm, str), false);
 		} catch (final NoSuchAlgorithmException e) {
-			e.printStackTrace();
+			throw new IllegalStateException(e);
 		}
+	}
 
-		return toHex(sha1hash);
+	private static String hash(final String algorithm, final char[] charArray) {
+		try {
+			return HexUtils.encode(DigestUtils.digest(algorithm, charArray), false);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
 	}
 
 	/**
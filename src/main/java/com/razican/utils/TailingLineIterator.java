@@ -0,0 +1,296 @@
+package com.razican.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iterator over the lines of a growing file, such as a log. When the end of
+ * the file is reached, it waits for changes in the directory of the file with
+ * a {@link WatchService}, instead of polling. A last line without terminator
+ * is kept until it is completed.
+ * <p>
+ * If the file is truncated, it is read again from the start. If the file is
+ * rotated, that is, the path now refers to a different file, the rest of the
+ * old file is read, including its last line even if incomplete, and then the
+ * new file is read from the start. Rotation is detected with the file key of
+ * the file, so it is only detected on platforms that have file keys.
+ * <p>
+ * {@link #hasNext()} blocks until a line is available, and only returns false
+ * once the iterator is closed, which can be done from another thread, or the
+ * thread is interrupted. {@link #nextBatch(String[], long, TimeUnit)} gets
+ * many lines at once, waiting at most a given time.
+ *
+ * @author Razican (Iban Eguia)
+ */
+public class TailingLineIterator implements Iterator<String>, Closeable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final long MAX_WAIT = 1000;
+	private static final byte LF = '\n';
+	private static final byte CR = '\r';
+
+	private final Path path;
+	private final Charset charset;
+	private final WatchService watcher;
+	private final ArrayDeque<String> pending = new ArrayDeque<>();
+	private FileChannel channel;
+	private Object fileKey;
+	private long position;
+	private ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+	private int scanned;
+	private volatile boolean closed;
+
+	/**
+	 * Creates an iterator
+	 *
+	 * @param path
+	 *            - The path of the file
+	 * @param charset
+	 *            - Charset of the file. Line feeds must be encoded as a single
+	 *            byte, as in ASCII.
+	 * @param fromEnd
+	 *            - Whether to start at the current end of the file, instead of
+	 *            at the start
+	 * @throws IOException
+	 *             If the file cannot be opened or watched
+	 */
+	public TailingLineIterator(final Path path, final Charset charset, final boolean fromEnd) throws IOException {
+		if (!LineScanner.supports(charset)) {
+			throw new IllegalArgumentException("Unsupported charset: " + charset);
+		}
+
+		this.path = path.toAbsolutePath();
+		this.charset = charset;
+		this.watcher = this.path.getFileSystem().newWatchService();
+		try {
+			AtomicFiles.directory(this.path).register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+			open();
+			if (fromEnd) {
+				position = channel.size();
+			}
+		} catch (final IOException | RuntimeException e) {
+			watcher.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the available lines, waiting for at least one if there is none
+	 *
+	 * @param dst
+	 *            - Array where the lines are stored, from the start
+	 * @param timeout
+	 *            - Maximum time to wait
+	 * @param unit
+	 *            - Unit of the timeout
+	 * @return The number of lines stored, 0 if the time elapsed, or -1 if the
+	 *         iterator is closed
+	 * @throws IOException
+	 *             If an IO error occurs
+	 * @throws InterruptedException
+	 *             If the thread is interrupted while waiting
+	 */
+	public int nextBatch(final String[] dst, final long timeout, final TimeUnit unit) throws IOException,
+			InterruptedException {
+		if (!await(unit.toNanos(timeout))) {
+			return closed ? -1 : 0;
+		}
+
+		int count = 0;
+		while (count < dst.length && (!pending.isEmpty() || read())) {
+			dst[count++] = pending.poll();
+		}
+
+		return count;
+	}
+
+	@Override
+	public boolean hasNext() {
+		try {
+			return await(Long.MAX_VALUE);
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	@Override
+	public String next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		return pending.poll();
+	}
+
+	/**
+	 * Closes the iterator, waking up any thread waiting for lines
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		try {
+			watcher.close();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Waits until a line is pending
+	 *
+	 * @param nanos
+	 *            - Maximum time to wait
+	 * @return Whether a line is pending
+	 */
+	private boolean await(final long nanos) throws IOException, InterruptedException {
+		final long deadline = System.nanoTime() + Math.min(nanos, Long.MAX_VALUE >> 1);
+		try {
+			while (!closed && pending.isEmpty() && !read()) {
+				if (rotated()) {
+					continue;
+				}
+
+				final long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return false;
+				}
+				final WatchKey key = watcher.poll(Math.min(TimeUnit.NANOSECONDS.toMillis(remaining) + 1, MAX_WAIT),
+						TimeUnit.MILLISECONDS);
+				if (key != null) {
+					key.pollEvents();
+					key.reset();
+				}
+			}
+		} catch (final ClosedWatchServiceException e) {
+			return false;
+		} catch (final IOException e) {
+			if (closed) {
+				return false;
+			}
+			throw e;
+		}
+
+		return !closed && !pending.isEmpty();
+	}
+
+	/**
+	 * Reads the file until a line is complete or the end of the file
+	 *
+	 * @return Whether new lines are pending
+	 */
+	private boolean read() throws IOException {
+		if (closed) {
+			return false;
+		}
+		if (channel.size() < position) {
+			position = 0;
+			buf.clear();
+			scanned = 0;
+		}
+
+		while (true) {
+			if (!buf.hasRemaining()) {
+				final ByteBuffer larger = ByteBuffer.allocate(buf.capacity() << 1);
+				buf.flip();
+				larger.put(buf);
+				buf = larger;
+			}
+
+			final int n = channel.read(buf, position);
+			if (n <= 0) {
+				return false;
+			}
+			position += n;
+			if (split()) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Moves the complete lines in the buffer to the pending lines, and keeps
+	 * the incomplete last line
+	 *
+	 * @return Whether any line was complete
+	 */
+	private boolean split() {
+		final byte[] array = buf.array();
+		final int end = buf.position();
+		int start = 0;
+		for (int i = scanned; i < end; i++) {
+			if (array[i] == LF) {
+				final int length = i > start && array[i - 1] == CR ? i - 1 - start : i - start;
+				pending.add(new String(array, start, length, charset));
+				start = i + 1;
+			}
+		}
+
+		System.arraycopy(array, start, array, 0, end - start);
+		buf.position(end - start);
+		scanned = end - start;
+
+		return start > 0;
+	}
+
+	/**
+	 * Checks whether the file was rotated, and if it was, finishes the old
+	 * file and opens the new one
+	 *
+	 * @return Whether the file was rotated
+	 */
+	private boolean rotated() throws IOException {
+		if (fileKey == null) {
+			return false;
+		}
+
+		final Object key;
+		try {
+			key = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+		} catch (final NoSuchFileException e) {
+			return false;
+		}
+		if (fileKey.equals(key)) {
+			return false;
+		}
+
+		while (read()) {
+			// Read the rest of the old file
+		}
+		if (buf.position() > 0) {
+			pending.add(new String(buf.array(), 0, buf.position(), charset));
+			buf.clear();
+			scanned = 0;
+		}
+
+		channel.close();
+		open();
+		return true;
+	}
+
+	private void open() throws IOException {
+		fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+		channel = FileChannel.open(path, StandardOpenOption.READ);
+		position = 0;
+	}
+}
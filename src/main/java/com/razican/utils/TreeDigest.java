@@ -0,0 +1,121 @@
+package com.razican.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join task that computes the tree digest of a range of leaves of a file,
+ * as described in {@link DigestUtils#treeDigest(String, java.nio.file.Path, int)}
+ *
+ * @author Razican (Iban Eguia)
+ */
+class TreeDigest extends RecursiveTask<byte[]> {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final byte LEAF_PREFIX = 0x00;
+	private static final byte NODE_PREFIX = 0x01;
+
+	private final String algorithm;
+	private final FileChannel channel;
+	private final long size;
+	private final int leafSize;
+	private final long from;
+	private final long to;
+
+	/**
+	 * @param algorithm
+	 *            - The name of the algorithm
+	 * @param channel
+	 *            - Channel of the file
+	 * @param size
+	 *            - Size of the file
+	 * @param leafSize
+	 *            - Size of the leaves
+	 * @param from
+	 *            - First leaf of the range
+	 * @param to
+	 *            - End leaf of the range, exclusive
+	 */
+	private TreeDigest(final String algorithm, final FileChannel channel, final long size, final int leafSize,
+			final long from, final long to) {
+		this.algorithm = algorithm;
+		this.channel = channel;
+		this.size = size;
+		this.leafSize = leafSize;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * Computes the tree digest of a file
+	 *
+	 * @param algorithm
+	 *            - The name of the algorithm
+	 * @param channel
+	 *            - Channel of the file
+	 * @param leafSize
+	 *            - Size of the leaves
+	 * @return The root digest
+	 * @throws NoSuchAlgorithmException
+	 *             If the algorithm is not available
+	 * @throws IOException
+	 *             If an IO error occurs
+	 */
+	static byte[] digest(final String algorithm, final FileChannel channel, final int leafSize)
+			throws NoSuchAlgorithmException, IOException {
+		if (leafSize <= 0) {
+			throw new IllegalArgumentException("The leaf size must be positive");
+		}
+		DigestUtils.getDigest(algorithm);
+
+		final long size = channel.size();
+		final long leaves = Math.max(1, (size + leafSize - 1) / leafSize);
+		try {
+			return ForkJoinPool.commonPool().invoke(new TreeDigest(algorithm, channel, size, leafSize, 0, leaves));
+		} catch (final RuntimeException e) {
+			for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				}
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	protected byte[] compute() {
+		try {
+			if (to - from == 1) {
+				final long start = from * leafSize;
+				final long length = Math.min(leafSize, size - start);
+
+				final MessageDigest md = DigestUtils.getDigest(algorithm);
+				md.update(LEAF_PREFIX);
+				md.update(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+				return md.digest();
+			}
+
+			final long split = from + Long.highestOneBit(to - from - 1);
+			final TreeDigest right = new TreeDigest(algorithm, channel, size, leafSize, split, to);
+			right.fork();
+			final byte[] leftDigest = new TreeDigest(algorithm, channel, size, leafSize, from, split).compute();
+			final byte[] rightDigest = right.join();
+
+			final MessageDigest md = DigestUtils.getDigest(algorithm);
+			md.update(NODE_PREFIX);
+			md.update(leftDigest);
+			md.update(rightDigest);
+			return md.digest();
+		} catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package com.razican.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AsyncFileWriterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static ByteBuffer buffer(final String s) {
+		return ByteBuffer.wrap(s.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private static ByteArrayOutputStream stream(final String s) {
+		final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		stream.write(s.getBytes(StandardCharsets.US_ASCII), 0, s.length());
+		return stream;
+	}
+
+	private static String read(final Path path) throws IOException {
+		return new String(Files.readAllBytes(path), StandardCharsets.US_ASCII);
+	}
+
+	@Test
+	public void testOrdering() throws Exception {
+
+		final Path path = folder.newFile().toPath();
+		final StringBuilder expected = new StringBuilder();
+		final List<CompletableFuture<Void>> futures = new ArrayList<>();
+		try (AsyncFileWriter writer = new AsyncFileWriter(path, AsyncFileWriter.FORCE_NEVER)) {
+			for (int i = 0; i < 2000; i++) {
+				final String record = i + ",";
+				expected.append(record);
+				futures.add(i % 3 == 0 ? writer.write(stream(record)) : writer.write(buffer(record)));
+				if (i % 500 == 0) {
+					futures.add(writer.force());
+				}
+			}
+			futures.get(futures.size() - 1).get();
+			Assert.assertEquals(expected.toString(), read(path));
+		}
+
+		for (final CompletableFuture<Void> future : futures) {
+			Assert.assertTrue(future.isDone());
+			Assert.assertFalse(future.isCompletedExceptionally());
+		}
+	}
+
+	@Test
+	public void testFlushOnClose() throws IOException {
+
+		final Path path = folder.newFile().toPath();
+		final List<CompletableFuture<Void>> futures = new ArrayList<>();
+		final AsyncFileWriter writer = new AsyncFileWriter(path, 60000);
+		for (int i = 0; i < 100; i++) {
+			futures.add(writer.write(buffer("line " + i + "\n")));
+		}
+		writer.close();
+
+		Assert.assertEquals(100, read(path).split("\n").length);
+		Assert.assertTrue(read(path).endsWith("line 99\n"));
+		for (final CompletableFuture<Void> future : futures) {
+			Assert.assertTrue(future.isDone());
+			Assert.assertFalse(future.isCompletedExceptionally());
+		}
+		writer.close();
+	}
+
+	@Test
+	public void testWriteAfterClose() throws IOException, InterruptedException {
+
+		final AsyncFileWriter writer = new AsyncFileWriter(folder.newFile().toPath(), AsyncFileWriter.FORCE_ALWAYS);
+		writer.close();
+		try {
+			writer.write(buffer("late")).get();
+			Assert.fail();
+		} catch (final ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof IOException);
+		}
+	}
+
+	@Test
+	public void testConcurrentWriters() throws Exception {
+
+		final Path path = folder.newFile().toPath();
+		final int threads = 4;
+		final int records = 1000;
+		try (AsyncFileWriter writer = new AsyncFileWriter(path, AsyncFileWriter.FORCE_ALWAYS,
+				StandardOpenOption.APPEND)) {
+			final List<Thread> producers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				final int id = t;
+				producers.add(new Thread(() -> {
+					for (int i = 0; i < records; i++) {
+						writer.write(buffer(id + ":" + i + "\n"));
+					}
+				}));
+			}
+			for (final Thread producer : producers) {
+				producer.start();
+			}
+			for (final Thread producer : producers) {
+				producer.join();
+			}
+		}
+
+		final int[] next = new int[threads];
+		for (final String line : read(path).split("\n")) {
+			final int separator = line.indexOf(':');
+			final int id = Integer.parseInt(line.substring(0, separator));
+			Assert.assertEquals(next[id]++, Integer.parseInt(line.substring(separator + 1)));
+		}
+		for (int t = 0; t < threads; t++) {
+			Assert.assertEquals(records, next[t]);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.razican.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AtomicFilesTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Before
+	public void setUp() {
+		Assume.assumeNotNull(Files.getFileAttributeView(folder.getRoot().toPath(), PosixFileAttributeView.class));
+	}
+
+	private static ByteArrayOutputStream content(final String s) {
+		final ByteArrayOutputStream content = new ByteArrayOutputStream();
+		content.write(s.getBytes(), 0, s.length());
+		return content;
+	}
+
+	@Test
+	public void testPermissionsKept() throws IOException {
+
+		for (final String permissions : new String[] {"rw-r--r--", "rwxr-x---", "rw-rw-rw-"}) {
+			final Path path = folder.newFile().toPath();
+			Files.setPosixFilePermissions(path, PosixFilePermissions.fromString(permissions));
+
+			FileUtils.saveByteArray(content("new"), path, true);
+			Assert.assertEquals("new", new String(Files.readAllBytes(path)));
+			Assert.assertEquals(permissions, PosixFilePermissions.toString(Files.getPosixFilePermissions(path)));
+		}
+	}
+
+	@Test
+	public void testNewFilePermissions() throws IOException {
+
+		final File plain = new File(folder.getRoot(), "plain");
+		FileUtils.saveByteArray(content("a"), plain, false);
+		final Path atomic = new File(folder.getRoot(), "atomic").toPath();
+		FileUtils.saveByteArray(content("a"), atomic, true);
+
+		Assert.assertEquals(Files.getPosixFilePermissions(plain.toPath()), Files.getPosixFilePermissions(atomic));
+	}
+
+	@Test
+	public void testGroupCommitterPermissions() throws Exception {
+
+		final Path path = folder.newFile().toPath();
+		Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-r-----"));
+		try (GroupCommitter committer = new GroupCommitter(0)) {
+			committer.save(path, content("new")).get();
+		}
+
+		Assert.assertEquals("rw-r-----", PosixFilePermissions.toString(Files.getPosixFilePermissions(path)));
+		Assert.assertEquals(1, folder.getRoot().list().length);
+	}
+}
@@ -0,0 +1,129 @@
+package com.razican.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.StreamCorruptedException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BinarySerializerTest {
+
+	private static Object roundTrip(final Object value) throws IOException {
+		final BinarySerializer serializer = new BinarySerializer();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.serialize(value, Channels.newChannel(out));
+		return serializer.deserialize(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+	}
+
+	@Test
+	public void testScalars() throws IOException {
+
+		Assert.assertNull(roundTrip(null));
+		Assert.assertEquals(Boolean.TRUE, roundTrip(Boolean.TRUE));
+		Assert.assertEquals(Byte.valueOf((byte) -3), roundTrip(Byte.valueOf((byte) -3)));
+		Assert.assertEquals(Short.valueOf((short) -300), roundTrip(Short.valueOf((short) -300)));
+		Assert.assertEquals(Character.valueOf('¬'), roundTrip(Character.valueOf('¬')));
+		Assert.assertEquals(Integer.valueOf(Integer.MIN_VALUE), roundTrip(Integer.valueOf(Integer.MIN_VALUE)));
+		Assert.assertEquals(Long.valueOf(Long.MAX_VALUE), roundTrip(Long.valueOf(Long.MAX_VALUE)));
+		Assert.assertEquals(Float.valueOf(1.5f), roundTrip(Float.valueOf(1.5f)));
+		Assert.assertEquals(Double.valueOf(-0.1), roundTrip(Double.valueOf(-0.1)));
+		Assert.assertEquals("", roundTrip(""));
+		Assert.assertEquals("hj6¬Ϩ", roundTrip("hj6¬Ϩ"));
+	}
+
+	@Test
+	public void testArrays() throws IOException {
+
+		final int[] ints = new int[100000];
+		final double[] doubles = new double[100000];
+		for (int i = 0; i < ints.length; i++) {
+			ints[i] = i * 31 - 7;
+			doubles[i] = i / 3.0;
+		}
+
+		Assert.assertArrayEquals(ints, (int[]) roundTrip(ints));
+		Assert.assertArrayEquals(doubles, (double[]) roundTrip(doubles), 0);
+		Assert.assertArrayEquals(new byte[] {1, -2, 3}, (byte[]) roundTrip(new byte[] {1, -2, 3}));
+		Assert.assertArrayEquals(new long[] {Long.MIN_VALUE, 0}, (long[]) roundTrip(new long[] {Long.MIN_VALUE, 0}));
+		Assert.assertArrayEquals(new char[] {'a', 'ñ'}, (char[]) roundTrip(new char[] {'a', 'ñ'}));
+		Assert.assertArrayEquals(new short[] {-1, 2}, (short[]) roundTrip(new short[] {-1, 2}));
+		Assert.assertArrayEquals(new float[] {0.5f}, (float[]) roundTrip(new float[] {0.5f}), 0);
+		Assert.assertTrue(Arrays.equals(new boolean[] {true, false}, (boolean[]) roundTrip(new boolean[] {true, false})));
+	}
+
+	@Test
+	public void testCollections() throws IOException {
+
+		final char[] big = new char[100000];
+		Arrays.fill(big, 'x');
+		final List<Object> list = new ArrayList<>();
+		list.add("abc");
+		list.add(Integer.valueOf(5));
+		list.add(null);
+		list.add(new String(big));
+		final Map<Object, Object> map = new LinkedHashMap<>();
+		map.put("list", list);
+		map.put(Long.valueOf(7), new int[0]);
+
+		@SuppressWarnings("unchecked")
+		final Map<Object, Object> result = (Map<Object, Object>) roundTrip(map);
+		Assert.assertEquals(Arrays.asList("list", Long.valueOf(7)), new ArrayList<>(result.keySet()));
+		Assert.assertEquals(list, result.get("list"));
+		Assert.assertArrayEquals(new int[0], (int[]) result.get(Long.valueOf(7)));
+	}
+
+	@Test(expected = NotSerializableException.class)
+	public void testUnsupported() throws IOException {
+
+		roundTrip(new Object());
+	}
+
+	@Test(expected = StreamCorruptedException.class)
+	public void testInvalid() throws IOException {
+
+		new BinarySerializer().deserialize(Channels.newChannel(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5})));
+	}
+
+	@Test
+	public void testCorruptedLengths() throws IOException {
+
+		for (final byte tag : new byte[] {9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19}) {
+			final byte[] input = {0x01, 0x42, 0x5A, 0x52, tag, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07,
+					0, 0, 0, 0, 0, 0, 0, 0};
+			try {
+				new BinarySerializer().deserialize(Channels.newChannel(new ByteArrayInputStream(input)));
+				Assert.fail(Byte.toString(tag));
+			} catch (final StreamCorruptedException e) {
+				// Expected
+			}
+		}
+	}
+
+	@Test
+	public void testLargeArrays() throws IOException {
+
+		final long[] longs = new long[100000];
+		final byte[] bytes = new byte[300000];
+		for (int i = 0; i < longs.length; i++) {
+			longs[i] = i * 31L;
+			bytes[i] = (byte) i;
+		}
+
+		Assert.assertArrayEquals(longs, (long[]) roundTrip(longs));
+		Assert.assertArrayEquals(bytes, (byte[]) roundTrip(bytes));
+		final StringBuilder string = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			string.append((char) ('a' + i % 26));
+		}
+		Assert.assertEquals(string.toString(), roundTrip(string.toString()));
+	}
+}
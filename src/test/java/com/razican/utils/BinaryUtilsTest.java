@@ -0,0 +1,149 @@
+package com.razican.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BinaryUtilsTest {
+
+	private static final byte[] DATA = {0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, (byte) 0xF8, (byte) 0xFF};
+
+	@Test
+	public void testGetFromArray() {
+		Assert.assertEquals((short) 0x0102, BinaryUtils.getShort(DATA, 0, ByteOrder.BIG_ENDIAN));
+		Assert.assertEquals((short) 0x0201, BinaryUtils.getShort(DATA, 0, ByteOrder.LITTLE_ENDIAN));
+		Assert.assertEquals((short) -8, BinaryUtils.getShort(DATA, 7, ByteOrder.LITTLE_ENDIAN));
+		Assert.assertEquals(0xFFF8, BinaryUtils.getUnsignedShort(DATA, 7, ByteOrder.LITTLE_ENDIAN));
+		Assert.assertEquals(0x02030405, BinaryUtils.getInt(DATA, 1, ByteOrder.BIG_ENDIAN));
+		Assert.assertEquals(0x05040302, BinaryUtils.getInt(DATA, 1, ByteOrder.LITTLE_ENDIAN));
+		Assert.assertEquals(0x0607F8FFL, BinaryUtils.getUnsignedInt(DATA, 5, ByteOrder.BIG_ENDIAN));
+		Assert.assertEquals(0xFFF80706L, BinaryUtils.getUnsignedInt(DATA, 5, ByteOrder.LITTLE_ENDIAN));
+		Assert.assertEquals(0x020304050607F8FFL, BinaryUtils.getLong(DATA, 1, ByteOrder.BIG_ENDIAN));
+		Assert.assertEquals(0xFFF8070605040302L, BinaryUtils.getLong(DATA, 1, ByteOrder.LITTLE_ENDIAN));
+	}
+
+	@Test
+	public void testArrayRoundTrip() {
+		final byte[] b = new byte[11];
+		for (final ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+			BinaryUtils.putShort(b, 3, 0xABCD, order);
+			Assert.assertEquals(0xABCD, BinaryUtils.getUnsignedShort(b, 3, order));
+			BinaryUtils.putInt(b, 3, -123456789, order);
+			Assert.assertEquals(-123456789, BinaryUtils.getInt(b, 3, order));
+			BinaryUtils.putLong(b, 3, Long.MIN_VALUE + 12345, order);
+			Assert.assertEquals(Long.MIN_VALUE + 12345, BinaryUtils.getLong(b, 3, order));
+			BinaryUtils.putFloat(b, 3, -1.5f, order);
+			Assert.assertEquals(-1.5f, BinaryUtils.getFloat(b, 3, order), 0);
+			BinaryUtils.putDouble(b, 3, Math.PI, order);
+			Assert.assertEquals(Math.PI, BinaryUtils.getDouble(b, 3, order), 0);
+		}
+	}
+
+	@Test
+	public void testBuffer() {
+		final ByteBuffer buf = ByteBuffer.wrap(DATA.clone());
+		Assert.assertEquals(0x05040302, BinaryUtils.getInt(buf, 1, ByteOrder.LITTLE_ENDIAN));
+		Assert.assertEquals(0x02030405, BinaryUtils.getInt(buf, 1, ByteOrder.BIG_ENDIAN));
+		Assert.assertEquals(0xFFF80706L, BinaryUtils.getUnsignedInt(buf, 5, ByteOrder.LITTLE_ENDIAN));
+
+		BinaryUtils.putLong(buf, 1, 0x1122334455667788L, ByteOrder.LITTLE_ENDIAN);
+		Assert.assertEquals(0x1122334455667788L, BinaryUtils.getLong(buf, 1, ByteOrder.LITTLE_ENDIAN));
+		Assert.assertEquals((byte) 0x88, buf.get(1));
+		Assert.assertEquals(ByteOrder.BIG_ENDIAN, buf.order());
+
+		BinaryUtils.putShort(buf, 0, -2, ByteOrder.BIG_ENDIAN);
+		Assert.assertEquals((short) -2, BinaryUtils.getShort(buf, 0, ByteOrder.BIG_ENDIAN));
+		BinaryUtils.putDouble(buf, 0, -0.25, ByteOrder.LITTLE_ENDIAN);
+		Assert.assertEquals(-0.25, BinaryUtils.getDouble(buf, 0, ByteOrder.LITTLE_ENDIAN), 0);
+	}
+
+	@Test
+	public void testBulk() {
+		final int[] ints = {1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE};
+		final long[] longs = {1, -1, Long.MAX_VALUE};
+		final byte[] b = new byte[40];
+
+		BinaryUtils.putInts(ints, 1, b, 2, 3, ByteOrder.LITTLE_ENDIAN);
+		Assert.assertEquals(-1, BinaryUtils.getInt(b, 2, ByteOrder.LITTLE_ENDIAN));
+		Assert.assertEquals(Integer.MAX_VALUE, BinaryUtils.getInt(b, 6, ByteOrder.LITTLE_ENDIAN));
+		final int[] readInts = new int[4];
+		BinaryUtils.getInts(b, 2, readInts, 1, 3, ByteOrder.LITTLE_ENDIAN);
+		Assert.assertArrayEquals(new int[] {0, -1, Integer.MAX_VALUE, Integer.MIN_VALUE}, readInts);
+
+		BinaryUtils.putLongs(longs, 0, b, 1, 3, ByteOrder.BIG_ENDIAN);
+		Assert.assertEquals(Long.MAX_VALUE, BinaryUtils.getLong(b, 17, ByteOrder.BIG_ENDIAN));
+		final long[] readLongs = new long[3];
+		BinaryUtils.getLongs(b, 1, readLongs, 0, 3, ByteOrder.BIG_ENDIAN);
+		Assert.assertArrayEquals(longs, readLongs);
+
+		final ByteBuffer buf = ByteBuffer.allocate(41);
+		buf.put((byte) 0);
+		BinaryUtils.putInts(ints, 0, buf, 4, ByteOrder.LITTLE_ENDIAN);
+		BinaryUtils.putLongs(longs, 0, buf, 3, ByteOrder.BIG_ENDIAN);
+		buf.flip().position(1);
+		final int[] bufInts = new int[4];
+		final long[] bufLongs = new long[3];
+		BinaryUtils.getInts(buf, bufInts, 0, 4, ByteOrder.LITTLE_ENDIAN);
+		BinaryUtils.getLongs(buf, bufLongs, 0, 3, ByteOrder.BIG_ENDIAN);
+		Assert.assertArrayEquals(ints, bufInts);
+		Assert.assertArrayEquals(longs, bufLongs);
+		Assert.assertFalse(buf.hasRemaining());
+	}
+
+	@Test
+	public void testVarInt() {
+		final ByteBuffer buf = ByteBuffer.allocate(16);
+		BinaryUtils.putVarInt(buf, 300);
+		Assert.assertEquals(2, buf.position());
+		Assert.assertEquals((byte) 0xAC, buf.get(0));
+		Assert.assertEquals((byte) 0x02, buf.get(1));
+		BinaryUtils.putVarInt(buf, -1);
+		Assert.assertEquals(7, buf.position());
+		Assert.assertEquals(2, BinaryUtils.varIntSize(300));
+		Assert.assertEquals(5, BinaryUtils.varIntSize(-1));
+		Assert.assertEquals(1, BinaryUtils.varLongSize(0));
+		Assert.assertEquals(10, BinaryUtils.varLongSize(-1));
+
+		buf.flip();
+		Assert.assertEquals(300, BinaryUtils.getVarInt(buf));
+		Assert.assertEquals(-1, BinaryUtils.getVarInt(buf));
+		Assert.assertFalse(buf.hasRemaining());
+	}
+
+	@Test
+	public void testVarLongRoundTrip() {
+		final long[] values = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, 1L << 48, (1L << 56) - 1, 1L << 56,
+				Long.MAX_VALUE, Long.MIN_VALUE, -1};
+		final ByteBuffer buf = ByteBuffer.allocate(values.length * 10);
+		BinaryUtils.putVarLongs(values, 0, buf, values.length, false);
+		buf.flip();
+
+		final long[] read = new long[values.length];
+		BinaryUtils.getVarLongs(buf, read, 0, values.length, false);
+		Assert.assertArrayEquals(values, read);
+		Assert.assertFalse(buf.hasRemaining());
+	}
+
+	@Test
+	public void testVarIntsZigZag() {
+		final int[] values = {0, -1, 1, -64, 64, Integer.MIN_VALUE, Integer.MAX_VALUE};
+		final ByteBuffer buf = ByteBuffer.allocate(values.length * 5);
+		BinaryUtils.putVarInts(values, 0, buf, values.length, true);
+		Assert.assertEquals(1 + 1 + 1 + 1 + 2 + 5 + 5, buf.position());
+		buf.flip();
+
+		final int[] read = new int[values.length];
+		BinaryUtils.getVarInts(buf, read, 0, values.length, true);
+		Assert.assertArrayEquals(values, read);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMalformedVarInt() {
+		final ByteBuffer buf = ByteBuffer.allocate(10);
+		BinaryUtils.putVarLong(buf, 1L << 40);
+		buf.flip();
+		BinaryUtils.getVarInt(buf);
+	}
+}
@@ -0,0 +1,71 @@
+package com.razican.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BufferPoolTest {
+
+	@Test
+	public void testReuse() {
+
+		final BufferPool pool = new BufferPool();
+
+		final ByteBuffer first = pool.acquire(5000);
+		Assert.assertTrue(first.isDirect());
+		Assert.assertEquals(8192, first.capacity());
+		Assert.assertEquals(5000, first.limit());
+		pool.release(first);
+
+		final ByteBuffer second = pool.acquire(8000);
+		Assert.assertSame(first, second);
+		Assert.assertEquals(8000, second.limit());
+		Assert.assertEquals(0, second.position());
+		pool.release(second);
+
+		final CharBuffer chars = pool.acquireChars(1);
+		Assert.assertEquals(BufferPool.MIN_CLASS_SIZE, chars.capacity());
+		pool.release(chars);
+		Assert.assertSame(chars, pool.acquireChars(BufferPool.MIN_CLASS_SIZE));
+
+		final ByteBuffer big = pool.acquire(BufferPool.MAX_CLASS_SIZE + 1);
+		Assert.assertEquals(BufferPool.MAX_CLASS_SIZE + 1, big.capacity());
+		pool.release(big);
+		Assert.assertNotSame(big, pool.acquire(BufferPool.MAX_CLASS_SIZE + 1));
+	}
+
+	@Test
+	public void testMetrics() {
+
+		final BufferPool pool = new BufferPool();
+
+		final ByteBuffer bytes = pool.acquire(100);
+		final CharBuffer chars = pool.acquireChars(100);
+		Assert.assertEquals(2, pool.getOutstanding());
+		Assert.assertEquals(3 * BufferPool.MIN_CLASS_SIZE, pool.getOutstandingBytes());
+
+		pool.release(bytes);
+		pool.release(chars);
+		pool.release(pool.acquire(100));
+		Assert.assertEquals(0, pool.getOutstanding());
+		Assert.assertEquals(0, pool.getOutstandingBytes());
+		Assert.assertEquals(3, pool.getAcquired());
+		Assert.assertEquals(2, pool.getAllocated());
+	}
+
+	@Test
+	public void testLeakDetection() {
+
+		final BufferPool pool = new BufferPool();
+		pool.setLeakDetection(true);
+
+		final ByteBuffer leaked = pool.acquire(100);
+		pool.release(pool.acquire(100));
+		Assert.assertEquals(1, pool.getLeaks().size());
+
+		pool.release(leaked);
+		Assert.assertTrue(pool.getLeaks().isEmpty());
+	}
+}
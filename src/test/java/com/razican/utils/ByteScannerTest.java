@@ -0,0 +1,168 @@
+package com.razican.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ByteScannerTest {
+
+	private static ByteScanner scanner(final String input, final int bufferSize) {
+		return new ByteScanner(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII)), bufferSize);
+	}
+
+	@Test
+	public void testIntegers() throws IOException {
+
+		final ByteScanner scanner = scanner("  12 -7\n+3\t\r\n2147483647 -2147483648 -9223372036854775808 "
+				+ "9223372036854775807 word\n", 3);
+		Assert.assertEquals(12, scanner.nextInt());
+		Assert.assertEquals(-7, scanner.nextInt());
+		Assert.assertEquals(3, scanner.nextInt());
+		Assert.assertEquals(Integer.MAX_VALUE, scanner.nextInt());
+		Assert.assertEquals(Integer.MIN_VALUE, scanner.nextInt());
+		Assert.assertEquals(Long.MIN_VALUE, scanner.nextLong());
+		Assert.assertEquals(Long.MAX_VALUE, scanner.nextLong());
+		Assert.assertTrue(scanner.hasNext());
+		Assert.assertEquals("word", scanner.next());
+		Assert.assertFalse(scanner.hasNext());
+
+		try {
+			scanner.nextInt();
+			Assert.fail();
+		} catch (final EOFException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testInvalidIntegers() throws IOException {
+
+		for (final String input : new String[] {"2147483648", "-2147483649", "12a", "-", "a"}) {
+			try {
+				scanner(input, 4).nextInt();
+				Assert.fail(input);
+			} catch (final NumberFormatException e) {
+				// Expected
+			}
+		}
+		try {
+			scanner("9223372036854775808", 4).nextLong();
+			Assert.fail();
+		} catch (final NumberFormatException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testNonAsciiBytes() throws IOException {
+
+		final ByteScanner ints = new ByteScanner(new ByteArrayInputStream(new byte[] {'1', '2', ' ', (byte) 0xFF, ' ',
+				'3', '4'}), 4);
+		try {
+			ints.readInts(new int[3]);
+			Assert.fail();
+		} catch (final NumberFormatException e) {
+			// Expected
+		}
+
+		final ByteScanner longs = new ByteScanner(new ByteArrayInputStream(new byte[] {'1', '2', (byte) 0xFF, '3',
+				'4'}), 4);
+		try {
+			longs.nextLong();
+			Assert.fail();
+		} catch (final NumberFormatException e) {
+			// Expected
+		}
+
+		final ByteScanner tokens = new ByteScanner(new ByteArrayInputStream(new byte[] {'a', (byte) 0xE9, ' ', 'b'}),
+				2);
+		Assert.assertEquals("a\u00E9", tokens.next());
+		Assert.assertEquals("b", tokens.next());
+		Assert.assertFalse(tokens.hasNext());
+	}
+
+	@Test
+	public void testBulk() throws IOException {
+
+		final ByteScanner scanner = scanner("1 2 3 4 5\n6 7", 5);
+		final int[] ints = new int[5];
+		Assert.assertEquals(5, scanner.readInts(ints));
+		Assert.assertArrayEquals(new int[] {1, 2, 3, 4, 5}, ints);
+		Assert.assertEquals(2, scanner.readInts(ints, 1, 4));
+		Assert.assertArrayEquals(new int[] {1, 6, 7, 4, 5}, ints);
+		Assert.assertEquals(0, scanner.readInts(ints));
+
+		final long[] longs = new long[3];
+		Assert.assertEquals(2, scanner("-1 10000000000", 5).readLongs(longs));
+		Assert.assertArrayEquals(new long[] {-1, 10000000000L, 0}, longs);
+
+		final double[] doubles = new double[2];
+		Assert.assertEquals(2, scanner("0.5 -1e3", 5).readDoubles(doubles));
+		Assert.assertArrayEquals(new double[] {0.5, -1000}, doubles, 0);
+	}
+
+	@Test
+	public void testDoubles() throws IOException {
+
+		final String[] inputs = {"0", "-0", "0.0", "1", "-1.5", "+2.25", ".5", "5.", "3.14159", "1e10", "1E-5",
+				"123456789012345678", "1234567890123456789012", "0.1", "0.000001234", "9007199254740993",
+				"1e22", "1e23", "4.9e-324", "1.7976931348623157e308", "1e400", "1e-400", "NaN", "-Infinity",
+				"00012.50", "2.2250738585072014E-308"};
+		final StringBuilder input = new StringBuilder();
+		for (final String s : inputs) {
+			input.append(s).append(' ');
+		}
+
+		final ByteScanner scanner = scanner(input.toString(), 7);
+		for (final String s : inputs) {
+			Assert.assertEquals(s, Double.doubleToRawLongBits(Double.parseDouble(s)),
+					Double.doubleToRawLongBits(scanner.nextDouble()));
+		}
+		Assert.assertFalse(scanner.hasNext());
+
+		for (final String s : new String[] {"1e", "1.2.3", "-", ".", "e5", "1x", "1.5d", "0x1p3"}) {
+			try {
+				scanner(s, 4).nextDouble();
+				Assert.fail(s);
+			} catch (final NumberFormatException e) {
+				// Expected
+			}
+		}
+	}
+
+	@Test
+	public void testRandomDoubles() throws IOException {
+
+		final Random random = new Random(42);
+		final double[] expected = new double[10000];
+		final StringBuilder input = new StringBuilder();
+		for (int i = 0; i < expected.length; i++) {
+			final String s;
+			switch (i % 3) {
+			case 0:
+				s = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+				break;
+			case 1:
+				s = (random.nextInt(2000000) - 1000000) + "." + random.nextInt(1000);
+				break;
+			default:
+				s = Double.toString(Double.longBitsToDouble(random.nextLong()));
+				break;
+			}
+			expected[i] = Double.parseDouble(s);
+			input.append(s).append('\n');
+		}
+
+		final double[] actual = new double[expected.length];
+		Assert.assertEquals(expected.length, scanner(input.toString(), ByteScanner.DEFAULT_BUFFER_SIZE).readDoubles(
+				actual));
+		for (int i = 0; i < expected.length; i++) {
+			Assert.assertEquals(Double.doubleToRawLongBits(expected[i]), Double.doubleToRawLongBits(actual[i]));
+		}
+	}
+}
@@ -0,0 +1,230 @@
+package com.razican.utils;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CharsetUtilsTest {
+
+	private static final String TEXT = "a\u00e9\u20ac\ud83d\ude00z";
+	private static final Charset[] CHARSETS = {StandardCharsets.UTF_8, StandardCharsets.UTF_16LE,
+			StandardCharsets.UTF_16BE, StandardCharsets.UTF_16, Charset.forName("UTF-32")};
+
+	/**
+	 * Runs a task in a new thread, so that it starts with an empty thread
+	 * cache of the buffer pool
+	 */
+	private static void inNewThread(final Runnable task) throws InterruptedException {
+		final AtomicReference<Throwable> error = new AtomicReference<>();
+		final Thread thread = new Thread(() -> {
+			try {
+				task.run();
+			} catch (final Throwable e) {
+				error.set(e);
+			}
+		});
+		thread.start();
+		thread.join();
+		if (error.get() != null) {
+			throw new AssertionError(error.get());
+		}
+	}
+
+	@Test
+	public void testDetectBom() {
+
+		Assert.assertEquals(StandardCharsets.UTF_8, CharsetUtils.detectBom(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, 3));
+		Assert.assertEquals(StandardCharsets.UTF_16BE, CharsetUtils.detectBom(new byte[] {(byte) 0xFE, (byte) 0xFF, 0}, 3));
+		Assert.assertEquals(StandardCharsets.UTF_16LE, CharsetUtils.detectBom(new byte[] {(byte) 0xFF, (byte) 0xFE}, 2));
+		Assert.assertNull(CharsetUtils.detectBom(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, 2));
+		Assert.assertNull(CharsetUtils.detectBom(new byte[] {'a', 'b', 'c'}, 3));
+
+		Assert.assertEquals(3, CharsetUtils.bomLength(StandardCharsets.UTF_8));
+		Assert.assertEquals(2, CharsetUtils.bomLength(StandardCharsets.UTF_16LE));
+		Assert.assertEquals(0, CharsetUtils.bomLength(null));
+	}
+
+	@Test
+	public void testNewString() {
+
+		final byte[] ascii = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+		final byte[] utf8 = "0123456789abcdéf".getBytes(StandardCharsets.UTF_8);
+
+		Assert.assertTrue(CharsetUtils.isAscii(ascii, 0, ascii.length));
+		Assert.assertFalse(CharsetUtils.isAscii(utf8, 0, utf8.length));
+		Assert.assertTrue(CharsetUtils.isAscii(utf8, 0, 14));
+		Assert.assertEquals("3456789abc", CharsetUtils.newString(ascii, 3, 10, StandardCharsets.UTF_8));
+		Assert.assertEquals("0123456789abcdéf", CharsetUtils.newString(utf8, 0, utf8.length, StandardCharsets.UTF_8));
+		Assert.assertEquals("é", CharsetUtils.newString(new byte[] {(byte) 0xE9}, 0, 1, StandardCharsets.ISO_8859_1));
+	}
+
+	@Test
+	public void testRoundTripAtOffsets() throws CharacterCodingException {
+
+		final char[] src = ("xx" + TEXT + "yy").toCharArray();
+		for (final Charset charset : CHARSETS) {
+			final byte[] expected = TEXT.getBytes(charset);
+			final byte[] bytes = new byte[5 + CharsetUtils.maxBytes(TEXT.length(), charset)];
+			Arrays.fill(bytes, (byte) 0x55);
+
+			final int written = CharsetUtils.encode(src, 2, TEXT.length(), bytes, 5, charset);
+			Assert.assertEquals(charset.name(), expected.length, written);
+			Assert.assertArrayEquals(charset.name(), expected, Arrays.copyOfRange(bytes, 5, 5 + written));
+			for (int i = 0; i < 5; i++) {
+				Assert.assertEquals(0x55, bytes[i]);
+			}
+
+			final char[] chars = new char[3 + CharsetUtils.maxChars(written, charset)];
+			final int read = CharsetUtils.decode(bytes, 5, written, chars, 3, charset);
+			Assert.assertEquals(charset.name(), TEXT, new String(chars, 3, read));
+			Assert.assertEquals(0, chars[0]);
+		}
+
+		final CharBuffer in = CharBuffer.wrap(src, 2, TEXT.length());
+		final ByteBuffer out = ByteBuffer.allocate(64);
+		out.position(7);
+		Assert.assertEquals(TEXT.getBytes(StandardCharsets.UTF_8).length, CharsetUtils.encode(in, out,
+				StandardCharsets.UTF_8));
+		Assert.assertFalse(in.hasRemaining());
+		Assert.assertEquals(7 + TEXT.getBytes(StandardCharsets.UTF_8).length, out.position());
+	}
+
+	@Test
+	public void testAllEnds() throws CharacterCodingException {
+
+		final char[][] src = {"ab".toCharArray(), new char[0], TEXT.toCharArray(), "\u00f1".toCharArray()};
+		final byte[] bytes = new byte[100];
+		final int[] ends = new int[src.length];
+		final int written = CharsetUtils.encodeAll(src, bytes, 4, ends, StandardCharsets.UTF_8);
+
+		final int textLength = TEXT.getBytes(StandardCharsets.UTF_8).length;
+		Assert.assertArrayEquals(new int[] {6, 6, 6 + textLength, 8 + textLength}, ends);
+		Assert.assertEquals(4 + textLength, written);
+		Assert.assertEquals("ab" + TEXT + "\u00f1", new String(bytes, 4, written, StandardCharsets.UTF_8));
+
+		final byte[][] encoded = new byte[src.length][];
+		int start = 4;
+		for (int i = 0; i < src.length; i++) {
+			encoded[i] = Arrays.copyOfRange(bytes, start, ends[i]);
+			start = ends[i];
+		}
+		final char[] chars = new char[100];
+		final int[] charEnds = new int[src.length];
+		final int read = CharsetUtils.decodeAll(encoded, chars, 1, charEnds, StandardCharsets.UTF_8);
+		Assert.assertArrayEquals(new int[] {3, 3, 3 + TEXT.length(), 4 + TEXT.length()}, charEnds);
+		Assert.assertEquals("ab" + TEXT + "\u00f1", new String(chars, 1, read));
+
+		Assert.assertEquals(0, CharsetUtils.encodeAll(new char[][] {}, bytes, 0, new int[0], StandardCharsets.UTF_8));
+		Assert.assertEquals(0, CharsetUtils.decodeAll(new byte[][] {new byte[0]}, chars, 2, charEnds,
+				StandardCharsets.UTF_8));
+		Assert.assertEquals(2, charEnds[0]);
+	}
+
+	@Test
+	public void testOverflow() throws CharacterCodingException {
+
+		final char[] src = TEXT.toCharArray();
+		final int length = TEXT.getBytes(StandardCharsets.UTF_8).length;
+		try {
+			CharsetUtils.encode(src, 0, src.length, new byte[length + 1], 2, StandardCharsets.UTF_8);
+			Assert.fail();
+		} catch (final BufferOverflowException e) {
+			// Expected
+		}
+		try {
+			CharsetUtils.decode(TEXT.getBytes(StandardCharsets.UTF_8), 0, length, new char[src.length], 1,
+					StandardCharsets.UTF_8);
+			Assert.fail();
+		} catch (final BufferOverflowException e) {
+			// Expected
+		}
+		try {
+			CharsetUtils.encodeAll(new char[][] {src, src}, new byte[2 * length - 1], 0, new int[2],
+					StandardCharsets.UTF_8);
+			Assert.fail();
+		} catch (final BufferOverflowException e) {
+			// Expected
+		}
+
+		// The exact size fits
+		Assert.assertEquals(length, CharsetUtils.encode(src, 0, src.length, new byte[length + 2], 2,
+				StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testScratchWiped() throws InterruptedException {
+
+		inNewThread(() -> {
+			final char[][] secrets = {"hunter2".toCharArray(), "s3cr\u00e9t".toCharArray()};
+			try {
+				CharsetUtils.encodeAll(secrets, new byte[64], 0, new int[2], StandardCharsets.UTF_8);
+				CharsetUtils.encodeAll(secrets, new byte[64], 0, new int[2], StandardCharsets.US_ASCII);
+				Assert.fail();
+			} catch (final CharacterCodingException e) {
+				// The second secret is not ASCII
+			}
+
+			final CharBuffer chars = BufferPool.getDefault().acquireChars(BufferPool.MIN_CLASS_SIZE);
+			for (int i = 0; i < chars.limit(); i++) {
+				Assert.assertEquals(0, chars.get(i));
+			}
+			BufferPool.getDefault().release(chars);
+
+			final byte[][] encoded = {"hunter2".getBytes(StandardCharsets.UTF_8), {'o', 'k', (byte) 0xFF}};
+			try {
+				CharsetUtils.decodeAll(encoded, new char[64], 0, new int[2], StandardCharsets.UTF_8);
+				Assert.fail();
+			} catch (final CharacterCodingException e) {
+				// The second array is malformed
+			}
+
+			final ByteBuffer bytes = BufferPool.getDefault().acquire(BufferPool.MIN_CLASS_SIZE);
+			for (int i = 0; i < bytes.limit(); i++) {
+				Assert.assertEquals(0, bytes.get(i));
+			}
+			BufferPool.getDefault().release(bytes);
+		});
+	}
+
+	@Test
+	public void testCoderReuse() throws CharacterCodingException, InterruptedException {
+
+		final CharsetEncoder utf8 = CharsetUtils.getEncoder(StandardCharsets.UTF_8);
+		final CharsetDecoder utf16 = CharsetUtils.getDecoder(StandardCharsets.UTF_16);
+		Assert.assertNotSame(utf8, CharsetUtils.getEncoder(StandardCharsets.ISO_8859_1));
+		Assert.assertSame(utf8, CharsetUtils.getEncoder(StandardCharsets.UTF_8));
+		Assert.assertSame(utf16, CharsetUtils.getDecoder(StandardCharsets.UTF_16));
+
+		final AtomicReference<CharsetEncoder> other = new AtomicReference<>();
+		inNewThread(() -> other.set(CharsetUtils.getEncoder(StandardCharsets.UTF_8)));
+		Assert.assertNotSame(utf8, other.get());
+
+		// A failure leaves no state behind for the next use of the coder
+		final byte[] bytes = new byte[64];
+		final char[] chars = new char[64];
+		try {
+			CharsetUtils.decode(new byte[] {'a', (byte) 0xE2, (byte) 0x82}, 0, 3, chars, 0, StandardCharsets.UTF_8);
+			Assert.fail();
+		} catch (final CharacterCodingException e) {
+			// Truncated sequence
+		}
+		for (int round = 0; round < 3; round++) {
+			for (final Charset charset : CHARSETS) {
+				final int written = CharsetUtils.encode(TEXT.toCharArray(), 0, TEXT.length(), bytes, 0, charset);
+				Assert.assertArrayEquals(charset.name(), TEXT.getBytes(charset), Arrays.copyOf(bytes, written));
+				Assert.assertEquals(charset.name(), TEXT, new String(chars, 0, CharsetUtils.decode(bytes, 0,
+						written, chars, 0, charset)));
+			}
+		}
+	}
+}
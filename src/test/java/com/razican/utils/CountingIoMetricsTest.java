@@ -0,0 +1,195 @@
+package com.razican.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CountingIoMetricsTest {
+
+	private static final String CONTENT = "first\r\nsecond\nthird";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final CountingIoMetrics metrics = new CountingIoMetrics();
+	private File file;
+
+	@Before
+	public void setUp() throws IOException {
+		FileUtils.setMetrics(metrics);
+		file = folder.newFile("lines.txt");
+		Files.write(file.toPath(), CONTENT.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@After
+	public void tearDown() {
+		FileUtils.setMetrics(null);
+	}
+
+	@Test
+	public void testLineIterator() throws IOException {
+
+		try (LineIterator it = FileUtils.getLineIterator(file, StandardCharsets.UTF_8)) {
+			while (it.hasNext()) {
+				it.next();
+			}
+		}
+
+		Assert.assertEquals(3, metrics.getLinesRead());
+		Assert.assertEquals(CONTENT.length(), metrics.getBytesRead());
+		Assert.assertEquals(16, metrics.getDecodedBytes());
+		Assert.assertEquals(metrics.getMaps(), metrics.getUnmaps());
+		Assert.assertEquals(0, metrics.getMappedBytes());
+	}
+
+	@Test
+	public void testLinesAndToString() throws IOException {
+
+		try (Stream<String> lines = FileUtils.lines(file, StandardCharsets.UTF_8, false)) {
+			Assert.assertEquals(3, lines.count());
+		}
+		Assert.assertEquals(3, metrics.getLinesRead());
+		Assert.assertEquals(CONTENT.length(), metrics.getBytesRead());
+
+		metrics.reset();
+		Assert.assertEquals(CONTENT, FileUtils.toString(file, StandardCharsets.UTF_8));
+		Assert.assertEquals(CONTENT.length(), metrics.getBytesRead());
+		Assert.assertEquals(CONTENT.length(), metrics.getDecodedBytes());
+
+		metrics.reset();
+		Assert.assertEquals(3, FileUtils.getLines(file, StandardCharsets.UTF_8, false));
+		Assert.assertEquals(3, metrics.getLinesRead());
+		Assert.assertEquals(CONTENT.length(), metrics.getBytesRead());
+		Assert.assertEquals(1, metrics.getMaps());
+		Assert.assertEquals(1, metrics.getUnmaps());
+
+		// Charsets that cannot be scanned in bytes are read with a reader
+		metrics.reset();
+		Files.write(file.toPath(), CONTENT.getBytes(StandardCharsets.UTF_16LE));
+		Assert.assertEquals(3, FileUtils.getLines(file, StandardCharsets.UTF_16LE, false));
+		Assert.assertEquals(3, metrics.getLinesRead());
+		Assert.assertEquals(2 * CONTENT.length(), metrics.getBytesRead());
+		Assert.assertEquals(0, metrics.getMaps());
+	}
+
+	@Test
+	public void testReader() throws IOException {
+
+		try (Reader reader = FileUtils.getReader(file, StandardCharsets.UTF_8)) {
+			while (reader.read() != -1) {
+				;
+			}
+			Assert.assertEquals(1, metrics.getMaps());
+		}
+
+		Assert.assertEquals(CONTENT.length(), metrics.getBytesRead());
+		Assert.assertEquals(CONTENT.length(), metrics.getDecodedBytes());
+		Assert.assertEquals(1, metrics.getUnmaps());
+	}
+
+	@Test
+	public void testErrors() throws IOException {
+
+		final File missing = new File(folder.getRoot(), "missing.txt");
+		Assert.assertEquals(-1, FileUtils.getLines(missing));
+		Assert.assertEquals(0, metrics.getErrors());
+
+		try {
+			FileUtils.getLineIterator(missing);
+			Assert.fail();
+		} catch (final IOException e) {
+			Assert.assertEquals(1, metrics.getErrors());
+			Assert.assertSame(e, metrics.getLastError());
+		}
+
+		metrics.reset();
+		Assert.assertEquals(0, metrics.getErrors());
+		Assert.assertNull(metrics.getLastError());
+	}
+
+	@Test
+	public void testWrites() throws IOException, InterruptedException, ExecutionException {
+
+		final ByteArrayOutputStream content = new ByteArrayOutputStream();
+		content.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+
+		FileUtils.saveByteArray(content, file);
+		Assert.assertEquals(CONTENT.length(), metrics.getBytesWritten());
+		FileUtils.saveByteArray(content, file, false);
+		Assert.assertEquals(2 * CONTENT.length(), metrics.getBytesWritten());
+		FileUtils.saveByteArray(content, file, true);
+		Assert.assertEquals(3 * CONTENT.length(), metrics.getBytesWritten());
+
+		metrics.reset();
+		FileUtils.saveObject(CONTENT, file, new BinarySerializer(), true);
+		Assert.assertEquals(file.length(), metrics.getBytesWritten());
+
+		metrics.reset();
+		try (GroupCommitter committer = new GroupCommitter(0)) {
+			committer.save(file.toPath(), ByteBuffer.wrap(content.toByteArray())).get();
+		}
+		Assert.assertEquals(CONTENT.length(), metrics.getBytesWritten());
+
+		metrics.reset();
+		try (AsyncFileWriter writer = new AsyncFileWriter(file.toPath(), AsyncFileWriter.FORCE_NEVER)) {
+			writer.write(content);
+			writer.write(ByteBuffer.wrap(content.toByteArray())).get();
+		}
+		Assert.assertEquals(2 * CONTENT.length(), metrics.getBytesWritten());
+		Assert.assertEquals(0, metrics.getErrors());
+
+		final Path missing = new File(folder.getRoot(), "missing/file").toPath();
+		try {
+			FileUtils.saveByteArray(content, missing, true);
+			Assert.fail();
+		} catch (final IOException e) {
+			Assert.assertEquals(1, metrics.getErrors());
+			Assert.assertSame(e, metrics.getLastError());
+		}
+		try (GroupCommitter committer = new GroupCommitter(0)) {
+			committer.save(missing, ByteBuffer.wrap(content.toByteArray())).get();
+			Assert.fail();
+		} catch (final ExecutionException e) {
+			Assert.assertEquals(2, metrics.getErrors());
+			Assert.assertSame(e.getCause(), metrics.getLastError());
+		}
+		Assert.assertEquals(2 * CONTENT.length(), metrics.getBytesWritten());
+	}
+
+	@Test
+	public void testHistogram() {
+
+		Assert.assertEquals(0, metrics.getDecodePercentile(50));
+
+		metrics.decoded(10, 0);
+		metrics.decoded(10, 1);
+		metrics.decoded(10, 1000);
+		metrics.decoded(10, 1023);
+
+		final long[] histogram = metrics.getDecodeHistogram();
+		Assert.assertEquals(CountingIoMetrics.BUCKETS, histogram.length);
+		Assert.assertEquals(1, histogram[0]);
+		Assert.assertEquals(1, histogram[1]);
+		Assert.assertEquals(2, histogram[10]);
+		Assert.assertEquals(2024, metrics.getDecodeNanos());
+
+		Assert.assertEquals(0, metrics.getDecodePercentile(0));
+		Assert.assertEquals(1, metrics.getDecodePercentile(50));
+		Assert.assertEquals(1023, metrics.getDecodePercentile(75));
+		Assert.assertEquals(1023, metrics.getDecodePercentile(100));
+	}
+}
@@ -0,0 +1,170 @@
+package com.razican.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DigestUtilsTest {
+
+	/**
+	 * Leaves and roots of the RFC 6962 test vectors, for the trees made of the
+	 * first <code>n</code> leaves
+	 */
+	private static final String[] LEAVES = {"", "00", "10", "2021", "3031", "40414243", "5051525354555657",
+			"606162636465666768696a6b6c6d6e6f"};
+	private static final String[] ROOTS = {"e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+			"6e340b9cffb37a989ca544e6bb780a2c78901d3fb33738768511a30617afa01d",
+			"fac54203e7cc696cf0dfcb42c92a1d9dbaf70ad9e621f4bd8d98662f00e3c125",
+			"aeb6bcfe274b70a14fb067a5e5578264db0fa9b51af5e0ba159158f329e06e77",
+			"d37ee418976dd95753c1c73862b9398fa2a2cf9b4ff0fdfe8b30cd95209614b7",
+			"4e3bbb1f7b478dcfe71fb631631519a3bca12c9aefca1612bfce4c13a86264d4",
+			"76e67dadbcdf1e10e1b74ddc608abd2f98dfb16fbce75277b5232a127f2087ef",
+			"ddb89be403809e325750d3d263cd78929c2942b7942a34b77e122c9594a74c8c",
+			"5dc9da79a70659a9ad559cb701ded9a2ab9d823aad2f4960cfe370eff4604328"};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file(final byte[] content) throws IOException {
+		final File file = folder.newFile();
+		Files.write(file.toPath(), content);
+		return file;
+	}
+
+	private static String hex(final byte[] digest) {
+		return HexUtils.encode(digest, false);
+	}
+
+	/**
+	 * Reference Merkle tree hash of RFC 6962, computed recursively
+	 */
+	private static byte[] treeHash(final List<byte[]> leaves) throws NoSuchAlgorithmException {
+		final MessageDigest md = MessageDigest.getInstance(DigestUtils.SHA256);
+		if (leaves.size() == 1) {
+			md.update((byte) 0);
+			md.update(leaves.get(0));
+		} else if (leaves.size() > 1) {
+			final int k = Integer.highestOneBit(leaves.size() - 1);
+			md.update((byte) 1);
+			md.update(treeHash(leaves.subList(0, k)));
+			md.update(treeHash(leaves.subList(k, leaves.size())));
+		}
+
+		return md.digest();
+	}
+
+	@Test
+	public void testKnownAnswers() throws NoSuchAlgorithmException {
+
+		Assert.assertEquals("d41d8cd98f00b204e9800998ecf8427e", hex(DigestUtils.digest(DigestUtils.MD5, "")));
+		Assert.assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d", hex(DigestUtils.digest(DigestUtils.SHA1,
+				"abc")));
+		Assert.assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", hex(DigestUtils
+				.digest(DigestUtils.SHA256, "abc".toCharArray())));
+		Assert.assertEquals("ddaf35a193617abacc417349ae20413112e6fa4e89a97ea20a9eeee64b55d39a2192992a274fc1a836ba3c"
+				+ "23a3feebbd454d4423643ce80e2a9ac94fa54ca49f", hex(DigestUtils.digest(DigestUtils.SHA512,
+				"abc".getBytes(StandardCharsets.US_ASCII))));
+	}
+
+	@Test
+	public void testStreamingMatchesStrings() throws NoSuchAlgorithmException, IOException {
+
+		final Random random = new Random(11);
+		for (final int length : new int[] {0, 1, 1000, 200000}) {
+			final StringBuilder text = new StringBuilder();
+			for (int i = 0; i < length; i++) {
+				text.append(random.nextInt(10) == 0 ? 'ñ' : (char) ('a' + random.nextInt(26)));
+			}
+			final byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+			final File file = file(bytes);
+
+			for (final String algorithm : new String[] {DigestUtils.SHA1, DigestUtils.SHA256}) {
+				final String expected = algorithm.equals(DigestUtils.SHA1) ? StringUtils.sha1(text.toString())
+						: StringUtils.sha256(text.toString());
+
+				Assert.assertEquals(expected, hex(DigestUtils.digest(algorithm, file)));
+				Assert.assertEquals(expected, hex(DigestUtils.digest(algorithm, file.toPath())));
+				Assert.assertEquals(expected, hex(DigestUtils.digest(algorithm, new ByteArrayInputStream(bytes))));
+				try (FileInputStream stream = new FileInputStream(file)) {
+					Assert.assertEquals(expected, hex(DigestUtils.digest(algorithm, stream)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testChannelPosition() throws NoSuchAlgorithmException, IOException {
+
+		final File file = file("skip abc".getBytes(StandardCharsets.US_ASCII));
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			channel.position(5);
+			Assert.assertEquals(StringUtils.sha1("abc"), hex(DigestUtils.digest(DigestUtils.SHA1, channel)));
+			Assert.assertEquals(8, channel.position());
+		}
+	}
+
+	@Test
+	public void testTreeVectors() throws NoSuchAlgorithmException {
+
+		final List<byte[]> leaves = new ArrayList<>();
+		for (final String leaf : LEAVES) {
+			leaves.add(HexUtils.decode(leaf));
+		}
+
+		for (int n = 0; n <= leaves.size(); n++) {
+			Assert.assertEquals(ROOTS[n], hex(treeHash(leaves.subList(0, n))));
+		}
+	}
+
+	@Test
+	public void testTreeDigest() throws NoSuchAlgorithmException, IOException {
+
+		// An empty file is a tree with a single empty leaf
+		Assert.assertEquals(ROOTS[1], hex(DigestUtils.treeDigest(DigestUtils.SHA256, file(new byte[0]))));
+
+		final File file = file("abcdefghijklmnopqrs".getBytes(StandardCharsets.US_ASCII));
+		Assert.assertEquals("1f645064e793a8ebf98c4660efb4bd9591850f4d5b9b628858e999e1c2827eed", hex(DigestUtils
+				.treeDigest(DigestUtils.SHA256, file.toPath(), 19)));
+		Assert.assertEquals("6fccf0522cccaf09f685e74c9d8c486821b8584415f3bc8b9efc77f722f14596", hex(DigestUtils
+				.treeDigest(DigestUtils.SHA256, file.toPath(), 7)));
+		Assert.assertEquals("116b9aee4c7f126ea6c51677e3b375278ba9fe155baf1f6cd3ca15306ad13acd", hex(DigestUtils
+				.treeDigest(DigestUtils.SHA256, file.toPath(), 4)));
+		Assert.assertEquals("337fa9c54b9f5a7416bf5c2d769605d5c040de8b384bb9b872cede94ce6554a7", hex(DigestUtils
+				.treeDigest(DigestUtils.SHA256, file.toPath(), 3)));
+	}
+
+	@Test
+	public void testTreeDigestMatchesReference() throws NoSuchAlgorithmException, IOException {
+
+		final Random random = new Random(13);
+		final byte[] content = new byte[5000];
+		random.nextBytes(content);
+		final File file = file(content);
+
+		for (final int leafSize : new int[] {1, 2, 3, 100, 999, 1000, 1024, 4999, 5000, 5001}) {
+			final List<byte[]> leaves = new ArrayList<>();
+			for (int i = 0; i < content.length; i += leafSize) {
+				leaves.add(Arrays.copyOfRange(content, i, Math.min(i + leafSize, content.length)));
+			}
+
+			Assert.assertEquals("Leaves of " + leafSize, hex(treeHash(leaves)), hex(DigestUtils.treeDigest(
+					DigestUtils.SHA256, file.toPath(), leafSize)));
+		}
+	}
+}
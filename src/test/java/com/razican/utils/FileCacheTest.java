@@ -0,0 +1,102 @@
+package com.razican.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File write(final String name, final String content, final long age) throws IOException {
+		final File file = new File(folder.getRoot(), name);
+		Files.write(file.toPath(), content.getBytes(Charset.defaultCharset()));
+		Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(System.currentTimeMillis() - age));
+		return file;
+	}
+
+	@Test
+	public void testHitsAndInvalidation() throws IOException {
+
+		final FileCache cache = new FileCache(10, 1000);
+		final File file = write("a.txt", "abc", 60000);
+
+		Assert.assertEquals("abc", cache.get(file));
+		Assert.assertEquals("abc", cache.get(file));
+		Assert.assertEquals(1, cache.getHits());
+		Assert.assertEquals(1, cache.getMisses());
+
+		write("a.txt", "abcd", 30000);
+		Assert.assertEquals("abcd", cache.get(file));
+		Assert.assertEquals(2, cache.getMisses());
+
+		Assert.assertTrue(file.delete());
+		Assert.assertNull(cache.get(file));
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testRecentlyModified() throws IOException {
+
+		final FileCache cache = new FileCache(10, 1000);
+		final File file = write("a.txt", "abc", 0);
+
+		cache.get(file);
+		cache.get(file);
+		Assert.assertEquals(0, cache.getHits());
+		Assert.assertEquals(2, cache.getMisses());
+	}
+
+	@Test
+	public void testEviction() throws IOException {
+
+		final FileCache cache = new FileCache(2, 10);
+		final File a = write("a.txt", "aaaa", 60000);
+		final File b = write("b.txt", "bbbb", 60000);
+		final File c = write("c.txt", "cccc", 60000);
+
+		cache.get(a);
+		cache.get(b);
+		cache.get(a);
+		cache.get(c);
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(8, cache.chars());
+		Assert.assertEquals(1, cache.getEvictions());
+
+		cache.get(a);
+		Assert.assertEquals(2, cache.getHits());
+
+		cache.get(write("d.txt", "ddddddddddd", 60000));
+		Assert.assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testCharsets() throws IOException {
+
+		final FileCache cache = new FileCache(10, 1000);
+		final File file = new File(folder.getRoot(), "a.txt");
+		Files.write(file.toPath(), "caf\u00e9".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(System.currentTimeMillis() - 60000));
+
+		Assert.assertEquals("caf\u00e9", cache.get(file, StandardCharsets.UTF_8));
+		Assert.assertEquals("caf\u00c3\u00a9", cache.get(file, StandardCharsets.ISO_8859_1));
+		Assert.assertEquals("caf\u00e9", cache.get(file, StandardCharsets.UTF_8));
+		Assert.assertEquals("caf\u00c3\u00a9", cache.get(file, StandardCharsets.ISO_8859_1));
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(2, cache.getHits());
+		Assert.assertEquals(2, cache.getMisses());
+
+		cache.invalidate(file);
+		Assert.assertEquals(0, cache.size());
+		Assert.assertEquals(0, cache.chars());
+	}
+}
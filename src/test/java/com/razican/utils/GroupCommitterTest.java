@@ -0,0 +1,113 @@
+package com.razican.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GroupCommitterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static ByteBuffer buffer(final String s) {
+		return ByteBuffer.wrap(s.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private static String read(final Path path) throws IOException {
+		return new String(Files.readAllBytes(path), StandardCharsets.US_ASCII);
+	}
+
+	private static void assertFailed(final CompletableFuture<Void> future) throws InterruptedException {
+		try {
+			future.get();
+			Assert.fail();
+		} catch (final ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof IOException);
+		}
+	}
+
+	@Test
+	public void testConcurrentCommits() throws Exception {
+
+		final int threads = 8;
+		final int saves = 50;
+		final File directory = folder.newFolder();
+		final List<CompletableFuture<Void>> futures = new ArrayList<>();
+		try (GroupCommitter committer = new GroupCommitter(5)) {
+			final List<Thread> producers = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				final int id = t;
+				producers.add(new Thread(() -> {
+					for (int i = 0; i < saves; i++) {
+						final Path own = new File(directory, id + "-" + i).toPath();
+						final Path shared = new File(directory, "shared-" + id).toPath();
+						final CompletableFuture<Void> first = committer.save(own, buffer(id + ":" + i));
+						final CompletableFuture<Void> second = committer.save(shared, buffer(Integer.toString(i)));
+						synchronized (futures) {
+							futures.add(first);
+							futures.add(second);
+						}
+					}
+				}));
+			}
+			for (final Thread producer : producers) {
+				producer.start();
+			}
+			for (final Thread producer : producers) {
+				producer.join();
+			}
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).get();
+		}
+
+		for (int t = 0; t < threads; t++) {
+			for (int i = 0; i < saves; i++) {
+				Assert.assertEquals(t + ":" + i, read(new File(directory, t + "-" + i).toPath()));
+			}
+			Assert.assertEquals(Integer.toString(saves - 1), read(new File(directory, "shared-" + t).toPath()));
+		}
+		Assert.assertEquals(threads * (saves + 1), directory.list().length);
+	}
+
+	@Test
+	public void testErrorsReachEveryWaiter() throws Exception {
+
+		final Path good = folder.newFile().toPath();
+		final Path bad = new File(folder.getRoot(), "missing/file").toPath();
+		final CompletableFuture<Void> first;
+		final CompletableFuture<Void> second;
+		final CompletableFuture<Void> other;
+		try (GroupCommitter committer = new GroupCommitter(500)) {
+			first = committer.save(bad, buffer("a"));
+			other = committer.save(good, buffer("good"));
+			second = committer.save(bad, buffer("b"));
+
+			assertFailed(first);
+			assertFailed(second);
+			other.get();
+		}
+
+		Assert.assertEquals("good", read(good));
+		Assert.assertEquals(1, folder.getRoot().list().length);
+	}
+
+	@Test
+	public void testSaveAfterClose() throws Exception {
+
+		final GroupCommitter committer = new GroupCommitter(0);
+		committer.close();
+
+		assertFailed(committer.save(folder.newFile().toPath(), buffer("late")));
+	}
+}
@@ -0,0 +1,80 @@
+package com.razican.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HexUtilsTest {
+
+	@Test
+	public void testEncode() {
+		Assert.assertEquals("", HexUtils.encode(new byte[0], false));
+		Assert.assertEquals("00ff7f80", HexUtils.encode(new byte[] {0, -1, 127, -128}, false));
+		Assert.assertEquals("00FF7F80", HexUtils.encode(new byte[] {0, -1, 127, -128}, true));
+		Assert.assertEquals("c8", HexUtils.encode((byte) 0xC8, false));
+		Assert.assertEquals("C8", HexUtils.encode((byte) 0xC8, true));
+	}
+
+	@Test
+	public void testEncodeToTargets() {
+		final byte[] data = {0x12, (byte) 0xAB, 0x3C};
+
+		final char[] chars = {'x', 'x', 'x', 'x', 'x', 'x', 'x', 'x'};
+		Assert.assertEquals(4, HexUtils.encode(data, 1, 2, chars, 1, true));
+		Assert.assertArrayEquals(new char[] {'x', 'A', 'B', '3', 'C', 'x', 'x', 'x'}, chars);
+
+		final byte[] bytes = new byte[6];
+		Assert.assertEquals(6, HexUtils.encode(data, 0, 3, bytes, 0, false));
+		Assert.assertArrayEquals("12ab3c".getBytes(StandardCharsets.US_ASCII), bytes);
+
+		final ByteBuffer buffer = ByteBuffer.allocate(6);
+		HexUtils.encode(ByteBuffer.wrap(data), buffer, false);
+		Assert.assertArrayEquals("12ab3c".getBytes(StandardCharsets.US_ASCII), buffer.array());
+	}
+
+	@Test
+	public void testDecode() {
+		Assert.assertArrayEquals(new byte[0], HexUtils.decode(""));
+		Assert.assertArrayEquals(new byte[] {0, -1, 127, -128}, HexUtils.decode("00ff7F80"));
+
+		final byte[] data = new byte[3];
+		Assert.assertEquals(2, HexUtils.decode("--12aB--".toCharArray(), 2, 4, data, 1));
+		Assert.assertArrayEquals(new byte[] {0, 0x12, (byte) 0xAB}, data);
+
+		final byte[] ascii = "3c4D".getBytes(StandardCharsets.US_ASCII);
+		Assert.assertEquals(2, HexUtils.decode(ascii, 0, 4, data, 0));
+		Assert.assertArrayEquals(new byte[] {0x3C, 0x4D, (byte) 0xAB}, data);
+
+		final ByteBuffer buffer = ByteBuffer.allocate(2);
+		HexUtils.decode(ByteBuffer.wrap(ascii), buffer);
+		Assert.assertArrayEquals(new byte[] {0x3C, 0x4D}, buffer.array());
+	}
+
+	@Test
+	public void testRoundTrip() {
+		final byte[] data = new byte[256];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+
+		Assert.assertArrayEquals(data, HexUtils.decode(HexUtils.encode(data, false)));
+		Assert.assertArrayEquals(data, HexUtils.decode(HexUtils.encode(data, true)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDecodeInvalidCharacter() {
+		HexUtils.decode("0g");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDecodeNonAsciiCharacter() {
+		HexUtils.decode("0İ");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDecodeOddLength() {
+		HexUtils.decode("abc");
+	}
+}
@@ -0,0 +1,69 @@
+package com.razican.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LineCounterTest {
+
+	private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file(final byte[]... parts) throws IOException {
+		final File file = folder.newFile();
+		for (final byte[] part : parts) {
+			Files.write(file.toPath(), part, StandardOpenOption.APPEND);
+		}
+
+		return file;
+	}
+
+	private static byte[] bytes(final String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void assertLines(final long expected, final File file) {
+		Assert.assertEquals(expected, FileUtils.getLines(file, StandardCharsets.UTF_8, false));
+		Assert.assertEquals(expected, FileUtils.getLines(file, StandardCharsets.UTF_8, true));
+	}
+
+	@Test
+	public void testEdgeFiles() throws IOException {
+
+		assertLines(0, file());
+		assertLines(0, file(BOM));
+		assertLines(1, file(BOM, bytes("a")));
+		assertLines(1, file(BOM, bytes("\n")));
+		assertLines(2, file(BOM, bytes("a\r\nb")));
+		assertLines(1, file(bytes("\n")));
+		assertLines(2, file(bytes("a\nb")));
+		assertLines(2, file(bytes("a\nb\n")));
+		assertLines(3, file(bytes("\n\n\n")));
+	}
+
+	@Test
+	public void testSegments() throws IOException {
+
+		final byte[] content = new byte[LineCounter.SEGMENT_SIZE + 1000];
+		Arrays.fill(content, (byte) 'x');
+		final int[] newlines = {0, 7, LineCounter.SEGMENT_SIZE / 2 - 1, LineCounter.SEGMENT_SIZE / 2,
+				LineCounter.SEGMENT_SIZE - 1, LineCounter.SEGMENT_SIZE, content.length - 2};
+		for (final int position : newlines) {
+			content[position] = '\n';
+		}
+		final File file = file(content);
+
+		Assert.assertEquals(newlines.length + 1, FileUtils.getLines(file, StandardCharsets.UTF_8, false));
+		Assert.assertEquals(newlines.length + 1, FileUtils.getLines(file, StandardCharsets.UTF_8, true));
+	}
+}
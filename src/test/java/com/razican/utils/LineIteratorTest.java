@@ -0,0 +1,109 @@
+package com.razican.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LineIteratorTest {
+
+	private static LineIterator iterator(final String content) {
+		return new LineIterator(new BufferedReader(new StringReader(content)));
+	}
+
+	@Test
+	public void testLookahead() {
+
+		final LineIterator it = iterator("a\nb\nc");
+
+		Assert.assertTrue(it.hasNext());
+		Assert.assertTrue(it.hasNext());
+		Assert.assertEquals("a", it.next());
+		Assert.assertEquals("b", it.next());
+		Assert.assertTrue(it.hasNext());
+		Assert.assertEquals("c", it.next());
+		Assert.assertFalse(it.hasNext());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testNextAtEnd() {
+
+		final LineIterator it = iterator("a");
+
+		it.next();
+		it.next();
+	}
+
+	@Test
+	public void testNextBatch() throws IOException {
+
+		final LineIterator it = iterator("a\nb\nc\nd\ne\n");
+		final String[] batch = new String[2];
+
+		Assert.assertTrue(it.hasNext());
+		Assert.assertEquals(2, it.nextBatch(batch));
+		Assert.assertArrayEquals(new String[] {"a", "b"}, batch);
+		Assert.assertEquals("c", it.next());
+		Assert.assertEquals(2, it.nextBatch(batch));
+		Assert.assertArrayEquals(new String[] {"d", "e"}, batch);
+		Assert.assertEquals(0, it.nextBatch(batch));
+	}
+
+	@Test
+	public void testForEachBatch() throws IOException {
+
+		final List<String[]> batches = new ArrayList<>();
+		iterator("a\nb\nc\nd\ne\n").forEachBatch(2, batches::add);
+
+		Assert.assertEquals(3, batches.size());
+		Assert.assertArrayEquals(new String[] {"a", "b"}, batches.get(0));
+		Assert.assertArrayEquals(new String[] {"c", "d"}, batches.get(1));
+		Assert.assertArrayEquals(new String[] {"e"}, batches.get(2));
+
+		batches.clear();
+		iterator("a\nb\n").forEachBatch(2, batches::add);
+		Assert.assertEquals(1, batches.size());
+		Assert.assertEquals(Arrays.asList("a", "b"), Arrays.asList(batches.get(0)));
+	}
+
+	@Test
+	public void testReadError() {
+
+		final IOException error = new IOException("Read failed");
+		final Reader failing = new Reader() {
+
+			@Override
+			public int read(final char[] cbuf, final int off, final int len) throws IOException {
+				throw error;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+
+		final CountingIoMetrics metrics = new CountingIoMetrics();
+		FileUtils.setMetrics(metrics);
+		try {
+			final LineIterator it = new LineIterator(new BufferedReader(failing));
+			try {
+				it.hasNext();
+				Assert.fail();
+			} catch (final UncheckedIOException e) {
+				Assert.assertSame(error, e.getCause());
+			}
+			Assert.assertEquals(1, metrics.getErrors());
+			Assert.assertSame(error, metrics.getLastError());
+		} finally {
+			FileUtils.setMetrics(null);
+		}
+	}
+}
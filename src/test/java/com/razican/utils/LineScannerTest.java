@@ -0,0 +1,206 @@
+package com.razican.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LineScannerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final CountingIoMetrics metrics = new CountingIoMetrics();
+
+	@Before
+	public void setUp() {
+		FileUtils.setMetrics(metrics);
+	}
+
+	@After
+	public void tearDown() {
+		FileUtils.setMetrics(null);
+	}
+
+	private File file(final String content) throws IOException {
+		final File file = folder.newFile();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static List<String> scan(final File file, final int windowSize) throws IOException {
+		final List<String> lines = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+				LineScanner scanner = new LineScanner(channel, 0, Long.MAX_VALUE, windowSize)) {
+			while (scanner.nextLine()) {
+				lines.add(scanner.decode(StandardCharsets.UTF_8));
+			}
+		}
+
+		return lines;
+	}
+
+	private static void assertSearch(final ByteBuffer buf, final int from, final int to) {
+		int index = -1;
+		long count = 0;
+		for (int i = to - 1; i >= from; i--) {
+			if (buf.get(i) == '\n') {
+				index = i;
+				count++;
+			}
+		}
+
+		Assert.assertEquals(from + ", " + to, index, LineScanner.indexOf(buf, from, to));
+		Assert.assertEquals(from + ", " + to, count, LineScanner.count(buf, from, to));
+	}
+
+	@Test
+	public void testNewlineInEachLane() {
+
+		// Bytes that differ from \n in a single bit, so a wrong mask finds them
+		final byte[] fill = {'\r', 0x0B, 0x08, (byte) 0x8A, 0x1A, 0x0E, 0x02, (byte) 0xFF};
+		for (final ByteBuffer buf : new ByteBuffer[] {ByteBuffer.allocate(40), ByteBuffer.allocateDirect(40)}) {
+			buf.order(ByteOrder.LITTLE_ENDIAN);
+			for (int i = 0; i < buf.capacity(); i++) {
+				buf.put(i, fill[i % fill.length]);
+			}
+			assertSearch(buf, 0, buf.capacity());
+
+			for (int position = 0; position < buf.capacity(); position++) {
+				buf.put(position, (byte) '\n');
+				for (int from = 0; from <= position; from++) {
+					assertSearch(buf, from, buf.capacity());
+					assertSearch(buf, from, position + 1);
+					assertSearch(buf, from, position);
+				}
+				buf.put(position, fill[position % fill.length]);
+			}
+		}
+	}
+
+	@Test
+	public void testRandomSearch() {
+
+		final Random random = new Random(3);
+		final ByteBuffer buf = ByteBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN);
+		for (int i = 0; i < 2000; i++) {
+			for (int j = 0; j < buf.capacity(); j++) {
+				buf.put(j, random.nextInt(8) == 0 ? (byte) '\n' : (byte) random.nextInt(256));
+			}
+			final int from = random.nextInt(buf.capacity());
+			assertSearch(buf, from, from + random.nextInt(buf.capacity() - from + 1));
+		}
+	}
+
+	@Test
+	public void testLinesAcrossWindows() throws IOException {
+
+		final Random random = new Random(5);
+		final List<String> expected = new ArrayList<>();
+		final StringBuilder content = new StringBuilder();
+		for (int i = 0; i < 300; i++) {
+			final StringBuilder line = new StringBuilder();
+			for (int j = random.nextInt(i % 50 == 0 ? 200 : 20); j > 0; j--) {
+				line.append((char) ('a' + random.nextInt(26)));
+			}
+			expected.add(line.toString());
+			content.append(line).append(random.nextBoolean() ? "\r\n" : "\n");
+		}
+		final File file = file(content.toString());
+
+		for (final int windowSize : new int[] {1, 2, 3, 7, 8, 9, 16, 64, 1024}) {
+			Assert.assertEquals("Window of " + windowSize, expected, scan(file, windowSize));
+		}
+		Assert.assertEquals(metrics.getMaps(), metrics.getUnmaps());
+	}
+
+	@Test
+	public void testCrLfAtWindowEdge() throws IOException {
+
+		final File file = file("abcdefg\r\nxy\r\n12345\r\n\r\nz");
+		for (final int windowSize : new int[] {4, 7, 8, 9, 10, 11, 12}) {
+			Assert.assertEquals("Window of " + windowSize, Arrays.asList("abcdefg", "xy", "12345", "", "z"), scan(
+					file, windowSize));
+		}
+	}
+
+	@Test
+	public void testLongLineDoublesWindow() throws IOException {
+
+		final StringBuilder line = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			line.append((char) ('a' + i % 26));
+		}
+		final File file = file("a\n" + line + "\nb");
+
+		Assert.assertEquals(Arrays.asList("a", line.toString(), "b"), scan(file, 4));
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+				LineScanner scanner = new LineScanner(channel, 0, Long.MAX_VALUE, 4)) {
+			Assert.assertTrue(scanner.nextLine());
+			Assert.assertTrue(scanner.nextLine());
+			Assert.assertEquals(2, scanner.lineOffset());
+			Assert.assertEquals(1000, scanner.lineLength());
+			Assert.assertTrue(scanner.startsWith("abc".getBytes(StandardCharsets.US_ASCII)));
+			Assert.assertEquals('l', scanner.byteAt(999));
+			Assert.assertTrue(scanner.nextLine());
+			Assert.assertEquals(1003, scanner.lineOffset());
+			Assert.assertFalse(scanner.nextLine());
+		}
+	}
+
+	@Test
+	public void testEdgeFiles() throws IOException {
+
+		Assert.assertEquals(Arrays.asList(), scan(file(""), 8));
+		Assert.assertEquals(Arrays.asList(""), scan(file("\n"), 8));
+		Assert.assertEquals(Arrays.asList("", ""), scan(file("\r\n\n"), 1));
+		Assert.assertEquals(Arrays.asList("a", "b"), scan(file("a\nb"), 8));
+		Assert.assertEquals(Arrays.asList("a", "b"), scan(file("a\r\nb\r"), 2));
+	}
+
+	@Test
+	public void testClosedScanner() throws IOException {
+
+		final LineScanner scanner = new LineScanner(file("a\nb\n"));
+		Assert.assertTrue(scanner.nextLine());
+		scanner.close();
+
+		Assert.assertFalse(scanner.nextLine());
+		Assert.assertEquals(metrics.getMaps(), metrics.getUnmaps());
+	}
+
+	@Test
+	public void testSpliteratorAfterExhaustion() throws IOException {
+
+		try (FileChannel channel = FileChannel.open(file("a\nb\r\nc").toPath(), StandardOpenOption.READ)) {
+			final LineSpliterator spliterator = new LineSpliterator(channel, StandardCharsets.UTF_8);
+			final List<String> lines = new ArrayList<>();
+			while (spliterator.tryAdvance(lines::add)) {
+				// Collecting
+			}
+
+			Assert.assertEquals(Arrays.asList("a", "b", "c"), lines);
+			Assert.assertFalse(spliterator.tryAdvance(lines::add));
+			Assert.assertFalse(spliterator.tryAdvance(lines::add));
+			Assert.assertEquals(3, lines.size());
+			Assert.assertEquals(3, metrics.getLinesRead());
+			Assert.assertEquals(6, metrics.getBytesRead());
+			Assert.assertEquals(metrics.getMaps(), metrics.getUnmaps());
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.razican.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MappedFileReaderTest {
+
+	private static final String TEXT = "aé€😀b\nñ中文𝄞\r\nzzü";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final CountingIoMetrics metrics = new CountingIoMetrics();
+
+	@Before
+	public void setUp() {
+		FileUtils.setMetrics(metrics);
+	}
+
+	@After
+	public void tearDown() {
+		FileUtils.setMetrics(null);
+	}
+
+	private File file(final byte[] content) throws IOException {
+		final File file = folder.newFile();
+		Files.write(file.toPath(), content);
+		return file;
+	}
+
+	private static String read(final File file, final Charset charset, final int windowSize, final int chunk)
+			throws IOException {
+		final StringBuilder content = new StringBuilder();
+		try (MappedFileReader reader = new MappedFileReader(file, charset, windowSize)) {
+			if (chunk == 1) {
+				int c;
+				while ((c = reader.read()) != -1) {
+					content.append((char) c);
+				}
+			} else {
+				final char[] buf = new char[chunk];
+				int n;
+				while ((n = reader.read(buf, 0, chunk)) != -1) {
+					content.append(buf, 0, n);
+				}
+			}
+		}
+
+		return content.toString();
+	}
+
+	@Test
+	public void testSequencesAcrossWindows() throws IOException {
+
+		final StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 20; i++) {
+			text.append(TEXT);
+		}
+		final String expected = text.toString();
+
+		for (final Charset charset : new Charset[] {StandardCharsets.UTF_8, StandardCharsets.UTF_16LE,
+				StandardCharsets.UTF_16BE}) {
+			final File file = file(expected.getBytes(charset));
+			for (int windowSize = MappedFileReader.MIN_WINDOW_SIZE; windowSize < 40; windowSize++) {
+				for (final int chunk : new int[] {1, 3, 1024}) {
+					Assert.assertEquals(charset + ", window of " + windowSize, expected, read(file, charset,
+							windowSize, chunk));
+				}
+			}
+		}
+		Assert.assertEquals(metrics.getMaps(), metrics.getUnmaps());
+	}
+
+	@Test
+	public void testByteOrderMarks() throws IOException {
+
+		final byte[] utf8 = ("\uFEFF" + TEXT).getBytes(StandardCharsets.UTF_8);
+		final byte[] utf16 = ("\uFEFF" + TEXT).getBytes(StandardCharsets.UTF_16LE);
+		for (int windowSize = MappedFileReader.MIN_WINDOW_SIZE; windowSize < 24; windowSize++) {
+			Assert.assertEquals(TEXT, read(file(utf8), StandardCharsets.ISO_8859_1, windowSize, 1024));
+			Assert.assertEquals(TEXT, read(file(utf16), StandardCharsets.ISO_8859_1, windowSize, 1024));
+		}
+	}
+
+	@Test
+	public void testEdgeFiles() throws IOException {
+
+		Assert.assertEquals("", read(file(new byte[0]), StandardCharsets.UTF_8, 16, 1024));
+		Assert.assertEquals("", read(file(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}),
+				StandardCharsets.UTF_8, 16, 1));
+		Assert.assertEquals("", read(file(new byte[] {(byte) 0xFF, (byte) 0xFE}), StandardCharsets.UTF_8, 16, 1));
+		Assert.assertEquals("€", read(file(new byte[] {(byte) 0xE2, (byte) 0x82, (byte) 0xAC}),
+				StandardCharsets.UTF_8, 16, 1));
+
+		// A truncated sequence at the end of the file is replaced
+		Assert.assertEquals("a\uFFFD", read(file(new byte[] {'a', (byte) 0xE2, (byte) 0x82}),
+				StandardCharsets.UTF_8, 16, 1024));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSmallWindow() throws IOException {
+
+		new MappedFileReader(file(new byte[0]), StandardCharsets.UTF_8, MappedFileReader.MIN_WINDOW_SIZE - 1).close();
+	}
+}
@@ -44,4 +44,17 @@ public class MathUtilsTest {
 		Assert.assertEquals((byte) 0x6F, MathUtils.getByte(0x6F544194, 3));
 		Assert.assertEquals((byte) 0, MathUtils.getByte(0x6F544194, 4));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testZigZag() {
+		Assert.assertEquals(0, MathUtils.zigZagEncode(0));
+		Assert.assertEquals(1, MathUtils.zigZagEncode(-1));
+		Assert.assertEquals(2, MathUtils.zigZagEncode(1));
+		Assert.assertEquals(-1, MathUtils.zigZagEncode(Integer.MIN_VALUE));
+		Assert.assertEquals(Integer.MIN_VALUE, MathUtils.zigZagDecode(-1));
+		Assert.assertEquals(-2, MathUtils.zigZagDecode(3));
+		Assert.assertEquals(3L, MathUtils.zigZagEncode(-2L));
+		Assert.assertEquals(-1L, MathUtils.zigZagEncode(Long.MIN_VALUE));
+		Assert.assertEquals(Long.MAX_VALUE, MathUtils.zigZagDecode(-2L));
+	}
+}
@@ -0,0 +1,245 @@
+package com.razican.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NumberParserTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static void assertDouble(final String s) {
+		final long expected = Double.doubleToRawLongBits(Double.parseDouble(s));
+		final String padded = "x" + s + "y";
+		final byte[] bytes = padded.getBytes(StandardCharsets.US_ASCII);
+		final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+		direct.put(bytes);
+
+		Assert.assertEquals(s, expected, Double.doubleToRawLongBits(NumberParser.parseDouble(bytes, 1, s.length())));
+		Assert.assertEquals(s, expected, Double.doubleToRawLongBits(NumberParser.parseDouble(padded, 1, s.length())));
+		Assert.assertEquals(s, expected, Double.doubleToRawLongBits(NumberParser.parseDouble(direct, 1, s.length())));
+		Assert.assertEquals(s, expected,
+				Double.doubleToRawLongBits(NumberParser.parseDouble(ByteBuffer.wrap(bytes), 1, s.length())));
+	}
+
+	private static void assertInvalidDouble(final String s) {
+		try {
+			NumberParser.parseDouble(s, 0, s.length());
+			Assert.fail(s);
+		} catch (final NumberFormatException e) {
+			// Expected
+		}
+		try {
+			NumberParser.parseDouble(s.getBytes(StandardCharsets.US_ASCII), 0, s.length());
+			Assert.fail(s);
+		} catch (final NumberFormatException e) {
+			// Expected
+		}
+		try {
+			NumberParser.parseDouble(ByteBuffer.allocateDirect(s.length()).put(s.getBytes(StandardCharsets.US_ASCII)),
+					0, s.length());
+			Assert.fail(s);
+		} catch (final NumberFormatException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testIntegers() {
+
+		final String line = "a,-42,2147483647,-9223372036854775808,+7";
+		final byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+		final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+		direct.put(bytes);
+
+		Assert.assertEquals(-42, NumberParser.parseInt(line, 2, 3));
+		Assert.assertEquals(-42, NumberParser.parseInt(bytes, 2, 3));
+		Assert.assertEquals(-42, NumberParser.parseInt(direct, 2, 3));
+		Assert.assertEquals(Integer.MAX_VALUE, NumberParser.parseInt(line, 6, 10));
+		Assert.assertEquals(Long.MIN_VALUE, NumberParser.parseLong(bytes, 17, 20));
+		Assert.assertEquals(Long.MIN_VALUE, NumberParser.parseLong(direct, 17, 20));
+		Assert.assertEquals(7, NumberParser.parseLong(line, 38, 2));
+		Assert.assertEquals(bytes.length, direct.position());
+
+		for (final String s : new String[] {"", "-", "+", "1a", "2147483648", "-2147483649", " 1", "1.0"}) {
+			try {
+				NumberParser.parseInt(s, 0, s.length());
+				Assert.fail(s);
+			} catch (final NumberFormatException e) {
+				// Expected
+			}
+			try {
+				NumberParser.parseInt(ByteBuffer.allocateDirect(s.length()).put(s.getBytes(StandardCharsets.US_ASCII)),
+						0, s.length());
+				Assert.fail(s);
+			} catch (final NumberFormatException e) {
+				// Expected
+			}
+		}
+		try {
+			NumberParser.parseLong("9223372036854775808", 0, 19);
+			Assert.fail();
+		} catch (final NumberFormatException e) {
+			// Expected
+		}
+		try {
+			NumberParser.parseLong(bytes, 30, 20);
+			Assert.fail();
+		} catch (final IndexOutOfBoundsException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testDoubles() {
+
+		final String[] inputs = {"0", "-0", "0.0", "+0e10", "1", "-1.5", ".5", "5.", "3.14159", "1e10", "1E-5", "1e+5",
+				"0.1", "0.2", "0.3", "123456789012345678", "12345678901234567890", "1234567890123456789012",
+				"0.000001234", "9007199254740993", "9007199254740992.5", "1e22", "1e23", "4.9e-324", "2.5e-324",
+				"2.4703282292062327e-324", "2.4703282292062328e-324", "1.7976931348623157e308",
+				"1.7976931348623158e308", "1.7976931348623159e308", "1e400", "1e-400", "2.2250738585072014E-308",
+				"2.2250738585072011e-308", "9999999999999999999", "99999999999999999999.5",
+				"7.3177701707893310e+15", "0.000000000000000000000000000000000000000000001", "1e-342", "1e308",
+				"1e309", "NaN", "-Infinity", "+Infinity", "Infinity", "00012.50", "8.98846567431158e307",
+				"179769313486231580793728971405303415079934132710037826936173778980444968292764750946649017977587"
+						+ "207096330286416692887910946555547851940402630657488671505820681908902000708383676273854845"
+						+ "817711531764475730270069855571366959622842914819860834936475292719074168444365510704342711"
+						+ "559699508093042880177904174497791.9999999999999999999999999999999999999999999999999999999"};
+		for (final String s : inputs) {
+			assertDouble(s);
+		}
+
+		for (final String s : new String[] {"", "-", ".", "e5", "1e", "1.2.3", "1x", "--1", "1e+", "1.5d", "2f",
+				"0x1p3", " 1", "1 ", "\t1", "inf", "Infinityy", "-nan", "1e5.5", ".e1", "+.", "1e--1"}) {
+			assertInvalidDouble(s);
+		}
+	}
+
+	@Test
+	public void testHalfway() {
+
+		// Values exactly between two doubles, and just around them
+		final Random random = new Random(7);
+		for (int i = 0; i < 2000; i++) {
+			final double d = Double.longBitsToDouble(random.nextLong() & 0x7FEFFFFFFFFFFFFFL);
+			final BigDecimal halfway = new BigDecimal(d).add(new BigDecimal(Math.nextUp(d))).divide(
+					BigDecimal.valueOf(2));
+			final String exact = halfway.toString();
+			assertDouble(exact);
+			assertDouble(halfway.round(new MathContext(17)).toString());
+			assertDouble(halfway.round(new MathContext(19)).toString());
+			assertDouble(halfway.round(new MathContext(20)).toString());
+		}
+	}
+
+	@Test
+	public void testRandomDoubles() {
+
+		final Random random = new Random(42);
+		for (int i = 0; i < 100000; i++) {
+			final String s;
+			switch (i % 4) {
+			case 0:
+				s = Double.toString(Double.longBitsToDouble(random.nextLong()));
+				break;
+			case 1:
+				s = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+				break;
+			case 2:
+				s = new BigInteger(1 + random.nextInt(64), random) + "e" + (random.nextInt(700) - 350);
+				break;
+			default:
+				s = (random.nextInt(2000000) - 1000000) + "." + random.nextInt(1000000);
+				break;
+			}
+			if (s.indexOf('N') < 0 && s.indexOf('I') < 0) {
+				assertDouble(s);
+			}
+		}
+	}
+
+	@Test
+	public void testMultiplyHigh() {
+
+		final Random random = new Random(1);
+		final BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+		for (int i = 0; i < 10000; i++) {
+			final long x = i == 0 ? -1L : random.nextLong();
+			final long y = i == 0 ? -1L : random.nextLong();
+			final BigInteger product = new BigInteger(Long.toUnsignedString(x)).multiply(new BigInteger(Long
+					.toUnsignedString(y)));
+			Assert.assertEquals(product.shiftRight(64).and(mask).longValue(), NumberParser.multiplyHigh(x, y));
+		}
+	}
+
+	@Test
+	public void testLineScannerFields() throws IOException {
+
+		final File file = folder.newFile("data.csv");
+		Files.write(file.toPath(), "1,-2.5,10000000000\r\n-7,0.1,42\n".getBytes(StandardCharsets.US_ASCII));
+
+		long ints = 0;
+		double doubles = 0;
+		long longs = 0;
+		try (LineScanner scanner = new LineScanner(file)) {
+			while (scanner.nextLine()) {
+				final int first = scanner.indexOf((byte) ',', 0);
+				final int second = scanner.indexOf((byte) ',', first + 1);
+				ints += scanner.parseInt(0, first);
+				doubles += scanner.parseDouble(first + 1, second - first - 1);
+				longs += scanner.parseLong(second + 1, scanner.lineLength() - second - 1);
+				Assert.assertEquals(-1, scanner.indexOf((byte) ',', second + 1));
+			}
+		}
+
+		Assert.assertEquals(-6, ints);
+		Assert.assertEquals(-2.4, doubles, 1e-12);
+		Assert.assertEquals(10000000042L, longs);
+	}
+
+	@Test
+	public void testCopiedSources() {
+
+		// Longer than the scratch array of the thread
+		final StringBuilder digits = new StringBuilder("0.");
+		for (int i = 0; i < 200; i++) {
+			digits.append((char) ('0' + i % 10));
+		}
+		assertDouble(digits.toString());
+		assertDouble("-" + digits + "e-5");
+		final String zeros = "x-" + digits.substring(2).replaceAll("[0-9]", "0") + "123";
+		Assert.assertEquals(-123L, NumberParser.parseLong(zeros, 1, zeros.length() - 1));
+
+		// Characters whose low byte is a digit
+		assertInvalidDouble("1\u0131");
+		try {
+			NumberParser.parseInt("\u01312", 0, 2);
+			Assert.fail();
+		} catch (final NumberFormatException e) {
+			Assert.assertEquals("For input string: \"\u01312\"", e.getMessage());
+		}
+
+		// A failed parse does not affect the next one in the same thread
+		try {
+			NumberParser.parseLong("99999999999999999999", 0, 20);
+			Assert.fail();
+		} catch (final NumberFormatException e) {
+			// Expected
+		}
+		Assert.assertEquals(7, NumberParser.parseInt("7", 0, 1));
+		Assert.assertEquals(2.5, NumberParser.parseDouble(ByteBuffer.allocateDirect(3).put((byte) '2')
+				.put((byte) '.').put((byte) '5'), 0, 3), 0);
+	}
+}
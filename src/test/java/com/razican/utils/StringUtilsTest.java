@@ -34,6 +34,20 @@ public class StringUtilsTest {
 		Assert.assertEquals("7f9d591232c5fde9f757c4d8472921517991dc3c", StringUtils.sha1(test7));
 	}
 	
+	@Test
+	public void testOtherHashes() {
+		
+		char[] test = {'a', 'b', 'c', '1', '2', '3'};
+		
+		Assert.assertEquals("6ca13d52ca70c883e0f0bb101e425a89e8624de51db2d2392593af6a84118090", StringUtils.sha256("abc123"));
+		Assert.assertEquals("6ca13d52ca70c883e0f0bb101e425a89e8624de51db2d2392593af6a84118090", StringUtils.sha256(test));
+		Assert.assertEquals("b57e8020e4c0f688e489ebc52c5284c8598d10e6e47e163d5ed69205f8233fed", StringUtils.sha256("hj6¬"));
+		Assert.assertEquals("c70b5dd9ebfb6f51d09d4132b7170c9d20750a7852f00680f65658f0310e810056e6763c34c9a00b0e940076f54495c169fc2302cceb312039271c43469507dc", StringUtils.sha512("abc123"));
+		Assert.assertEquals("c70b5dd9ebfb6f51d09d4132b7170c9d20750a7852f00680f65658f0310e810056e6763c34c9a00b0e940076f54495c169fc2302cceb312039271c43469507dc", StringUtils.sha512(test));
+		Assert.assertEquals("e99a18c428cb38d5f260853678922e03", StringUtils.md5("abc123"));
+		Assert.assertEquals("e99a18c428cb38d5f260853678922e03", StringUtils.md5(test));
+	}
+	
 	@Test
 	public void testToByte() throws CharacterCodingException {
 		
@@ -53,6 +67,20 @@ public class StringUtilsTest {
 		Assert.assertArrayEquals(result3, StringUtils.toByte(test3, "UTF-8"));
 	}
 	
+	@Test
+	public void testToByteInArray() {
+		
+		char[] test = {'a', 'Ϩ', 'b', 'c', 'ÿ', 'Ā'};
+		byte[] result = {97, 3, -24, 98, 99, -1, 1, 0};
+		
+		Assert.assertEquals(8, StringUtils.byteLength(test, 0, test.length));
+		Assert.assertArrayEquals(result, StringUtils.toByte(test));
+		
+		byte[] dst = new byte[5];
+		Assert.assertEquals(3, StringUtils.toByte(test, 1, 2, dst, 1));
+		Assert.assertArrayEquals(new byte[] {0, 3, -24, 98, 0}, dst);
+	}
+	
 	@Test
 	public void testToChar() throws UnsupportedEncodingException {
 		
@@ -0,0 +1,131 @@
+package com.razican.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TailingLineIteratorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static void append(final Path path, final String s) throws IOException {
+		Files.write(path, s.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+	}
+
+	private static String[] batch(final TailingLineIterator it, final long millis) throws IOException,
+			InterruptedException {
+		final String[] dst = new String[16];
+		final int n = it.nextBatch(dst, millis, TimeUnit.MILLISECONDS);
+		final String[] lines = new String[Math.max(0, n)];
+		System.arraycopy(dst, 0, lines, 0, lines.length);
+		return lines;
+	}
+
+	@Test(timeout = 20000)
+	public void testAppendedLines() throws Exception {
+
+		final Path path = folder.newFile().toPath();
+		append(path, "a\nb\r\n");
+		try (TailingLineIterator it = new TailingLineIterator(path, StandardCharsets.UTF_8, false)) {
+			Assert.assertEquals("a", it.next());
+			Assert.assertEquals("b", it.next());
+			Assert.assertEquals(0, batch(it, 100).length);
+
+			append(path, "c\nd");
+			Assert.assertArrayEquals(new String[] {"c"}, batch(it, 5000));
+
+			// The partial line is held back until its terminator arrives
+			Assert.assertEquals(0, batch(it, 300).length);
+			append(path, "ñe");
+			Assert.assertEquals(0, batch(it, 300).length);
+			append(path, "\r");
+			Assert.assertEquals(0, batch(it, 300).length);
+			append(path, "\nf\n");
+			Assert.assertArrayEquals(new String[] {"dñe", "f"}, batch(it, 5000));
+		}
+	}
+
+	@Test(timeout = 20000)
+	public void testLinesFromAnotherThread() throws Exception {
+
+		final Path path = folder.newFile().toPath();
+		append(path, "old\n");
+		try (TailingLineIterator it = new TailingLineIterator(path, StandardCharsets.UTF_8, true)) {
+			final Thread writer = new Thread(() -> {
+				try {
+					for (int i = 0; i < 50; i++) {
+						append(path, "line " + i + "\n");
+						Thread.sleep(2);
+					}
+				} catch (final IOException | InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			writer.start();
+
+			for (int i = 0; i < 50; i++) {
+				Assert.assertTrue(it.hasNext());
+				Assert.assertEquals("line " + i, it.next());
+			}
+			writer.join();
+		}
+	}
+
+	@Test(timeout = 20000)
+	public void testTruncation() throws Exception {
+
+		final Path path = folder.newFile().toPath();
+		append(path, "first\nsecond\n");
+		try (TailingLineIterator it = new TailingLineIterator(path, StandardCharsets.UTF_8, false)) {
+			Assert.assertArrayEquals(new String[] {"first", "second"}, batch(it, 5000));
+
+			Files.write(path, "new\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+			Assert.assertArrayEquals(new String[] {"new"}, batch(it, 5000));
+		}
+	}
+
+	@Test(timeout = 20000)
+	public void testRotation() throws Exception {
+
+		final Path path = folder.newFile().toPath();
+		append(path, "a\n");
+		try (TailingLineIterator it = new TailingLineIterator(path, StandardCharsets.UTF_8, false)) {
+			Assert.assertEquals("a", it.next());
+
+			append(path, "b\npartial");
+			Files.move(path, new File(folder.getRoot(), "rotated").toPath());
+			append(folder.newFile(path.getFileName().toString()).toPath(), "c\n");
+
+			Assert.assertEquals("b", it.next());
+			Assert.assertEquals("partial", it.next());
+			Assert.assertEquals("c", it.next());
+		}
+	}
+
+	@Test(timeout = 20000)
+	public void testCloseWakesWaiter() throws Exception {
+
+		final Path path = folder.newFile().toPath();
+		final TailingLineIterator it = new TailingLineIterator(path, StandardCharsets.UTF_8, false);
+		final AtomicBoolean hasNext = new AtomicBoolean(true);
+		final Thread waiter = new Thread(() -> hasNext.set(it.hasNext()));
+		waiter.start();
+		Thread.sleep(100);
+
+		it.close();
+		waiter.join();
+		Assert.assertFalse(hasNext.get());
+		Assert.assertEquals(-1, it.nextBatch(new String[1], 10, TimeUnit.MILLISECONDS));
+	}
+}